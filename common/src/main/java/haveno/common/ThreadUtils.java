@@ -16,41 +16,42 @@
  */
 
 package haveno.common;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import haveno.common.util.KeyedSerialExecutor;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public class ThreadUtils {
-    
-    private static final Map<String, ExecutorService> EXECUTORS = new HashMap<>();
-    private static final Map<String, Thread> THREADS = new HashMap<>();
+
+    // Shared by the keyed tasks and awaited tasks. Threads are only created for tasks which run concurrently and
+    // get released after being idle for a minute.
+    private static final ExecutorService SHARED_EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("ThreadUtils-%d").build());
+    private static final KeyedSerialExecutor KEYED_EXECUTOR = new KeyedSerialExecutor(SHARED_EXECUTOR);
     private static final int POOL_SIZE = 10;
     private static final ExecutorService POOL = Executors.newFixedThreadPool(POOL_SIZE);
 
     /**
      * Execute the given command in a thread with the given id.
+     * Commands with the same thread id run one after another in the order they have been submitted.
      * 
      * @param command the command to execute
      * @param threadId the thread id
      */
     public static void execute(Runnable command, String threadId) {
-        synchronized (EXECUTORS) {
-            if (!EXECUTORS.containsKey(threadId)) EXECUTORS.put(threadId, Executors.newFixedThreadPool(1));
-            EXECUTORS.get(threadId).execute(() -> {
-                synchronized (THREADS) {
-                    THREADS.put(threadId, Thread.currentThread());
-                }
-                command.run();
-            });
-        }
+        KEYED_EXECUTOR.execute(threadId, command);
     }
 
     /**
@@ -60,7 +61,7 @@ public class ThreadUtils {
      * @param threadId the thread id
      */
     public static void await(Runnable command, String threadId) {
-        if (isCurrentThread(Thread.currentThread(), threadId)) {
+        if (KEYED_EXECUTOR.isCurrentKey(threadId)) {
             command.run();
         } else {
             CountDownLatch latch = new CountDownLatch(1);
@@ -85,31 +86,33 @@ public class ThreadUtils {
         shutDown(threadId, null);
     }
 
+    /**
+     * Rejects new commands of the thread id and waits for its queued commands to complete. Queued commands are dropped
+     * and the running command gets interrupted if the timeout elapses. The thread id can be used again once its
+     * commands are done.
+     */
     public static void shutDown(String threadId, Long timeoutMs) {
         if (timeoutMs == null) timeoutMs = Long.MAX_VALUE;
-        ExecutorService pool = null;
-        synchronized (EXECUTORS) {
-            pool = EXECUTORS.get(threadId);
-        }
-        if (pool == null) return; // thread not found
-        pool.shutdown();
+        KEYED_EXECUTOR.shutDown(threadId);
+        if (KEYED_EXECUTOR.isCurrentKey(threadId)) return; // cannot wait for ourselves, the key gets evicted when idle
         try {
-            if (!pool.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) pool.shutdownNow();
+            if (!KEYED_EXECUTOR.awaitIdle(threadId, timeoutMs)) KEYED_EXECUTOR.cancel(threadId);
         } catch (InterruptedException e) {
-            pool.shutdownNow();
+            KEYED_EXECUTOR.cancel(threadId);
             throw new RuntimeException(e);
-        } finally {
-            remove(threadId);
         }
     }
 
-    public static void remove(String threadId) {
-        synchronized (EXECUTORS) {
-            EXECUTORS.remove(threadId);
-        }
-        synchronized (THREADS) {
-            THREADS.remove(threadId);
-        }
+    public static int getQueueDepth(String threadId) {
+        return KEYED_EXECUTOR.getQueueDepth(threadId);
+    }
+
+    public static long getQueueDepth() {
+        return KEYED_EXECUTOR.getQueueDepth();
+    }
+
+    public static int getNumActiveThreadIds() {
+        return KEYED_EXECUTOR.getNumActiveKeys();
     }
 
     // TODO: consolidate and cleanup apis
@@ -143,23 +146,15 @@ public class ThreadUtils {
     public static List<Future<?>> awaitTasks(Collection<Runnable> tasks, int maxConcurrency, Long timeoutMs) {
         if (timeoutMs == null) timeoutMs = Long.MAX_VALUE;
         if (tasks.isEmpty()) return new ArrayList<>();
-        ExecutorService executorService = Executors.newFixedThreadPool(tasks.size());
+
+        List<Future<?>> futures = new ArrayList<>();
         try {
-            List<Future<?>> futures = new ArrayList<>();
-            for (Runnable task : tasks) futures.add(executorService.submit(task, null));
+            for (Runnable task : tasks) futures.add(SHARED_EXECUTOR.submit(task, null));
             for (Future<?> future : futures) future.get(timeoutMs, TimeUnit.MILLISECONDS);
             return futures;
         } catch (Exception e) {
+            for (Future<?> future : futures) future.cancel(true);
             throw new RuntimeException(e);
-        } finally {
-            executorService.shutdownNow();
-        }
-    }
-
-    private static boolean isCurrentThread(Thread thread, String threadId) {
-        synchronized (THREADS) {
-            if (!THREADS.containsKey(threadId)) return false;
-            return thread == THREADS.get(threadId);
         }
     }
 }
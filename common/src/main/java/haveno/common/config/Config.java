@@ -79,6 +79,7 @@ public class Config {
     public static final String NODE_PORT = "nodePort";
     public static final String USE_LOCALHOST_FOR_P2P = "useLocalhostForP2P";
     public static final String MAX_CONNECTIONS = "maxConnections";
+    public static final String CONNECTION_ENGINE = "connectionEngine";
     public static final String SOCKS_5_PROXY_XMR_ADDRESS = "socks5ProxyXmrAddress";
     public static final String SOCKS_5_PROXY_HTTP_ADDRESS = "socks5ProxyHttpAddress";
     public static final String USE_TOR_FOR_XMR = "useTorForXmr";
@@ -169,6 +170,7 @@ public class Config {
     public final List<String> banList;
     public final boolean useLocalhostForP2P;
     public final int maxConnections;
+    public final String connectionEngine;
     public final String socks5ProxyXmrAddress;
     public final String socks5ProxyHttpAddress;
     public final File torrcFile;
@@ -181,7 +183,6 @@ public class Config {
     public final int msgThrottlePerSec;
     public final int msgThrottlePer10Sec;
     public final int sendMsgThrottleTrigger;
-    public final int sendMsgThrottleSleep;
     public final String xmrNode;
     public final String xmrNodeUsername;
     public final String xmrNodePassword;
@@ -418,6 +419,12 @@ public class Config {
                         .ofType(int.class)
                         .defaultsTo(12);
 
+        ArgumentAcceptingOptionSpec<String> connectionEngineOpt =
+                parser.accepts(CONNECTION_ENGINE, "Threads used for the P2P connections " +
+                                "(THREAD_PER_CONNECTION|VIRTUAL_THREADS). VIRTUAL_THREADS requires Java 21.")
+                        .withRequiredArg()
+                        .defaultsTo("THREAD_PER_CONNECTION");
+
         ArgumentAcceptingOptionSpec<String> socks5ProxyXmrAddressOpt =
                 parser.accepts(SOCKS_5_PROXY_XMR_ADDRESS, "A proxy address to be used for Bitcoin network.")
                         .withRequiredArg()
@@ -493,16 +500,15 @@ public class Config {
                         .defaultsTo(1000);
 
         ArgumentAcceptingOptionSpec<Integer> sendMsgThrottleTriggerOpt =
-                parser.accepts(SEND_MSG_THROTTLE_TRIGGER, "Time in ms when we trigger a sleep if 2 messages are sent")
+                parser.accepts(SEND_MSG_THROTTLE_TRIGGER, "Interval in ms at which another message can be sent once the burst of a connection is used up")
                         .withRequiredArg()
                         .ofType(int.class)
-                        .defaultsTo(20); // Time in ms when we trigger a sleep if 2 messages are sent
+                        .defaultsTo(20); // Refill interval in ms of the token bucket of the outbound queue
 
-        ArgumentAcceptingOptionSpec<Integer> sendMsgThrottleSleepOpt =
-                parser.accepts(SEND_MSG_THROTTLE_SLEEP, "Pause in ms to sleep if we get too many messages to send")
-                        .withRequiredArg()
-                        .ofType(int.class)
-                        .defaultsTo(50); // Pause in ms to sleep if we get too many messages to send
+        // Still accepted so existing command lines and config files keep working, the value is ignored
+        parser.accepts(SEND_MSG_THROTTLE_SLEEP, "Deprecated, has no effect since messages are throttled by the outbound queue")
+                .withRequiredArg()
+                .ofType(int.class);
 
         ArgumentAcceptingOptionSpec<String> xmrNodeOpt =
                 parser.accepts(XMR_NODE, "URI of custom Monero node to use")
@@ -684,12 +690,12 @@ public class Config {
             this.banList = options.valuesOf(banListOpt);
             this.useLocalhostForP2P = !this.baseCurrencyNetwork.isMainnet() && options.valueOf(useLocalhostForP2POpt);
             this.maxConnections = options.valueOf(maxConnectionsOpt);
+            this.connectionEngine = options.valueOf(connectionEngineOpt);
             this.socks5ProxyXmrAddress = options.valueOf(socks5ProxyXmrAddressOpt);
             this.socks5ProxyHttpAddress = options.valueOf(socks5ProxyHttpAddressOpt);
             this.msgThrottlePerSec = options.valueOf(msgThrottlePerSecOpt);
             this.msgThrottlePer10Sec = options.valueOf(msgThrottlePer10SecOpt);
             this.sendMsgThrottleTrigger = options.valueOf(sendMsgThrottleTriggerOpt);
-            this.sendMsgThrottleSleep = options.valueOf(sendMsgThrottleSleepOpt);
             this.xmrNode = options.valueOf(xmrNodeOpt);
             this.xmrNodeUsername = options.valueOf(xmrNodeUsernameOpt);
             this.xmrNodePassword = options.valueOf(xmrNodePasswordOpt);
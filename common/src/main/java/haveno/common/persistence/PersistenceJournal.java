@@ -0,0 +1,222 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.persistence;
+
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Encryption;
+import haveno.common.crypto.KeyRing;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Append-only write-ahead log of delta records for a {@link haveno.common.proto.persistable.JournaledPersistableEnvelope}.
+ *
+ * Each record is framed as [int length][int crc32 of payload][payload]. The first record is a header holding the
+ * checksum of the snapshot file the journal applies to and the time the journal was started. If a keyRing is set the
+ * payloads of the delta records are encrypted with the symmetric key like the snapshot file.
+ *
+ * A crash during an append leaves a torn record at the end of the file. At read time we stop at the first record
+ * with an invalid frame or checksum and truncate the file to the last valid record. If the header does not match the
+ * snapshot (e.g. we crashed after the snapshot was written but before the journal got reset) the journal is
+ * discarded as all its deltas are contained in the snapshot already.
+ *
+ * Not thread safe. Reading happens before any write and all writes are done on the write-to-disk thread of the
+ * PersistenceManager.
+ */
+@Slf4j
+class PersistenceJournal {
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final int JOURNAL_HEADER_SIZE = 16;
+    private static final int MAX_RECORD_SIZE = 50 * 1024 * 1024;
+
+    private final File file;
+    @Nullable
+    private final KeyRing keyRing;
+
+    // Checksum of the snapshot the journal applies to. Null if we do not have a valid journal.
+    @Nullable
+    private volatile Long snapshotChecksum;
+    @Getter
+    private volatile long size;
+    @Getter
+    private volatile long creationDate;
+
+    PersistenceJournal(File file, @Nullable KeyRing keyRing) {
+        this.file = file;
+        this.keyRing = keyRing;
+    }
+
+    static long getChecksum(byte[] bytes) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes);
+        return crc32.getValue();
+    }
+
+    boolean isAttached() {
+        return snapshotChecksum != null;
+    }
+
+    /**
+     * Starts a new journal for the snapshot with the given checksum. Any existing records get discarded.
+     */
+    void reset(long snapshotChecksum) throws IOException {
+        this.snapshotChecksum = null;
+        long now = System.currentTimeMillis();
+        byte[] header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE)
+                .putLong(snapshotChecksum)
+                .putLong(now)
+                .array();
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file, false)) {
+            fileOutputStream.write(frame(header));
+            fileOutputStream.flush();
+            fileOutputStream.getFD().sync();
+        }
+        this.snapshotChecksum = snapshotChecksum;
+        size = FRAME_HEADER_SIZE + JOURNAL_HEADER_SIZE;
+        creationDate = now;
+    }
+
+    void append(byte[] delta) throws IOException, CryptoException {
+        checkState(isAttached(), "Journal is not attached to a snapshot");
+        byte[] payload = keyRing != null ? Encryption.encryptPayloadWithHmac(delta, keyRing.getSymmetricKey()) : delta;
+        byte[] record = frame(payload);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file, true)) {
+            fileOutputStream.write(record);
+            fileOutputStream.flush();
+            fileOutputStream.getFD().sync();
+        } catch (IOException e) {
+            // We do not know how much of the record got written, so we do not append to that journal anymore.
+            snapshotChecksum = null;
+            throw e;
+        }
+        size += record.length;
+    }
+
+    /**
+     * Returns the deltas of the journal in the order they have been appended. If the journal does not belong to the
+     * snapshot with the given checksum it gets deleted and an empty list is returned.
+     */
+    List<byte[]> read(long expectedSnapshotChecksum) throws IOException {
+        snapshotChecksum = null;
+        size = 0;
+        List<byte[]> deltas = new ArrayList<>();
+        if (!file.exists()) {
+            return deltas;
+        }
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte[] header = readRecord(buffer);
+        if (header == null || header.length != JOURNAL_HEADER_SIZE) {
+            log.warn("Journal {} has no valid header. We delete it.", file.getName());
+            delete();
+            return deltas;
+        }
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+        long checksum = headerBuffer.getLong();
+        long date = headerBuffer.getLong();
+        if (checksum != expectedSnapshotChecksum) {
+            log.info("Journal {} does not belong to the current snapshot. We delete it.", file.getName());
+            delete();
+            return deltas;
+        }
+
+        int validLength = buffer.position();
+        while (buffer.hasRemaining()) {
+            byte[] payload = readRecord(buffer);
+            if (payload == null) {
+                break;
+            }
+            try {
+                deltas.add(keyRing != null ? Encryption.decryptPayloadWithHmac(payload, keyRing.getSymmetricKey()) : payload);
+            } catch (CryptoException e) {
+                log.warn("Decryption of journal record in {} failed. {}", file.getName(), e.getMessage());
+                break;
+            }
+            validLength = buffer.position();
+        }
+
+        if (validLength < bytes.length) {
+            log.warn("Journal {} has a torn tail of {} bytes. We truncate it.", file.getName(), bytes.length - validLength);
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                randomAccessFile.setLength(validLength);
+                randomAccessFile.getFD().sync();
+            }
+        }
+
+        snapshotChecksum = checksum;
+        size = validLength;
+        creationDate = date;
+        return deltas;
+    }
+
+    /**
+     * Stops appending to the journal without deleting it.
+     */
+    void detach() {
+        snapshotChecksum = null;
+    }
+
+    void delete() {
+        snapshotChecksum = null;
+        size = 0;
+        if (file.exists() && !file.delete()) {
+            log.warn("Could not delete journal {}", file.getName());
+        }
+    }
+
+    private static byte[] frame(byte[] payload) {
+        return ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) getChecksum(payload))
+                .put(payload)
+                .array();
+    }
+
+    // Returns null and leaves the buffer position unspecified if the record is incomplete or corrupted.
+    @Nullable
+    private static byte[] readRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < FRAME_HEADER_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length < 0 || length > MAX_RECORD_SIZE || length > buffer.remaining()) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        if ((int) getChecksum(payload) != checksum) {
+            return null;
+        }
+        return payload;
+    }
+}
@@ -18,6 +18,7 @@
 package haveno.common.persistence;
 
 import com.google.inject.Inject;
+import com.google.protobuf.Message;
 import haveno.common.Timer;
 import haveno.common.UserThread;
 import haveno.common.app.DevEnv;
@@ -28,16 +29,19 @@ import haveno.common.crypto.KeyRing;
 import haveno.common.file.CorruptedStorageFileHandler;
 import haveno.common.file.FileUtil;
 import haveno.common.handlers.ResultHandler;
+import haveno.common.proto.persistable.JournaledPersistableEnvelope;
 import haveno.common.proto.persistable.PersistableEnvelope;
 import haveno.common.proto.persistable.PersistenceProtoResolver;
 import haveno.common.util.SingleThreadExecutorUtils;
 import haveno.common.util.GcUtil;
+import haveno.common.util.LatencyHistogram;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 import javax.inject.Named;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -45,6 +49,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -68,6 +73,10 @@ import static haveno.common.util.Preconditions.checkDir;
  * previously we wasted a lot of resources as way too many threads have been created without doing actual work as well
  * the write operations got triggered way too often specially for the very frequent changes at SequenceNumberMap
  *
+ * If the persistable is a {@link JournaledPersistableEnvelope} we only append the delta since the last write to a
+ * journal file and write the full snapshot only if the journal has reached MAX_JOURNAL_SIZE or MAX_JOURNAL_AGE.
+ * See {@link PersistenceJournal} for the file format and recovery.
+ *
  *
  * @param <T>   The type of the {@link PersistableEnvelope} to be written or read from disk
  */
@@ -79,6 +88,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
+    public static final String JOURNAL_FILE_SUFFIX = ".journal";
+    private static final long MAX_JOURNAL_SIZE = 2 * 1024 * 1024;
+    private static final long MAX_JOURNAL_AGE = TimeUnit.HOURS.toMillis(1);
     private static boolean flushAtShutdownCalled;
     private static final AtomicBoolean allServicesInitialized = new AtomicBoolean(false);
 
@@ -175,6 +187,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                                          PersistenceManager<?> persistenceManager,
                                          boolean doShutdown) {
         if (doShutdown) {
+            persistenceManager.logLatencies();
             persistenceManager.shutdown();
         }
 
@@ -231,6 +244,16 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     @Nullable
     private Timer timer;
     private ExecutorService writeToDiskExecutor;
+    @Nullable
+    private PersistenceJournal journal;
+    // Set if the journal cannot be used for the next write, e.g. after a failed write or if we have not read a
+    // snapshot with a matching journal yet.
+    private volatile boolean snapshotRequired = true;
+    // Latencies of serializing the persistable and of writing it (or the journal delta) to disk
+    @Getter
+    private final LatencyHistogram serializationLatency = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
     public final AtomicBoolean initCalled = new AtomicBoolean(false);
     public final AtomicBoolean readCalled = new AtomicBoolean(false);
 
@@ -370,8 +393,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         long ts = System.currentTimeMillis();
         try (FileInputStream fileInputStream = new FileInputStream(storageFile)) {
             protobuf.PersistableEnvelope proto;
+            byte[] storedBytes = fileInputStream.readAllBytes();
             if (keyRing != null) {
-                byte[] encryptedBytes = fileInputStream.readAllBytes();
+                byte[] encryptedBytes = storedBytes;
                 try {
                     byte[] decryptedBytes = Encryption.decryptPayloadWithHmac(encryptedBytes, keyRing.getSymmetricKey());
                     proto = protobuf.PersistableEnvelope.parseFrom(decryptedBytes);
@@ -381,11 +405,14 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                     proto = protobuf.PersistableEnvelope.parseDelimitedFrom(bs);
                 }
             } else {
-                proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+                proto = protobuf.PersistableEnvelope.parseDelimitedFrom(new ByteArrayInputStream(storedBytes));
             }
 
             //noinspection unchecked
             T persistableEnvelope = (T) persistenceProtoResolver.fromProto(proto);
+            if (persistableEnvelope instanceof JournaledPersistableEnvelope && fileName.equals(this.fileName)) {
+                replayJournal((JournaledPersistableEnvelope) persistableEnvelope, PersistenceJournal.getChecksum(storedBytes));
+            }
             log.info("Reading {} completed in {} ms", fileName, System.currentTimeMillis() - ts);
             return persistableEnvelope;
         } catch (Throwable t) {
@@ -406,6 +433,25 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         return null;
     }
 
+    // A failure at replaying the journal must not cause the snapshot to be treated as corrupted. We apply the deltas
+    // we could read and write a new snapshot at the next persist call.
+    private void replayJournal(JournaledPersistableEnvelope persisted, long snapshotChecksum) {
+        PersistenceJournal journal = getJournal();
+        try {
+            List<byte[]> deltas = journal.read(snapshotChecksum);
+            for (byte[] delta : deltas) {
+                persisted.applyPersistableDelta(persistenceProtoResolver.fromProto(protobuf.PersistableEnvelope.parseFrom(delta)));
+            }
+            snapshotRequired = !journal.isAttached();
+            if (!deltas.isEmpty()) {
+                log.info("Replayed {} journal records on {}", deltas.size(), fileName);
+            }
+        } catch (Throwable t) {
+            log.error("Replaying journal of {} failed", fileName, t);
+            invalidateJournal();
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Write file to disk
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -453,21 +499,35 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     }
 
     private synchronized void persistNow(@Nullable Runnable completeHandler, boolean force) {
-        long ts = System.currentTimeMillis();
         try {
+            if (persistable instanceof JournaledPersistableEnvelope) {
+                // We always request the delta as it resets the change tracking. If a snapshot is due we ignore it as
+                // the snapshot contains all changes.
+                Message delta = ((JournaledPersistableEnvelope) persistable).toPersistableDelta();
+                if (delta != null && !isJournalCompactionDue()) {
+                    byte[] serializedDelta = delta.toByteArray();
+                    getWriteToDiskExecutor().execute(() -> appendToJournal(serializedDelta, completeHandler, force));
+                    return;
+                }
+                snapshotRequired = false;
+            }
+
+            // If the persistable supports snapshots we only take the snapshot on the user thread and serialize it on the
+            // write thread, as the snapshot is not affected by later mutations.
+            PersistableEnvelope snapshot = persistable.toPersistableSnapshot();
+            if (snapshot != null) {
+                getWriteToDiskExecutor().execute(() -> serializeAndWriteToDisk(snapshot, completeHandler, force));
+                return;
+            }
+
             // The serialisation is done on the user thread to avoid threading issue with potential mutations of the
             // persistable object. Keeping it on the user thread we are in a synchronize model.
-            protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
+            protobuf.PersistableEnvelope serialized = serialize(persistable);
 
             // For the write to disk task we use a thread. We do not have any issues anymore if the persistable objects
             // gets mutated while the thread is running as we have serialized it already and do not operate on the
             // reference to the persistable object.
             getWriteToDiskExecutor().execute(() -> writeToDisk(serialized, completeHandler, force));
-
-            long duration = System.currentTimeMillis() - ts;
-            if (duration > 100) {
-                log.info("Serializing {} took {} msec", fileName, duration);
-            }
         } catch (Throwable e) {
             log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), fileName);
             e.printStackTrace();
@@ -475,19 +535,96 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
-    private void writeToDisk(protobuf.PersistableEnvelope serialized, @Nullable Runnable completeHandler, boolean force) {
-        if (!allServicesInitialized.get() && !force) {
-            log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
+    private protobuf.PersistableEnvelope serialize(PersistableEnvelope envelope) {
+        long ts = System.currentTimeMillis();
+        protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) envelope.toPersistableMessage();
+        long duration = System.currentTimeMillis() - ts;
+        serializationLatency.record(duration);
+        if (duration > 100) {
+            log.info("Serializing {} took {} msec", fileName, duration);
+        }
+        return serialized;
+    }
+
+    private void serializeAndWriteToDisk(PersistableEnvelope snapshot, @Nullable Runnable completeHandler, boolean force) {
+        protobuf.PersistableEnvelope serialized;
+        try {
+            serialized = serialize(snapshot);
+        } catch (Throwable t) {
+            log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), fileName, t);
+            invalidateJournal();
+            // Nothing got written, so we keep the request for the next persist call.
+            persistenceRequested = true;
             if (completeHandler != null) {
                 UserThread.execute(completeHandler);
             }
             return;
         }
-        if (keyRing != null && !keyRing.isUnlocked()) {
+        writeToDisk(serialized, completeHandler, force);
+    }
+
+    private boolean isJournalCompactionDue() {
+        return snapshotRequired ||
+                journal == null ||
+                journal.getSize() > MAX_JOURNAL_SIZE ||
+                System.currentTimeMillis() - journal.getCreationDate() > MAX_JOURNAL_AGE;
+    }
+
+    private boolean isWriteToDiskPermitted(@Nullable Runnable completeHandler, boolean force) {
+        if (!allServicesInitialized.get() && !force) {
+            log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
+        } else if (keyRing != null && !keyRing.isUnlocked()) {
             log.warn("Account is not open, ignoring writeToDisk.");
+        } else {
+            return true;
+        }
+
+        // The change tracking of a journaled persistable got reset already, so the next write must be a snapshot.
+        invalidateJournal();
+        if (completeHandler != null) {
+            UserThread.execute(completeHandler);
+        }
+        return false;
+    }
+
+    // Deltas which are queued after a failed write must not be appended to the old journal as they would miss the
+    // changes of the failed write. We keep the old journal on disk as it is still valid for the old snapshot.
+    private void invalidateJournal() {
+        snapshotRequired = true;
+        if (journal != null) {
+            journal.detach();
+        }
+    }
+
+    private void appendToJournal(byte[] serializedDelta, @Nullable Runnable completeHandler, boolean force) {
+        if (!isWriteToDiskPermitted(completeHandler, force)) {
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        boolean success = false;
+        try {
+            getJournal().append(serializedDelta);
+            success = true;
+        } catch (Throwable t) {
+            log.error("Error at appending to journal, storageFile={}", fileName, t);
+            invalidateJournal();
+        } finally {
+            long duration = System.currentTimeMillis() - ts;
+            writeLatency.record(duration);
+            if (duration > 100) {
+                log.info("Appending {} bytes to the journal of {} completed in {} msec", serializedDelta.length, fileName, duration);
+            }
+            // If the append failed the changes are only in memory, so we keep the request for the next persist call.
+            persistenceRequested = !success;
             if (completeHandler != null) {
                 UserThread.execute(completeHandler);
             }
+        }
+    }
+
+    private void writeToDisk(protobuf.PersistableEnvelope serialized, @Nullable Runnable completeHandler, boolean force) {
+        if (!isWriteToDiskPermitted(completeHandler, force)) {
             return;
         }
 
@@ -510,12 +647,15 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             fileOutputStream = new FileOutputStream(tempFile);
 
+            byte[] storedBytes;
             if (keyRing != null) {
-                byte[] encryptedBytes = Encryption.encryptPayloadWithHmac(serialized.toByteArray(), keyRing.getSymmetricKey());
-                fileOutputStream.write(encryptedBytes);
+                storedBytes = Encryption.encryptPayloadWithHmac(serialized.toByteArray(), keyRing.getSymmetricKey());
             } else {
-                serialized.writeDelimitedTo(fileOutputStream);
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                serialized.writeDelimitedTo(outputStream);
+                storedBytes = outputStream.toByteArray();
             }
+            fileOutputStream.write(storedBytes);
 
             // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
             // to not write through to physical media for at least a few seconds, but this is the best we can do.
@@ -528,9 +668,15 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             FileUtil.renameFile(tempFile, storageFile);
             usedTempFilePath = tempFile.toPath();
+
+            // The snapshot contains all deltas, so we start a new journal for it.
+            if (persistable instanceof JournaledPersistableEnvelope) {
+                getJournal().reset(PersistenceJournal.getChecksum(storedBytes));
+            }
         } catch (Throwable t) {
             // If an error occurred, don't attempt to reuse this path again, in case temp file cleanup fails.
             usedTempFilePath = null;
+            invalidateJournal();
             log.error("Error at saveToFile, storageFile={}", fileName, t);
         } finally {
             if (tempFile != null && tempFile.exists()) {
@@ -550,6 +696,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                 log.error("Cannot close resources." + e.getMessage());
             }
             long duration = System.currentTimeMillis() - ts;
+            writeLatency.record(duration);
             if (duration > 100) {
                 log.info("Writing the serialized {} completed in {} msec", fileName, duration);
             }
@@ -560,6 +707,19 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
+    private void logLatencies() {
+        if (serializationLatency.getCount() > 0 || writeLatency.getCount() > 0) {
+            log.info("Persistence latencies of {}: serialization [{}], write [{}]", fileName, serializationLatency, writeLatency);
+        }
+    }
+
+    private synchronized PersistenceJournal getJournal() {
+        if (journal == null) {
+            journal = new PersistenceJournal(new File(dir, checkNotNull(fileName) + JOURNAL_FILE_SUFFIX), keyRing);
+        }
+        return journal;
+    }
+
     private ExecutorService getWriteToDiskExecutor() {
         if (writeToDiskExecutor == null) {
             String name = "Write-" + fileName + "_to-disk";
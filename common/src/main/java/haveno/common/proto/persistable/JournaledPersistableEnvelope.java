@@ -0,0 +1,45 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.proto.persistable;
+
+import com.google.protobuf.Message;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link PersistableEnvelope} which can express its mutations as deltas. The PersistenceManager appends those
+ * deltas to a journal file next to the snapshot and only writes a full snapshot once the journal got too large or
+ * too old. At read time the journal is replayed on top of the snapshot with {@link #applyPersistableDelta}.
+ *
+ * A delta is a regular protobuf.PersistableEnvelope of the same type containing only the changed entries, so it can
+ * be resolved with the existing {@link PersistenceProtoResolver}.
+ */
+public interface JournaledPersistableEnvelope extends PersistableEnvelope {
+
+    /**
+     * Called on the user thread. Returns the changes since the last call and resets the change tracking. Returns null
+     * if the changes cannot be expressed as a delta (e.g. entries got removed) and a full snapshot is required.
+     */
+    @Nullable
+    Message toPersistableDelta();
+
+    /**
+     * Merges a delta which was resolved from the journal into this instance.
+     */
+    void applyPersistableDelta(PersistableEnvelope delta);
+}
@@ -20,6 +20,8 @@ package haveno.common.proto.persistable;
 import com.google.protobuf.Message;
 import haveno.common.Envelope;
 
+import javax.annotation.Nullable;
+
 /**
  * Interface for the outside envelope object persisted to disk.
  */
@@ -29,6 +31,17 @@ public interface PersistableEnvelope extends Envelope {
         return toProtoMessage();
     }
 
+    /**
+     * Returns a copy of this envelope which is not affected by later mutations, so it can be serialized on the write
+     * thread of the PersistenceManager. It is called on the user thread and must be cheap, e.g. a copy of the
+     * collections holding immutable elements. Returns null if snapshots are not supported, in which case the envelope
+     * gets serialized on the user thread.
+     */
+    @Nullable
+    default PersistableEnvelope toPersistableSnapshot() {
+        return null;
+    }
+
     default String getDefaultStorageFileName() {
         return this.getClass().getSimpleName();
     }
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Mutual exclusion over sets of keys. A thread acquires all keys of a set at once and blocks while any of them is
+ * held by another thread, so threads with disjoint key sets run concurrently. As no thread holds some keys while
+ * waiting for others, locking overlapping key sets cannot deadlock. The lock is not reentrant.
+ */
+public class KeySetLock {
+    private final Set<String> lockedKeys = new HashSet<>();
+
+    /**
+     * Waits until none of the keys is locked and locks all of them.
+     */
+    public synchronized void lock(Collection<String> keys) throws InterruptedException {
+        while (!Collections.disjoint(lockedKeys, keys)) {
+            wait();
+        }
+        lockedKeys.addAll(keys);
+    }
+
+    /**
+     * Locks all keys if none of them is locked.
+     *
+     * @return true if the keys have been locked
+     */
+    public synchronized boolean tryLock(Collection<String> keys) {
+        if (!Collections.disjoint(lockedKeys, keys)) return false;
+        lockedKeys.addAll(keys);
+        return true;
+    }
+
+    public synchronized void unlock(Collection<String> keys) {
+        lockedKeys.removeAll(keys);
+        notifyAll();
+    }
+
+    public synchronized boolean isLocked(String key) {
+        return lockedKeys.contains(key);
+    }
+}
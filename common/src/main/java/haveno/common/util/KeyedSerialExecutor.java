@@ -0,0 +1,198 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the tasks submitted for the same key one after another in FIFO order, while tasks of different keys run
+ * concurrently on a shared executor.
+ *
+ * A key does not own a thread. A drain task gets scheduled on the shared executor when the first task of an idle key
+ * is submitted and runs the queued tasks of that key until its queue is empty. The state of a key is evicted as soon
+ * as its queue is empty, so the number of threads is bounded by the number of keys with pending tasks instead of the
+ * number of keys which have ever been used.
+ */
+public class KeyedSerialExecutor {
+
+    private static class SerialQueue {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        Thread thread;
+        boolean isShutDown;
+    }
+
+    private final Executor executor;
+    private final ThreadLocal<String> currentKey = new ThreadLocal<>();
+    private final Map<String, SerialQueue> queues = new HashMap<>();
+    private long numPendingTasks;
+
+    public KeyedSerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the task to be run after all tasks submitted before for the same key.
+     *
+     * @param key the key
+     * @param task the task to run
+     */
+    public void execute(String key, Runnable task) {
+        synchronized (this) {
+            SerialQueue queue = queues.get(key);
+            if (queue != null) {
+                if (queue.isShutDown) throw new RejectedExecutionException("Tasks of key " + key + " are shut down");
+                queue.tasks.add(task);
+                numPendingTasks++;
+                return;
+            }
+            queue = new SerialQueue();
+            queue.tasks.add(task);
+            queues.put(key, queue);
+            numPendingTasks++;
+        }
+        try {
+            executor.execute(() -> drain(key));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                SerialQueue queue = queues.remove(key);
+                if (queue != null) numPendingTasks -= queue.tasks.size();
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns true if the current thread is running a task of the given key.
+     */
+    public boolean isCurrentKey(String key) {
+        return key.equals(currentKey.get());
+    }
+
+    /**
+     * Rejects tasks submitted for the key until its queued tasks have completed and the key got evicted. Does nothing
+     * if the key is idle.
+     */
+    public synchronized void shutDown(String key) {
+        SerialQueue queue = queues.get(key);
+        if (queue != null) queue.isShutDown = true;
+    }
+
+    /**
+     * Waits until the queue of the key is empty and its last task has completed.
+     *
+     * @return true if the key is idle, false if the timeout elapsed before
+     */
+    public synchronized boolean awaitIdle(String key, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (queues.containsKey(key)) {
+            long remaining = deadline - System.nanoTime();
+            if (timeoutMs == Long.MAX_VALUE) {
+                wait();
+            } else if (remaining <= 0) {
+                return false;
+            } else {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the queued tasks of the key and interrupts its running task.
+     *
+     * @return the tasks which have been removed without being run
+     */
+    public List<Runnable> cancel(String key) {
+        synchronized (this) {
+            SerialQueue queue = queues.get(key);
+            if (queue == null) return new ArrayList<>();
+            List<Runnable> cancelled = new ArrayList<>(queue.tasks);
+            numPendingTasks -= queue.tasks.size();
+            queue.tasks.clear();
+            if (queue.thread != null) queue.thread.interrupt();
+            return cancelled;
+        }
+    }
+
+    /**
+     * Returns the number of tasks of the key which wait to be run, excluding a running task.
+     */
+    public synchronized int getQueueDepth(String key) {
+        SerialQueue queue = queues.get(key);
+        return queue == null ? 0 : queue.tasks.size();
+    }
+
+    /**
+     * Returns the number of tasks of all keys which wait to be run, excluding running tasks.
+     */
+    public synchronized long getQueueDepth() {
+        return numPendingTasks;
+    }
+
+    /**
+     * Returns the number of keys which have a queued or running task.
+     */
+    public synchronized int getNumActiveKeys() {
+        return queues.size();
+    }
+
+    private void drain(String key) {
+        currentKey.set(key);
+        try {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    SerialQueue queue = queues.get(key);
+                    task = queue.tasks.poll();
+                    if (task == null) {
+                        // Evict the idle key
+                        queues.remove(key);
+                        notifyAll();
+                        return;
+                    }
+                    numPendingTasks--;
+                    queue.thread = Thread.currentThread();
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // Report like an uncaught exception of a dedicated thread, but keep draining the queue
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+                } finally {
+                    synchronized (this) {
+                        queues.get(key).thread = null;
+                    }
+                    // Clear an interrupt of a cancelled task so it does not leak into the next task
+                    Thread.interrupted();
+                }
+            }
+        } finally {
+            currentKey.remove();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of durations in milliseconds with power of two buckets (<=1 ms, <=2 ms, <=4 ms, ... and an
+ * overflow bucket). Recording is lock free and allocation free, so it can be used on hot paths.
+ */
+public class LatencyHistogram {
+    private static final int NUM_BUCKETS = 16;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long durationMs) {
+        long duration = Math.max(0, durationMs);
+        buckets.incrementAndGet(getBucketIndex(duration));
+        count.incrementAndGet();
+        sum.addAndGet(duration);
+        max.accumulateAndGet(duration, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getAverage() {
+        long numSamples = count.get();
+        return numSamples == 0 ? 0 : (double) sum.get() / numSamples;
+    }
+
+    /**
+     * Returns the upper bound in ms of the bucket which contains the given percentile (0-100) of the samples, or
+     * Long.MAX_VALUE if it falls into the overflow bucket.
+     */
+    public long getPercentileUpperBound(double percentile) {
+        long numSamples = count.get();
+        if (numSamples == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(numSamples * percentile / 100);
+        long accumulated = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= threshold) {
+                return getBucketUpperBound(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static int getBucketIndex(long duration) {
+        if (duration <= 1) {
+            return 0;
+        }
+        int index = 64 - Long.numberOfLeadingZeros(duration - 1);
+        return Math.min(index, NUM_BUCKETS - 1);
+    }
+
+    private static long getBucketUpperBound(int index) {
+        return index == NUM_BUCKETS - 1 ? Long.MAX_VALUE : 1L << index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("count=").append(getCount())
+                .append(", avg=").append(String.format("%.1f", getAverage())).append(" ms")
+                .append(", max=").append(getMax()).append(" ms");
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            long value = buckets.get(i);
+            if (value > 0) {
+                sb.append(", ")
+                        .append(i == NUM_BUCKETS - 1 ? ">" + getBucketUpperBound(i - 1) : "<=" + getBucketUpperBound(i))
+                        .append(" ms: ")
+                        .append(value);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of several maps without copying them. Changes of the underlying maps are visible in the view.
+ *
+ * The maps must not have keys in common, otherwise size() counts a key several times and the iteration returns its
+ * entries several times. get() returns the value of the first map containing the key.
+ */
+public class MergedMapView<K, V> extends AbstractMap<K, V> {
+    private final List<Map<K, V>> maps;
+    private final Set<Entry<K, V>> entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return Iterators.unmodifiableIterator(Iterators.concat(
+                    Iterators.transform(maps.iterator(), map -> Collections.unmodifiableMap(map).entrySet().iterator())));
+        }
+
+        @Override
+        public int size() {
+            return MergedMapView.this.size();
+        }
+    };
+
+    @SafeVarargs
+    public MergedMapView(Map<K, V>... maps) {
+        this(ImmutableList.copyOf(maps));
+    }
+
+    public MergedMapView(List<Map<K, V>> maps) {
+        this.maps = ImmutableList.copyOf(maps);
+    }
+
+    @Override
+    public V get(Object key) {
+        for (Map<K, V> map : maps) {
+            V value = map.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (Map<K, V> map : maps) {
+            if (map.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Map<K, V> map : maps) {
+            size += map.size();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Map<K, V> map : maps) {
+            if (!map.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistenceJournalTest {
+    private static final long SNAPSHOT_CHECKSUM = 42;
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void testAppendAndRead() throws Exception {
+        File file = new File(dir, "Store.journal");
+        PersistenceJournal journal = new PersistenceJournal(file, null);
+        journal.reset(SNAPSHOT_CHECKSUM);
+        journal.append(new byte[]{1, 2, 3});
+        journal.append(new byte[]{4});
+
+        PersistenceJournal reopened = new PersistenceJournal(file, null);
+        List<byte[]> deltas = reopened.read(SNAPSHOT_CHECKSUM);
+        assertEquals(2, deltas.size());
+        assertArrayEquals(new byte[]{1, 2, 3}, deltas.get(0));
+        assertArrayEquals(new byte[]{4}, deltas.get(1));
+        assertTrue(reopened.isAttached());
+        assertEquals(journal.getSize(), reopened.getSize());
+    }
+
+    @Test
+    public void testTornTailIsTruncated() throws Exception {
+        File file = new File(dir, "Store.journal");
+        PersistenceJournal journal = new PersistenceJournal(file, null);
+        journal.reset(SNAPSHOT_CHECKSUM);
+        journal.append(new byte[]{1, 2, 3});
+        long validLength = file.length();
+        journal.append(new byte[]{4, 5, 6, 7});
+
+        // Simulate a crash in the middle of the last append
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(file.length() - 2);
+        }
+
+        PersistenceJournal reopened = new PersistenceJournal(file, null);
+        List<byte[]> deltas = reopened.read(SNAPSHOT_CHECKSUM);
+        assertEquals(1, deltas.size());
+        assertArrayEquals(new byte[]{1, 2, 3}, deltas.get(0));
+        assertEquals(validLength, file.length());
+
+        // We can continue to append after the recovery
+        reopened.append(new byte[]{8});
+        assertEquals(2, new PersistenceJournal(file, null).read(SNAPSHOT_CHECKSUM).size());
+    }
+
+    @Test
+    public void testCorruptedRecordStopsReplay() throws Exception {
+        File file = new File(dir, "Store.journal");
+        PersistenceJournal journal = new PersistenceJournal(file, null);
+        journal.reset(SNAPSHOT_CHECKSUM);
+        journal.append(new byte[]{1, 2, 3});
+        journal.append(new byte[]{4, 5, 6});
+
+        // Garbage after the last record
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file, true)) {
+            fileOutputStream.write(new byte[]{0, 0, 0, 3, 1, 1, 1, 1, 9, 9, 9});
+        }
+
+        List<byte[]> deltas = new PersistenceJournal(file, null).read(SNAPSHOT_CHECKSUM);
+        assertEquals(2, deltas.size());
+    }
+
+    @Test
+    public void testJournalOfOtherSnapshotIsDiscarded() throws Exception {
+        File file = new File(dir, "Store.journal");
+        PersistenceJournal journal = new PersistenceJournal(file, null);
+        journal.reset(SNAPSHOT_CHECKSUM);
+        journal.append(new byte[]{1, 2, 3});
+
+        PersistenceJournal reopened = new PersistenceJournal(file, null);
+        assertTrue(reopened.read(SNAPSHOT_CHECKSUM + 1).isEmpty());
+        assertFalse(reopened.isAttached());
+        assertFalse(file.exists());
+    }
+}
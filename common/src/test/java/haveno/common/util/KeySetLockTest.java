@@ -0,0 +1,74 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeySetLockTest {
+    private final KeySetLock lock = new KeySetLock();
+
+    @Test
+    public void testDisjointKeysDoNotBlock() throws Exception {
+        lock.lock(List.of("a", "b"));
+        assertTrue(lock.tryLock(List.of("c")));
+        assertTrue(lock.isLocked("a"));
+        assertTrue(lock.isLocked("c"));
+        assertFalse(lock.isLocked("d"));
+    }
+
+    @Test
+    public void testOverlappingKeysBlock() throws Exception {
+        lock.lock(List.of("a", "b"));
+        assertFalse(lock.tryLock(List.of("b", "c")));
+        assertFalse(lock.isLocked("c"));
+
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                lock.lock(List.of("b", "c"));
+                locked.countDown();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        thread.start();
+        assertFalse(locked.await(50, TimeUnit.MILLISECONDS));
+
+        lock.unlock(List.of("a", "b"));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        assertFalse(lock.isLocked("a"));
+        assertTrue(lock.isLocked("b"));
+        assertTrue(lock.isLocked("c"));
+        thread.join();
+    }
+
+    @Test
+    public void testUnlockReleasesAllKeys() throws Exception {
+        lock.lock(List.of("a", "b", "c"));
+        lock.unlock(List.of("a", "b", "c"));
+        assertTrue(lock.tryLock(List.of("a")));
+        assertTrue(lock.tryLock(List.of("b", "c")));
+        assertTrue(lock.isLocked("b"));
+    }
+}
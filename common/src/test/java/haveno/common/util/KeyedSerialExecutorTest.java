@@ -0,0 +1,176 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeyedSerialExecutorTest {
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final KeyedSerialExecutor executor = new KeyedSerialExecutor(pool);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testTasksOfKeyRunInOrder() throws Exception {
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int numTasks = 200;
+        for (int i = 0; i < numTasks; i++) {
+            int value = i;
+            executor.execute("key", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                results.add(value);
+                running.decrementAndGet();
+            });
+        }
+        assertTrue(executor.awaitIdle("key", 5000));
+        assertEquals(numTasks, results.size());
+        for (int i = 0; i < numTasks; i++) assertEquals(i, results.get(i));
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void testKeysRunConcurrently() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (String key : new String[]{"a", "b"}) {
+            executor.execute(key, () -> {
+                bothRunning.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            });
+        }
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getNumActiveKeys());
+        release.countDown();
+        assertTrue(executor.awaitIdle("a", 5000));
+        assertTrue(executor.awaitIdle("b", 5000));
+    }
+
+    @Test
+    public void testIdleKeyIsEvicted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute("key", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        executor.execute("key", () -> {});
+        executor.execute("key", () -> {});
+        assertEquals(1, executor.getNumActiveKeys());
+        assertEquals(2, executor.getQueueDepth("key"));
+        assertEquals(2, executor.getQueueDepth());
+
+        release.countDown();
+        assertTrue(executor.awaitIdle("key", 5000));
+        assertEquals(0, executor.getNumActiveKeys());
+        assertEquals(0, executor.getQueueDepth("key"));
+        assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void testCurrentKey() throws Exception {
+        AtomicInteger matches = new AtomicInteger();
+        executor.execute("key", () -> {
+            if (executor.isCurrentKey("key")) matches.incrementAndGet();
+            if (!executor.isCurrentKey("other")) matches.incrementAndGet();
+        });
+        assertTrue(executor.awaitIdle("key", 5000));
+        assertEquals(2, matches.get());
+        assertFalse(executor.isCurrentKey("key"));
+    }
+
+    @Test
+    public void testExceptionDoesNotStopQueue() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute("key", () -> {
+            throw new IllegalStateException("expected by test");
+        });
+        executor.execute("key", done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutDownRejectsNewTasks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        executor.execute("key", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        executor.execute("key", ran::incrementAndGet);
+        executor.shutDown("key");
+        assertThrows(RejectedExecutionException.class, () -> executor.execute("key", ran::incrementAndGet));
+
+        // Queued tasks still run and the key can be used again once it got evicted
+        release.countDown();
+        assertTrue(executor.awaitIdle("key", 5000));
+        assertEquals(1, ran.get());
+        executor.execute("key", ran::incrementAndGet);
+        assertTrue(executor.awaitIdle("key", 5000));
+        assertEquals(2, ran.get());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        executor.execute("key", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        AtomicInteger ran = new AtomicInteger();
+        executor.execute("key", ran::incrementAndGet);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(executor.awaitIdle("key", 10));
+
+        assertEquals(1, executor.cancel("key").size());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.awaitIdle("key", 5000));
+        assertEquals(0, ran.get());
+    }
+}
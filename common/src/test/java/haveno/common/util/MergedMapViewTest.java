@@ -0,0 +1,78 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MergedMapViewTest {
+
+    @Test
+    public void testLookupAndIteration() {
+        Map<String, Integer> first = new HashMap<>(Map.of("a", 1, "b", 2));
+        Map<String, Integer> second = Map.of("c", 3);
+        Map<String, Integer> view = new MergedMapView<>(first, second);
+
+        assertEquals(3, view.size());
+        assertFalse(view.isEmpty());
+        assertEquals(1, view.get("a"));
+        assertEquals(3, view.get("c"));
+        assertNull(view.get("d"));
+        assertTrue(view.containsKey("c"));
+        assertTrue(view.keySet().contains("b"));
+        assertEquals(Set.of("a", "b", "c"), new HashSet<>(view.keySet()));
+        assertEquals(Map.of("a", 1, "b", 2, "c", 3), new HashMap<>(view));
+    }
+
+    @Test
+    public void testViewReflectsChanges() {
+        Map<String, Integer> live = new HashMap<>();
+        Map<String, Integer> view = new MergedMapView<>(live, Map.of("a", 1));
+        live.put("b", 2);
+        assertEquals(2, view.size());
+        assertEquals(2, view.get("b"));
+    }
+
+    @Test
+    public void testEmpty() {
+        Map<String, Integer> view = new MergedMapView<>(new HashMap<>(), new HashMap<>());
+        assertTrue(view.isEmpty());
+        assertEquals(0, view.size());
+        assertFalse(view.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testReadOnly() {
+        Map<String, Integer> live = new HashMap<>(Map.of("a", 1));
+        Map<String, Integer> view = new MergedMapView<>(live);
+        assertThrows(UnsupportedOperationException.class, () -> view.put("b", 2));
+        assertThrows(UnsupportedOperationException.class, () -> view.keySet().remove("a"));
+        assertThrows(UnsupportedOperationException.class, () -> view.entrySet().iterator().next().setValue(2));
+        assertEquals(Map.of("a", 1), live);
+    }
+}
@@ -87,6 +87,10 @@ public class SignedWitnessService {
     private final Map<P2PDataStorage.ByteArray, Boolean> verifySignatureWithDSAKeyResultCache = new HashMap<>();
     private final Map<P2PDataStorage.ByteArray, Boolean> verifySignatureWithECKeyResultCache = new HashMap<>();
 
+    // Checking the signer chains recursively is called for every offer in the offer book, so we memoize the earliest
+    // signer date per owner pubkey.
+    private final SignerTrustGraph signerTrustGraph = new SignerTrustGraph(SIGNER_AGE, this::verifySignature);
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -436,8 +440,8 @@ public class SignedWitnessService {
     }
 
     private boolean verifySigner(SignedWitness signedWitness) {
-        return getSignedWitnessSetByOwnerPubKey(signedWitness.getWitnessOwnerPubKey(), new Stack<>()).stream()
-                .anyMatch(w -> isValidSignerWitnessInternal(w, signedWitness.getDate(), new Stack<>()));
+        return isValidSigner(getSignedWitnessSetByOwnerPubKey(signedWitness.getWitnessOwnerPubKey(), new Stack<>()),
+                signedWitness.getDate());
     }
 
     /**
@@ -449,8 +453,32 @@ public class SignedWitnessService {
      * @return true if accountAgeWitness is allowed to sign at time, false otherwise.
      */
     private boolean isSignerAccountAgeWitness(AccountAgeWitness accountAgeWitness, long time) {
+        return isValidSigner(getSignedWitnessSet(accountAgeWitness), time);
+    }
+
+    /**
+     * Checks whether any of the signedWitnesses is valid and allowed to sign at time.
+     *
+     * The memoized signer chains answer that with a lookup. Only if the chains which would be valid contain a banned
+     * owner, or would not be accepted by the recursive search for another reason, we fall back to the recursive search,
+     * as a chain around the banned owner might exist.
+     */
+    private boolean isValidSigner(Set<SignedWitness> signedWitnessSet, long time) {
+        boolean requiresSearch = false;
+        for (SignedWitness signedWitness : signedWitnessSet) {
+            if (signerTrustGraph.getSignerDate(signedWitness) > time) {
+                continue;
+            }
+            if (isValidSignerChain(signerTrustGraph.getSignerChain(signedWitness))) {
+                return true;
+            }
+            requiresSearch = true;
+        }
+        if (!requiresSearch) {
+            // Bans and the chain length limit only remove chains, so there is no valid signer
+            return false;
+        }
         Stack<P2PDataStorage.ByteArray> excludedPubKeys = new Stack<>();
-        Set<SignedWitness> signedWitnessSet = getSignedWitnessSet(accountAgeWitness);
         for (SignedWitness signedWitness : signedWitnessSet) {
             if (isValidSignerWitnessInternal(signedWitness, time, excludedPubKeys)) {
                 return true;
@@ -460,6 +488,28 @@ public class SignedWitnessService {
         return false;
     }
 
+    // The dates and signatures of a chain are verified by the SignerTrustGraph. Here we apply the bans and the rules of
+    // isValidSignerWitnessInternal for the keys visited along the chain.
+    private boolean isValidSignerChain(List<SignedWitness> chain) {
+        if (!chain.get(chain.size() - 1).isSignedByArbitrator() || chain.size() > SignerTrustGraph.MAX_CHAIN_LENGTH + 1) {
+            return false;
+        }
+        Set<P2PDataStorage.ByteArray> visitedPubKeys = new HashSet<>();
+        for (int i = 0; i < chain.size(); i++) {
+            SignedWitness signedWitness = chain.get(i);
+            if (filterManager.isWitnessSignerPubKeyBanned(Utils.HEX.encode(signedWitness.getWitnessOwnerPubKey()))) {
+                return false;
+            }
+            P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey());
+            if (i > 0 && visitedPubKeys.contains(signerPubKey)) {
+                return false;
+            }
+            visitedPubKeys.add(signerPubKey);
+            visitedPubKeys.add(new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey()));
+        }
+        return true;
+    }
+
     /**
      * Helper to isValidAccountAgeWitness(accountAgeWitness)
      *
@@ -526,6 +576,8 @@ public class SignedWitnessService {
         P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
         signedWitnessSetByOwnerPubKey.putIfAbsent(ownerPubKey, new HashSet<>());
         signedWitnessSetByOwnerPubKey.get(ownerPubKey).add(signedWitness);
+
+        signerTrustGraph.add(signedWitness);
     }
 
     private void publishSignedWitness(SignedWitness signedWitness) {
@@ -563,6 +615,8 @@ public class SignedWitnessService {
                 signedWitnessSetByOwnerPubKey.remove(ownerPubKey);
             }
         }
+
+        signerTrustGraph.remove(signedWitness);
     }
 
     // Remove SignedWitnesses that are signed by TRADE that also have an ARBITRATOR signature
@@ -0,0 +1,193 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.account.sign;
+
+import haveno.network.p2p.storage.P2PDataStorage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Memoized signer chains of all SignedWitnesses, keyed by owner pubkey.
+ *
+ * For each owner pubkey we keep the earliest date from which the owner is allowed to sign other accounts and the
+ * witness of the chain leading to that date. The graph gets built from all witnesses on first use and is then
+ * maintained incrementally, as a new witness can only make signer dates earlier. Removing a witness triggers a
+ * rebuild at the next query.
+ *
+ * Bans of witness owners are not part of the graph, so filter updates do not require a rebuild. The chain of a
+ * signer date has to be checked for banned owners by the caller.
+ */
+class SignerTrustGraph {
+    // Same limit as the recursive search applies to prevent DoS by long chains
+    static final int MAX_CHAIN_LENGTH = 1000;
+
+    private static final Comparator<Signer> SIGNER_COMPARATOR = Comparator.<Signer>comparingLong(signer -> signer.date)
+            .thenComparingInt(signer -> signer.chainLength);
+
+    private static class Signer {
+        final P2PDataStorage.ByteArray ownerPubKey;
+        final long date;
+        // Number of witnesses not signed by an arbitrator in the chain
+        final int chainLength;
+        final SignedWitness witness;
+
+        Signer(P2PDataStorage.ByteArray ownerPubKey, long date, int chainLength, SignedWitness witness) {
+            this.ownerPubKey = ownerPubKey;
+            this.date = date;
+            this.chainLength = chainLength;
+            this.witness = witness;
+        }
+    }
+
+    private final long signerAge;
+    private final Predicate<SignedWitness> verifySignature;
+    private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> witnessesBySignerPubKey = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, Signer> signersByOwnerPubKey = new HashMap<>();
+    private boolean isBuilt;
+
+    SignerTrustGraph(long signerAge, Predicate<SignedWitness> verifySignature) {
+        this.signerAge = signerAge;
+        this.verifySignature = verifySignature;
+    }
+
+    synchronized void add(SignedWitness witness) {
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(witness.getSignerPubKey());
+        if (!witnessesBySignerPubKey.computeIfAbsent(signerPubKey, key -> new HashSet<>()).add(witness) || !isBuilt) {
+            return;
+        }
+
+        PriorityQueue<Signer> queue = new PriorityQueue<>(SIGNER_COMPARATOR);
+        if (witness.isSignedByArbitrator()) {
+            relax(witness, Long.MIN_VALUE, 0, queue);
+        } else {
+            Signer signer = signersByOwnerPubKey.get(signerPubKey);
+            if (signer != null && signer.date <= witness.getDate()) {
+                relax(witness, witness.getDate() + signerAge, signer.chainLength + 1, queue);
+            }
+        }
+        propagate(queue);
+    }
+
+    synchronized void remove(SignedWitness witness) {
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(witness.getSignerPubKey());
+        Set<SignedWitness> witnesses = witnessesBySignerPubKey.get(signerPubKey);
+        if (witnesses != null && witnesses.remove(witness)) {
+            if (witnesses.isEmpty()) witnessesBySignerPubKey.remove(signerPubKey);
+            invalidate();
+        }
+    }
+
+    synchronized void invalidate() {
+        isBuilt = false;
+        signersByOwnerPubKey.clear();
+    }
+
+    /**
+     * Returns the earliest date from which the witness makes its owner a signer, Long.MIN_VALUE if it does so at any
+     * time as it is signed by an arbitrator and Long.MAX_VALUE if it never does.
+     */
+    synchronized long getSignerDate(SignedWitness witness) {
+        maybeBuild();
+        if (!verifySignature.test(witness)) {
+            return Long.MAX_VALUE;
+        }
+        if (witness.isSignedByArbitrator()) {
+            return Long.MIN_VALUE;
+        }
+        Signer signer = signersByOwnerPubKey.get(new P2PDataStorage.ByteArray(witness.getSignerPubKey()));
+        return signer != null && signer.date <= witness.getDate() ? witness.getDate() + signerAge : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the witness followed by the witnesses of the signer chain its signer date is based on, ending with the
+     * witness signed by an arbitrator if the chain is complete.
+     */
+    synchronized List<SignedWitness> getSignerChain(SignedWitness witness) {
+        maybeBuild();
+        List<SignedWitness> chain = new ArrayList<>();
+        chain.add(witness);
+        SignedWitness current = witness;
+        while (!current.isSignedByArbitrator() && chain.size() <= MAX_CHAIN_LENGTH + 1) {
+            Signer signer = signersByOwnerPubKey.get(new P2PDataStorage.ByteArray(current.getSignerPubKey()));
+            if (signer == null) {
+                break;
+            }
+            current = signer.witness;
+            chain.add(current);
+        }
+        return chain;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void maybeBuild() {
+        if (isBuilt) {
+            return;
+        }
+        PriorityQueue<Signer> queue = new PriorityQueue<>(SIGNER_COMPARATOR);
+        witnessesBySignerPubKey.values().forEach(witnesses -> witnesses.stream()
+                .filter(SignedWitness::isSignedByArbitrator)
+                .forEach(witness -> relax(witness, Long.MIN_VALUE, 0, queue)));
+        propagate(queue);
+        isBuilt = true;
+    }
+
+    private void relax(SignedWitness witness, long date, int chainLength, PriorityQueue<Signer> queue) {
+        if (!verifySignature.test(witness)) {
+            return;
+        }
+        P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(witness.getWitnessOwnerPubKey());
+        Signer current = signersByOwnerPubKey.get(ownerPubKey);
+        Signer candidate = new Signer(ownerPubKey, date, chainLength, witness);
+        if (current == null || SIGNER_COMPARATOR.compare(candidate, current) < 0) {
+            signersByOwnerPubKey.put(ownerPubKey, candidate);
+            queue.add(candidate);
+        }
+    }
+
+    // Signer dates only grow along a chain, so we settle them in ascending order like Dijkstra's algorithm does and
+    // each witness gets relaxed at most once per improvement of its signer.
+    private void propagate(PriorityQueue<Signer> queue) {
+        while (!queue.isEmpty()) {
+            Signer signer = queue.poll();
+            if (signersByOwnerPubKey.get(signer.ownerPubKey) != signer) {
+                continue; // superseded by an earlier date
+            }
+            Set<SignedWitness> signedWitnesses = witnessesBySignerPubKey.get(signer.ownerPubKey);
+            if (signedWitnesses == null) {
+                continue;
+            }
+            for (SignedWitness witness : signedWitnesses) {
+                if (!witness.isSignedByArbitrator() && signer.date <= witness.getDate()) {
+                    relax(witness, witness.getDate() + signerAge, signer.chainLength + 1, queue);
+                }
+            }
+        }
+    }
+}
@@ -52,6 +52,7 @@ import monero.wallet.model.MoneroDestination;
 import monero.wallet.model.MoneroTxWallet;
 import org.bitcoinj.core.Transaction;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
@@ -319,6 +320,14 @@ public class CoreApi {
         return new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
     }
 
+    public List<TradeStatistics3> getTradeStatistics(@Nullable String currencyCode,
+                                                     long fromDate,
+                                                     long toDate,
+                                                     int offset,
+                                                     int maxItems) {
+        return tradeStatisticsManager.getTradeStatistics(currencyCode, fromDate, toDate, offset, maxItems);
+    }
+
     public int getNumConfirmationsForMostRecentTransaction(String addressString) {
         return walletsService.getNumConfirmationsForMostRecentTransaction(addressString);
     }
@@ -504,6 +513,14 @@ public class CoreApi {
         return corePriceService.getMarketDepth(currencyCode);
     }
 
+    public void addMarketDepthListener(MarketDepthListener listener) {
+        corePriceService.addMarketDepthListener(listener);
+    }
+
+    public void removeMarketDepthListener(MarketDepthListener listener) {
+        corePriceService.removeMarketDepthListener(listener);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Trades
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -140,7 +140,7 @@ public class CoreDisputesService {
 
         // get winning dispute
         Dispute winningDispute;
-        Trade trade = tradeManager.getTrade(tradeId);
+        Trade trade = tradeManager.getInitializedTrade(tradeId);
         var winningDisputeOptional = arbitrationManager.getDisputesAsObservableList().stream() // TODO (woodser): use getDispute()
                 .filter(d -> tradeId.equals(d.getTradeId()))
                 .filter(d -> trade.getTradePeer(d.getTraderPubKeyRing()) == (winner == DisputeResult.Winner.BUYER ? trade.getBuyer() : trade.getSeller()))
@@ -211,7 +211,7 @@ public class CoreDisputesService {
      */
     public void applyPayoutAmountsToDisputeResult(DisputePayout payout, Dispute dispute, DisputeResult disputeResult, long customWinnerAmount) {
         Contract contract = dispute.getContract();
-        Trade trade = tradeManager.getTrade(dispute.getTradeId());
+        Trade trade = tradeManager.getInitializedTrade(dispute.getTradeId());
         BigInteger buyerSecurityDeposit = trade.getBuyer().getSecurityDeposit();
         BigInteger sellerSecurityDeposit = trade.getSeller().getSecurityDeposit();
         BigInteger tradeAmount = contract.getTradeAmount();
@@ -199,9 +199,9 @@ class CoreTradesService {
         coreWalletsService.verifyWalletsAreAvailable();
         coreWalletsService.verifyEncryptedWalletIsUnlocked();
         return getOpenTrade(tradeId).orElseGet(() ->
-                getClosedTrade(tradeId).orElseThrow(() ->
+                tradeManager.awaitTradeInitialized(getClosedTrade(tradeId).orElseThrow(() ->
                         new IllegalArgumentException(format("trade with id '%s' not found", tradeId))
-                ));
+                )));
     }
 
     private Optional<Trade> getOpenTrade(String tradeId) {
@@ -0,0 +1,328 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.api;
+
+import com.google.common.math.LongMath;
+import haveno.common.UserThread;
+import haveno.core.api.model.MarketDepthInfo;
+import haveno.core.locale.CurrencyUtil;
+import haveno.core.monetary.Price;
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
+import haveno.core.offer.OfferDirection;
+import haveno.core.provider.price.MarketPrice;
+import haveno.core.provider.price.PriceFeedService;
+import haveno.core.trade.HavenoUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Market depth of the offer book by currency. The offer amounts are kept in price levels sorted from the best to the
+ * worst price, which get updated incrementally from the offer book changes. Offers with a market based price get
+ * repriced when the market price of their currency changes. A depth query walks the price levels once and its result
+ * is cached until the next change of the currency.
+ *
+ * Listeners get notified from the thread which changed the depth, after the lock of the cache got released. Each
+ * change increments a version, and a notification is skipped if a later version of the currency has been notified
+ * already, so listeners never receive an older depth after a newer one.
+ */
+@Slf4j
+class MarketDepthCache {
+
+    private static class Side {
+        // Sum of the offer amounts by price value, from the best to the worst price
+        private final TreeMap<Long, Long> amountByPrice;
+
+        Side(Comparator<Long> priceComparator) {
+            amountByPrice = new TreeMap<>(priceComparator);
+        }
+
+        void add(long price, long amount) {
+            amountByPrice.merge(price, amount, Long::sum);
+        }
+
+        void remove(long price, long amount) {
+            amountByPrice.computeIfPresent(price, (key, value) -> value == amount ? null : value - amount);
+        }
+    }
+
+    private static class Book {
+        private final Side buySide;
+        private final Side sellSide;
+        private final Set<String> floatingPriceOfferIds = new HashSet<>();
+        private int smallestUnitExponent;
+        @Nullable
+        private MarketDepthInfo marketDepthInfo;
+
+        Book(boolean isCrypto) {
+            // Trading xmr-crypto is considered as buying/selling crypto, so the price order is reversed for crypto
+            // currencies to keep the order of the mapped prices: buy offers from high to low, sell offers from low to high.
+            Comparator<Long> ascending = Comparator.naturalOrder();
+            buySide = new Side(isCrypto ? ascending : ascending.reversed());
+            sellSide = new Side(isCrypto ? ascending.reversed() : ascending);
+        }
+
+        Side getSide(OfferDirection direction) {
+            return direction == OfferDirection.BUY ? buySide : sellSide;
+        }
+
+        boolean isEmpty() {
+            return buySide.amountByPrice.isEmpty() && sellSide.amountByPrice.isEmpty() && floatingPriceOfferIds.isEmpty();
+        }
+    }
+
+    private static class BookedOffer {
+        private final Offer offer;
+        // Null if the price of the offer is not available (market based price without market price)
+        @Nullable
+        private Long price;
+        // Market price the price of an offer with a market based price was derived from
+        @Nullable
+        private Double marketPrice;
+        private final long amount;
+
+        BookedOffer(Offer offer) {
+            this.offer = offer;
+            this.amount = offer.getAmount().longValueExact();
+        }
+    }
+
+    private final PriceFeedService priceFeedService;
+    private final Map<String, Book> booksByCurrency = new HashMap<>();
+    private final Map<String, BookedOffer> bookedOffersById = new HashMap<>();
+    private final List<MarketDepthListener> listeners = new CopyOnWriteArrayList<>();
+    // Incremented at each change of the depth, guarded by this
+    private long version;
+    // Version of the last depth notified by currency, guarded by notifiedVersionByCurrency
+    private final Map<String, Long> notifiedVersionByCurrency = new HashMap<>();
+
+    MarketDepthCache(OfferBookService offerBookService, PriceFeedService priceFeedService) {
+        this.priceFeedService = priceFeedService;
+
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                add(offer);
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                remove(offer);
+            }
+        });
+        // The update counter can be changed while the price feed holds the lock of its price cache, so we reprice after
+        // it got released to not acquire the locks in different order than Offer.getPrice
+        priceFeedService.updateCounterProperty().addListener((observable, oldValue, newValue) ->
+                UserThread.execute(this::onMarketPricesUpdated));
+
+        // Adding an offer is idempotent, so offers notified by the listener in between are not added twice
+        offerBookService.getOffers().forEach(this::add);
+    }
+
+    void addListener(MarketDepthListener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(MarketDepthListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return Data for market depth chart, see CorePriceService.getMarketDepth
+     */
+    synchronized MarketDepthInfo getMarketDepth(String currencyCode) {
+        Book book = booksByCurrency.get(currencyCode);
+        if (book == null) {
+            return new MarketDepthInfo(currencyCode, new Double[0], new Double[0], new Double[0], new Double[0]);
+        }
+        if (book.marketDepthInfo == null) {
+            List<Double> buyPrices = new ArrayList<>();
+            List<Double> buyDepth = new ArrayList<>();
+            List<Double> sellPrices = new ArrayList<>();
+            List<Double> sellDepth = new ArrayList<>();
+            addDepth(book.buySide, book.smallestUnitExponent, currencyCode, buyPrices, buyDepth);
+            addDepth(book.sellSide, book.smallestUnitExponent, currencyCode, sellPrices, sellDepth);
+            book.marketDepthInfo = new MarketDepthInfo(currencyCode,
+                    buyPrices.toArray(new Double[0]),
+                    buyDepth.toArray(new Double[0]),
+                    sellPrices.toArray(new Double[0]),
+                    sellDepth.toArray(new Double[0]));
+        }
+        return book.marketDepthInfo;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void add(Offer offer) {
+        String currencyCode;
+        synchronized (this) {
+            BookedOffer bookedOffer = bookedOffersById.get(offer.getId());
+            if (bookedOffer != null) {
+                if (bookedOffer.offer.getOfferPayload().equals(offer.getOfferPayload())) {
+                    return;
+                }
+                // An edited offer replaces the offer with the same id
+                unbook(bookedOffer);
+            }
+            currencyCode = offer.getCurrencyCode().toUpperCase();
+            Book book = booksByCurrency.computeIfAbsent(currencyCode, code -> new Book(CurrencyUtil.isCryptoCurrency(code)));
+            bookedOffer = new BookedOffer(offer);
+            bookedOffersById.put(offer.getId(), bookedOffer);
+            if (offer.isUseMarketBasedPrice()) {
+                book.floatingPriceOfferIds.add(offer.getId());
+            }
+            bookAtCurrentPrice(book, bookedOffer);
+            book.marketDepthInfo = null;
+            version++;
+        }
+        notifyListeners(currencyCode);
+    }
+
+    private void remove(Offer offer) {
+        String currencyCode;
+        synchronized (this) {
+            BookedOffer bookedOffer = bookedOffersById.get(offer.getId());
+            // The offer book notifies the removal of an edited offer after the new version has been added
+            if (bookedOffer == null || !bookedOffer.offer.getOfferPayload().equals(offer.getOfferPayload())) {
+                return;
+            }
+            currencyCode = unbook(bookedOffer);
+            version++;
+        }
+        notifyListeners(currencyCode);
+    }
+
+    private String unbook(BookedOffer bookedOffer) {
+        Offer offer = bookedOffer.offer;
+        String currencyCode = offer.getCurrencyCode().toUpperCase();
+        Book book = booksByCurrency.get(currencyCode);
+        bookedOffersById.remove(offer.getId());
+        if (bookedOffer.price != null) {
+            book.getSide(offer.getDirection()).remove(bookedOffer.price, bookedOffer.amount);
+        }
+        book.floatingPriceOfferIds.remove(offer.getId());
+        book.marketDepthInfo = null;
+        if (book.isEmpty()) {
+            booksByCurrency.remove(currencyCode);
+        }
+        return currencyCode;
+    }
+
+    private void bookAtCurrentPrice(Book book, BookedOffer bookedOffer) {
+        if (bookedOffer.offer.isUseMarketBasedPrice()) {
+            bookedOffer.marketPrice = getMarketPrice(bookedOffer.offer.getCurrencyCode());
+        }
+        Price price = bookedOffer.offer.getPrice();
+        bookedOffer.price = price == null ? null : price.getValue();
+        if (price != null) {
+            book.smallestUnitExponent = price.smallestUnitExponent();
+            book.getSide(bookedOffer.offer.getDirection()).add(bookedOffer.price, bookedOffer.amount);
+        }
+    }
+
+    // Reprices the offers with a market based price whose market price has changed
+    private void onMarketPricesUpdated() {
+        List<String> changedCurrencyCodes = new ArrayList<>();
+        synchronized (this) {
+            booksByCurrency.forEach((currencyCode, book) -> {
+                if (book.floatingPriceOfferIds.isEmpty()) {
+                    return;
+                }
+                Double marketPrice = getMarketPrice(currencyCode);
+                boolean changed = false;
+                for (String offerId : book.floatingPriceOfferIds) {
+                    BookedOffer bookedOffer = bookedOffersById.get(offerId);
+                    if (Objects.equals(marketPrice, bookedOffer.marketPrice)) {
+                        continue;
+                    }
+                    if (bookedOffer.price != null) {
+                        book.getSide(bookedOffer.offer.getDirection()).remove(bookedOffer.price, bookedOffer.amount);
+                    }
+                    bookAtCurrentPrice(book, bookedOffer);
+                    changed = true;
+                }
+                if (changed) {
+                    book.marketDepthInfo = null;
+                    changedCurrencyCodes.add(currencyCode);
+                }
+            });
+            if (!changedCurrencyCodes.isEmpty()) {
+                version++;
+            }
+        }
+        changedCurrencyCodes.forEach(this::notifyListeners);
+    }
+
+    // Market price used by Offer.getPrice, or null if it would not derive a price
+    @Nullable
+    private Double getMarketPrice(String currencyCode) {
+        MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
+        return marketPrice != null && marketPrice.isRecentExternalPriceAvailable() ? marketPrice.getPrice() : null;
+    }
+
+    private void notifyListeners(String currencyCode) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        MarketDepthInfo marketDepthInfo;
+        long marketDepthVersion;
+        synchronized (this) {
+            marketDepthInfo = getMarketDepth(currencyCode);
+            marketDepthVersion = version;
+        }
+        // The lock is held while notifying, so a thread with a later version cannot notify in between
+        synchronized (notifiedVersionByCurrency) {
+            Long notifiedVersion = notifiedVersionByCurrency.get(currencyCode);
+            if (notifiedVersion != null && notifiedVersion >= marketDepthVersion) {
+                return;
+            }
+            notifiedVersionByCurrency.put(currencyCode, marketDepthVersion);
+            listeners.forEach(listener -> {
+                try {
+                    listener.onMarketDepthChanged(marketDepthInfo);
+                } catch (Throwable t) {
+                    log.warn("Error notifying market depth listener: {}", t.getMessage());
+                }
+            });
+        }
+    }
+
+    private static void addDepth(Side side, int smallestUnitExponent, String currencyCode, List<Double> prices, List<Double> depth) {
+        double accumulatedAmount = 0;
+        for (Map.Entry<Long, Long> level : side.amountByPrice.entrySet()) {
+            accumulatedAmount += (double) level.getValue() / LongMath.pow(10, HavenoUtils.XMR_SMALLEST_UNIT_EXPONENT);
+            double priceAsDouble = (double) level.getKey() / LongMath.pow(10, smallestUnitExponent);
+            prices.add(CorePriceService.mapPriceFeedServicePrice(priceAsDouble, currencyCode));
+            depth.add(accumulatedAmount);
+        }
+    }
+}
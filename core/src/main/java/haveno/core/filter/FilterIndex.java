@@ -0,0 +1,211 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.filter;
+
+import haveno.core.payment.payload.PaymentAccountPayload;
+import haveno.network.p2p.NodeAddress;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable lookup structure compiled once from a {@link Filter}, so the ban checks are hash lookups instead of
+ * linear scans of the filter's lists.
+ *
+ * Banned node addresses are indexed by host name and port, so a lookup does not need to build the full address
+ * string. Banned payment accounts are grouped by payment method id and getter name. The getters are resolved to
+ * {@link MethodHandle}s once per payload class and invoked once per getter instead of once per filter entry.
+ */
+@Slf4j
+final class FilterIndex {
+    static final FilterIndex EMPTY = new FilterIndex(null);
+
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethods;
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedAutoConfExplorers;
+    private final Set<String> bannedAccountWitnessSignerPubKeys;
+    private final Set<String> bannedPrivilegedDevPubKeys;
+    private final NodeAddressSet nodeAddressesBannedFromTrading;
+    private final NodeAddressSet nodeAddressesBannedFromNetwork;
+    // payment method id -> getter name -> case folded banned values
+    private final Map<String, Map<String, Set<String>>> bannedPaymentAccounts;
+    // Resolved getters per payload class and getter name. An empty optional marks a getter which cannot be invoked.
+    private final Map<Class<?>, Map<String, Optional<MethodHandle>>> getters = new ConcurrentHashMap<>();
+
+    static FilterIndex compile(@Nullable Filter filter) {
+        return filter == null ? EMPTY : new FilterIndex(filter);
+    }
+
+    private FilterIndex(@Nullable Filter filter) {
+        bannedCurrencies = toSet(filter == null ? null : filter.getBannedCurrencies());
+        bannedPaymentMethods = toSet(filter == null ? null : filter.getBannedPaymentMethods());
+        bannedOfferIds = toSet(filter == null ? null : filter.getBannedOfferIds());
+        bannedAutoConfExplorers = toSet(filter == null ? null : filter.getBannedAutoConfExplorers());
+        bannedAccountWitnessSignerPubKeys = toSet(filter == null ? null : filter.getBannedAccountWitnessSignerPubKeys());
+        bannedPrivilegedDevPubKeys = toSet(filter == null ? null : filter.getBannedPrivilegedDevPubKeys());
+        nodeAddressesBannedFromTrading = new NodeAddressSet(filter == null ? null : filter.getNodeAddressesBannedFromTrading());
+        nodeAddressesBannedFromNetwork = new NodeAddressSet(filter == null ? null : filter.getNodeAddressesBannedFromNetwork());
+
+        Map<String, Map<String, Set<String>>> paymentAccounts = new HashMap<>();
+        if (filter != null && filter.getBannedPaymentAccounts() != null) {
+            filter.getBannedPaymentAccounts().stream()
+                    .filter(paymentAccountFilter -> paymentAccountFilter.getValue() != null)
+                    .forEach(paymentAccountFilter -> paymentAccounts
+                            .computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), k -> new HashMap<>())
+                            .computeIfAbsent(paymentAccountFilter.getGetMethodName(), k -> new HashSet<>())
+                            .add(foldCase(paymentAccountFilter.getValue())));
+        }
+        bannedPaymentAccounts = paymentAccounts;
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethods.contains(paymentMethodId);
+    }
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isAutoConfExplorerBanned(String address) {
+        return bannedAutoConfExplorers.contains(address);
+    }
+
+    boolean isWitnessSignerPubKeyBanned(String witnessSignerPubKeyAsHex) {
+        return bannedAccountWitnessSignerPubKeys.contains(witnessSignerPubKeyAsHex);
+    }
+
+    boolean isPrivilegedDevPubKeyBanned(String pubKeyAsHex) {
+        return bannedPrivilegedDevPubKeys.contains(pubKeyAsHex);
+    }
+
+    boolean isNodeAddressBanned(NodeAddress nodeAddress) {
+        return nodeAddressesBannedFromTrading.contains(nodeAddress);
+    }
+
+    boolean isNodeAddressBannedFromNetwork(NodeAddress nodeAddress) {
+        return nodeAddressesBannedFromNetwork.contains(nodeAddress);
+    }
+
+    boolean arePaymentAccountDataBanned(PaymentAccountPayload paymentAccountPayload) {
+        Map<String, Set<String>> valuesByGetter = bannedPaymentAccounts.get(paymentAccountPayload.getPaymentMethodId());
+        if (valuesByGetter == null) {
+            return false;
+        }
+
+        for (Map.Entry<String, Set<String>> entry : valuesByGetter.entrySet()) {
+            Optional<MethodHandle> getter = getGetter(paymentAccountPayload.getClass(), entry.getKey());
+            if (getter.isEmpty()) {
+                continue;
+            }
+            try {
+                // We invoke getter methods (no args), e.g. getHolderName
+                String value = (String) getter.get().invoke(paymentAccountPayload);
+                if (entry.getValue().contains(foldCase(value))) {
+                    return true;
+                }
+            } catch (Throwable e) {
+                log.error(e.getMessage());
+            }
+        }
+        return false;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Optional<MethodHandle> getGetter(Class<?> payloadClass, String methodName) {
+        return getters.computeIfAbsent(payloadClass, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(methodName, k -> {
+                    try {
+                        Method method = payloadClass.getMethod(methodName);
+                        return Optional.of(MethodHandles.publicLookup().unreflect(method));
+                    } catch (Throwable e) {
+                        log.error("Cannot resolve {} of {}: {}", methodName, payloadClass.getSimpleName(), e.toString());
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    private static Set<String> toSet(@Nullable Collection<String> values) {
+        return values == null || values.isEmpty() ? Collections.emptySet() : new HashSet<>(values);
+    }
+
+    // Maps each char like String.equalsIgnoreCase compares them, so equal folded strings are equal ignoring case.
+    private static String foldCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    // Banned full addresses by host name and port. Entries which are no valid full address cannot match a node
+    // address but are kept to compare them as strings like before.
+    private static final class NodeAddressSet {
+        private final Map<String, Set<Integer>> portsByHostName = new HashMap<>();
+        private final Set<String> unparsedAddresses = new HashSet<>();
+
+        NodeAddressSet(@Nullable Collection<String> fullAddresses) {
+            if (fullAddresses == null) {
+                return;
+            }
+            for (String fullAddress : fullAddresses) {
+                if (fullAddress == null) {
+                    continue;
+                }
+                int index = fullAddress.lastIndexOf(':');
+                String portAsString = fullAddress.substring(index + 1);
+                try {
+                    int port = Integer.parseInt(portAsString);
+                    if (index > 0 && String.valueOf(port).equals(portAsString)) {
+                        portsByHostName.computeIfAbsent(fullAddress.substring(0, index), k -> new HashSet<>()).add(port);
+                        continue;
+                    }
+                } catch (NumberFormatException ignore) {
+                }
+                unparsedAddresses.add(fullAddress);
+            }
+        }
+
+        boolean contains(NodeAddress nodeAddress) {
+            Set<Integer> ports = portsByHostName.get(nodeAddress.getHostName());
+            if (ports != null && ports.contains(nodeAddress.getPort())) {
+                return true;
+            }
+            return !unparsedAddresses.isEmpty() && unparsedAddresses.contains(nodeAddress.getFullAddress());
+        }
+    }
+}
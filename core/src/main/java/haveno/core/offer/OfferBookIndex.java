@@ -0,0 +1,145 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the offers in the offer book. It is maintained incrementally by the OfferBookService from the
+ * HashMapChangedListener callbacks and holds one Offer instance per offer id, so lookups do not need to scan the
+ * P2P data map and create new Offer instances.
+ *
+ * Secondary indexes are kept by base currency code and direction and by reserve tx key image.
+ */
+class OfferBookIndex {
+    private final Map<String, Offer> offersById = new LinkedHashMap<>();
+    private final Map<String, Map<String, Offer>> offersByCurrencyAndDirection = new HashMap<>();
+    private final Map<String, Set<String>> offerIdsByKeyImage = new HashMap<>();
+
+    /**
+     * Adds the offer and returns the offer with the same id which got replaced, or null.
+     */
+    @Nullable
+    synchronized Offer add(Offer offer) {
+        Offer replaced = offersById.get(offer.getId());
+        if (replaced != null) {
+            removeFromSecondaryIndexes(replaced);
+        }
+        offersById.put(offer.getId(), offer);
+        offersByCurrencyAndDirection.computeIfAbsent(getCurrencyAndDirectionKey(offer), key -> new LinkedHashMap<>())
+                .put(offer.getId(), offer);
+        for (String keyImage : getKeyImages(offer.getOfferPayload())) {
+            offerIdsByKeyImage.computeIfAbsent(keyImage, key -> new HashSet<>()).add(offer.getId());
+        }
+        return replaced;
+    }
+
+    /**
+     * Removes the indexed offer of the given payload. An offer with the same id but a different payload (e.g. an
+     * edited offer which got added before the old one was removed) is not removed.
+     *
+     * @return the removed offer or null if the payload was not indexed
+     */
+    @Nullable
+    synchronized Offer remove(OfferPayload offerPayload) {
+        Offer offer = offersById.get(offerPayload.getId());
+        if (offer == null || !offer.getOfferPayload().equals(offerPayload)) {
+            return null;
+        }
+        offersById.remove(offer.getId());
+        removeFromSecondaryIndexes(offer);
+        return offer;
+    }
+
+    synchronized void clear() {
+        offersById.clear();
+        offersByCurrencyAndDirection.clear();
+        offerIdsByKeyImage.clear();
+    }
+
+    @Nullable
+    synchronized Offer getOffer(String offerId) {
+        return offersById.get(offerId);
+    }
+
+    synchronized List<Offer> getOffers() {
+        return new ArrayList<>(offersById.values());
+    }
+
+    synchronized List<Offer> getOffers(String currencyCode, String direction) {
+        Map<String, Offer> offers = offersByCurrencyAndDirection.get(getCurrencyAndDirectionKey(currencyCode, direction));
+        return offers == null ? new ArrayList<>() : new ArrayList<>(offers.values());
+    }
+
+    synchronized List<Offer> getOffersByKeyImage(String keyImage) {
+        Set<String> offerIds = offerIdsByKeyImage.getOrDefault(keyImage, Collections.emptySet());
+        List<Offer> offers = new ArrayList<>(offerIds.size());
+        for (String offerId : offerIds) {
+            Offer offer = offersById.get(offerId);
+            if (offer != null) {
+                offers.add(offer);
+            }
+        }
+        return offers;
+    }
+
+    synchronized int size() {
+        return offersById.size();
+    }
+
+    private void removeFromSecondaryIndexes(Offer offer) {
+        String key = getCurrencyAndDirectionKey(offer);
+        Map<String, Offer> offers = offersByCurrencyAndDirection.get(key);
+        if (offers != null) {
+            offers.remove(offer.getId());
+            if (offers.isEmpty()) {
+                offersByCurrencyAndDirection.remove(key);
+            }
+        }
+        for (String keyImage : getKeyImages(offer.getOfferPayload())) {
+            Set<String> offerIds = offerIdsByKeyImage.get(keyImage);
+            if (offerIds != null) {
+                offerIds.remove(offer.getId());
+                if (offerIds.isEmpty()) {
+                    offerIdsByKeyImage.remove(keyImage);
+                }
+            }
+        }
+    }
+
+    private static List<String> getKeyImages(OfferPayload offerPayload) {
+        List<String> keyImages = offerPayload.getReserveTxKeyImages();
+        return keyImages == null ? Collections.emptyList() : keyImages;
+    }
+
+    private static String getCurrencyAndDirectionKey(Offer offer) {
+        return getCurrencyAndDirectionKey(offer.getOfferPayload().getBaseCurrencyCode(), offer.getDirection().name());
+    }
+
+    private static String getCurrencyAndDirectionKey(String currencyCode, String direction) {
+        return currencyCode.toUpperCase() + "_" + direction;
+    }
+}
@@ -51,7 +51,8 @@ import java.util.stream.Collectors;
 
 /**
  * Handles storage and retrieval of offers.
- * Uses an invalidation flag to only request the full offer map in case there was a change (anyone has added or removed an offer).
+ * The offers are kept in an OfferBookIndex which gets updated from the P2P data storage listener, so lookups do not
+ * need to scan the full P2P data map.
  */
 public class OfferBookService {
     private static final Logger log = LoggerFactory.getLogger(OfferBookService.class);
@@ -62,6 +63,7 @@ public class OfferBookService {
     private final FilterManager filterManager;
     private final JsonFileManager jsonFileManager;
     private final XmrConnectionService xmrConnectionService;
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
 
     // poll key images of offers
     private XmrKeyImagePoller keyImagePoller;
@@ -102,43 +104,45 @@ public class OfferBookService {
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(Collection<ProtectedStorageEntry> protectedStorageEntries) {
-                    protectedStorageEntries.forEach(protectedStorageEntry -> {
+                protectedStorageEntries.forEach(protectedStorageEntry -> {
+                    if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
+                        OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
+                        maybeInitializeKeyImagePoller();
+                        keyImagePoller.addKeyImages(offerPayload.getReserveTxKeyImages());
+                        Offer offer = toOffer(offerPayload);
+                        offerBookIndex.add(offer);
                         synchronized (offerBookChangedListeners) {
-                            offerBookChangedListeners.forEach(listener -> {
-                                if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
-                                    OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
-                                    maybeInitializeKeyImagePoller();
-                                    keyImagePoller.addKeyImages(offerPayload.getReserveTxKeyImages());
-                                    Offer offer = new Offer(offerPayload);
-                                    offer.setPriceFeedService(priceFeedService);
-                                    setReservedFundsSpent(offer);
-                                    listener.onAdded(offer);
-                                }
-                            });
+                            offerBookChangedListeners.forEach(listener -> listener.onAdded(offer));
                         }
-                    });
+                    }
+                });
             }
 
             @Override
             public void onRemoved(Collection<ProtectedStorageEntry> protectedStorageEntries) {
                 protectedStorageEntries.forEach(protectedStorageEntry -> {
-                    synchronized (offerBookChangedListeners) {
-                        offerBookChangedListeners.forEach(listener -> {
-                            if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
-                                OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
-                                maybeInitializeKeyImagePoller();
-                                keyImagePoller.removeKeyImages(offerPayload.getReserveTxKeyImages());
-                                Offer offer = new Offer(offerPayload);
-                                offer.setPriceFeedService(priceFeedService);
-                                setReservedFundsSpent(offer);
-                                listener.onRemoved(offer);
-                            }
-                        });
+                    if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
+                        OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
+                        maybeInitializeKeyImagePoller();
+                        keyImagePoller.removeKeyImages(offerPayload.getReserveTxKeyImages());
+                        Offer removedOffer = offerBookIndex.remove(offerPayload);
+                        Offer offer = removedOffer != null ? removedOffer : toOffer(offerPayload);
+                        setReservedFundsSpent(offer);
+                        synchronized (offerBookChangedListeners) {
+                            offerBookChangedListeners.forEach(listener -> listener.onRemoved(offer));
+                        }
                     }
                 });
             }
         });
 
+        // index offers which have been added before our listener was registered
+        p2PService.getDataMap().values().stream()
+                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
+                .map(data -> (OfferPayload) data.getProtectedStoragePayload())
+                .filter(offerPayload -> offerBookIndex.getOffer(offerPayload.getId()) == null)
+                .forEach(offerPayload -> offerBookIndex.add(toOffer(offerPayload)));
+
         if (dumpStatistics) {
             p2PService.addP2PServiceListener(new BootstrapListener() {
                 @Override
@@ -220,22 +224,16 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    setReservedFundsSpent(offer);
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        return offerBookIndex.getOffers();
     }
 
     public List<Offer> getOffersByCurrency(String direction, String currencyCode) {
-        return getOffers().stream()
-                .filter(o -> o.getOfferPayload().getBaseCurrencyCode().equalsIgnoreCase(currencyCode) && o.getDirection().name() == direction)
-                .collect(Collectors.toList());
+        return offerBookIndex.getOffers(currencyCode, direction);
+    }
+
+    @Nullable
+    public Offer getOffer(String offerId) {
+        return offerBookIndex.getOffer(offerId);
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -288,22 +286,28 @@ public class OfferBookService {
     }
 
     private void updateAffectedOffers(String keyImage) {
-        for (Offer offer : getOffers()) {
-            if (offer.getOfferPayload().getReserveTxKeyImages().contains(keyImage)) {
-                synchronized (offerBookChangedListeners) {
-                    offerBookChangedListeners.forEach(listener -> {
-
-                        // notify off thread to avoid deadlocking
-                        new Thread(() -> {
-                            listener.onRemoved(offer);
-                            listener.onAdded(offer);
-                        }).start();
-                    });
-                }
+        for (Offer offer : offerBookIndex.getOffersByKeyImage(keyImage)) {
+            setReservedFundsSpent(offer);
+            synchronized (offerBookChangedListeners) {
+                offerBookChangedListeners.forEach(listener -> {
+
+                    // notify off thread to avoid deadlocking
+                    new Thread(() -> {
+                        listener.onRemoved(offer);
+                        listener.onAdded(offer);
+                    }).start();
+                });
             }
         }
     }
 
+    private Offer toOffer(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        setReservedFundsSpent(offer);
+        return offer;
+    }
+
     private void setReservedFundsSpent(Offer offer) {
         if (keyImagePoller == null) return;
         for (String keyImage : offer.getOfferPayload().getReserveTxKeyImages()) {
@@ -17,6 +17,8 @@
 
 package haveno.core.offer;
 
+import com.google.common.collect.Lists;
+import haveno.common.ThreadUtils;
 import haveno.common.app.Version;
 import haveno.core.account.witness.AccountAgeWitnessService;
 import haveno.core.filter.FilterManager;
@@ -35,40 +37,62 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Singleton
 public class OfferFilterService {
+    private static final String THREAD_ID = OfferFilterService.class.getSimpleName();
+    private static final int MAX_CONCURRENT_SIGNATURE_VERIFICATIONS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
     private final User user;
     private final P2PService p2PService;
     private final Preferences preferences;
     private final FilterManager filterManager;
     private final AccountAgeWitnessService accountAgeWitnessService;
-    private final Map<String, Boolean> insufficientCounterpartyTradeLimitCache = new HashMap<>();
-    private final Map<String, Boolean> myInsufficientTradeLimitCache = new HashMap<>();
+    private final OfferBookService offerBookService;
+    private final OfferValidationCache validationCache;
+    private final List<Offer> offersToVerify = new ArrayList<>();
 
     @Inject
     public OfferFilterService(User user,
                        P2PService p2PService,
                        Preferences preferences,
                        FilterManager filterManager,
-                       AccountAgeWitnessService accountAgeWitnessService) {
+                       AccountAgeWitnessService accountAgeWitnessService,
+                       OfferBookService offerBookService) {
         this.user = user;
         this.p2PService = p2PService;
         this.preferences = preferences;
         this.filterManager = filterManager;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.offerBookService = offerBookService;
+        this.validationCache = new OfferValidationCache(offerId -> offerBookService.getOffer(offerId) != null);
 
         if (user != null && user.getPaymentAccountsAsObservable() != null) {
-            // If our accounts have changed we reset our myInsufficientTradeLimitCache as it depends on account data
+            // If our accounts have changed we reset our cached trade limits as they depend on account data
             user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) c ->
-                    myInsufficientTradeLimitCache.clear());
+                    validationCache.resetMyTradeLimits());
         }
+
+        // Banned witness signers affect the trade limits
+        filterManager.filterProperty().addListener((observable, oldValue, newValue) -> validationCache.resetTradeLimits());
+
+        // Offers are removed and added again if their reserved funds got spent, so this evicts them as well
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                verifySignatureAsync(offer);
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                validationCache.remove(offer.getId());
+            }
+        });
     }
 
     public enum Result {
@@ -180,24 +204,26 @@ public class OfferFilterService {
 
     // This call is a bit expensive so we cache results
     public boolean isInsufficientCounterpartyTradeLimit(Offer offer) {
-        String offerId = offer.getId();
-        if (insufficientCounterpartyTradeLimitCache.containsKey(offerId)) {
-            return insufficientCounterpartyTradeLimitCache.get(offerId);
+        OfferValidationCache.Entry entry = validationCache.getEntry(offer);
+        Boolean cachedResult = entry.getInsufficientCounterpartyTradeLimit();
+        if (cachedResult != null) {
+            return cachedResult;
         }
 
         boolean result = offer.isTraditionalOffer() &&
                 !accountAgeWitnessService.verifyPeersTradeAmount(offer, offer.getAmount(),
                         errorMessage -> {
                         });
-        insufficientCounterpartyTradeLimitCache.put(offerId, result);
+        entry.setInsufficientCounterpartyTradeLimit(result);
         return result;
     }
 
     // This call is a bit expensive so we cache results
     public boolean isMyInsufficientTradeLimit(Offer offer) {
-        String offerId = offer.getId();
-        if (myInsufficientTradeLimitCache.containsKey(offerId)) {
-            return myInsufficientTradeLimitCache.get(offerId);
+        OfferValidationCache.Entry entry = validationCache.getEntry(offer);
+        Boolean cachedResult = entry.getMyInsufficientTradeLimit();
+        if (cachedResult != null) {
+            return cachedResult;
         }
 
         Optional<PaymentAccount> accountOptional = PaymentAccountUtil.getMostMaturePaymentAccountForOffer(offer,
@@ -215,10 +241,11 @@ public class OfferFilterService {
         boolean result = offer.isTraditionalOffer() &&
                 accountOptional.isPresent() &&
                 myTradeLimit < offerMinAmount;
-        myInsufficientTradeLimitCache.put(offerId, result);
+        entry.setMyInsufficientTradeLimit(result);
         return result;
     }
 
+    // The signature is verified once per offer payload and arbitrator
     public boolean hasValidSignature(Offer offer) {
 
         // get accepted arbitrator by address
@@ -238,10 +265,53 @@ public class OfferFilterService {
         }
 
         if (arbitrator == null) return false; // invalid arbitrator
-        return HavenoUtils.isArbitratorSignatureValid(offer.getOfferPayload(), arbitrator);
+        OfferValidationCache.Entry entry = validationCache.getEntry(offer);
+        Boolean cachedResult = entry.getSignatureResult(arbitrator.getPubKeyRing());
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        boolean result = HavenoUtils.isArbitratorSignatureValid(offer.getOfferPayload(), arbitrator);
+        entry.setSignatureResult(arbitrator.getPubKeyRing(), result);
+        return result;
     }
 
     public boolean isReservedFundsSpent(Offer offer) {
         return offer.isReservedFundsSpent();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Verifies the signatures of newly added offers in the background, so they are cached when the offer book gets
+    // rendered. Offers which arrive while a batch is verified are collected and verified in parallel in the next batch.
+    private void verifySignatureAsync(Offer offer) {
+        synchronized (offersToVerify) {
+            offersToVerify.add(offer);
+        }
+        ThreadUtils.execute(this::verifySignatures, THREAD_ID);
+    }
+
+    private void verifySignatures() {
+        List<Offer> offers;
+        synchronized (offersToVerify) {
+            offers = offersToVerify.stream()
+                    .filter(offer -> offerBookService.getOffer(offer.getId()) != null) // skip removed offers
+                    .collect(Collectors.toList());
+            offersToVerify.clear();
+        }
+        if (offers.isEmpty()) return;
+
+        // awaitTasks runs all tasks at once, so we verify the offers in one task per batch
+        int batchSize = (offers.size() + MAX_CONCURRENT_SIGNATURE_VERIFICATIONS - 1) / MAX_CONCURRENT_SIGNATURE_VERIFICATIONS;
+        List<Runnable> tasks = new ArrayList<>();
+        for (List<Offer> batch : Lists.partition(offers, batchSize)) tasks.add(() -> batch.forEach(this::hasValidSignature));
+        try {
+            ThreadUtils.awaitTasks(tasks);
+        } catch (Exception e) {
+            log.warn("Error verifying signatures of {} offers: {}", offers.size(), e.getMessage());
+        }
+    }
 }
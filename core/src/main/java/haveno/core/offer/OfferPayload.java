@@ -31,12 +31,12 @@ import haveno.common.util.Utilities;
 import haveno.core.trade.HavenoUtils;
 import haveno.core.xmr.wallet.Restrictions;
 import haveno.network.p2p.NodeAddress;
+import haveno.network.p2p.storage.payload.CachedHashPayload;
 import haveno.network.p2p.storage.payload.ExpirablePayload;
 import haveno.network.p2p.storage.payload.ProtectedStoragePayload;
 import haveno.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -44,6 +44,7 @@ import java.lang.reflect.Type;
 import java.math.BigInteger;
 import java.security.PublicKey;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,7 +55,8 @@ import java.util.concurrent.TimeUnit;
 @EqualsAndHashCode(exclude = {"hash"})
 @Getter
 @Slf4j
-public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload {
+public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload,
+        CachedHashPayload {
     public static final long TTL = TimeUnit.MINUTES.toMillis(11);
 
     protected final String id;
@@ -75,19 +77,16 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     protected final int protocolVersion;
     @JsonExclude
     protected final PubKeyRing pubKeyRing;
-    // cache
-    protected transient byte[] hash;
+    // cache, reset by the setters of the mutable fields
+    protected transient volatile byte[] hash;
     @Nullable
     protected final Map<String, String> extraDataMap;
 
     // address and signature of signing arbitrator
-    @Setter
     @Nullable
     protected NodeAddress arbitratorSigner;
-    @Setter
     @Nullable
     protected byte[] arbitratorSignature;
-    @Setter
     @Nullable
     protected List<String> reserveTxKeyImages;
 
@@ -211,7 +210,7 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
         this.protocolVersion = protocolVersion;
         this.arbitratorSigner = arbitratorSigner;
         this.arbitratorSignature = arbitratorSignature;
-        this.reserveTxKeyImages = reserveTxKeyImages;
+        this.reserveTxKeyImages = toUnmodifiableList(reserveTxKeyImages);
         this.marketPriceMarginPct = marketPriceMarginPct;
         this.useMarketBasedPrice = useMarketBasedPrice;
         this.countryCode = countryCode;
@@ -232,6 +231,7 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
         this.hashOfChallenge = hashOfChallenge;
     }
 
+    @Override
     public byte[] getHash() {
         if (this.hash == null) {
             this.hash = Hash.getSha256Hash(this.toProtoMessage().toByteArray());
@@ -239,6 +239,29 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
         return this.hash;
     }
 
+    // The mutable fields are part of the serialized payload, so we reset the cached hash if they change
+
+    public void setArbitratorSigner(@Nullable NodeAddress arbitratorSigner) {
+        this.arbitratorSigner = arbitratorSigner;
+        this.hash = null;
+    }
+
+    public void setArbitratorSignature(@Nullable byte[] arbitratorSignature) {
+        this.arbitratorSignature = arbitratorSignature;
+        this.hash = null;
+    }
+
+    public void setReserveTxKeyImages(@Nullable List<String> reserveTxKeyImages) {
+        this.reserveTxKeyImages = toUnmodifiableList(reserveTxKeyImages);
+        this.hash = null;
+    }
+
+    // The key images are part of the cached hash, so they must not be changed in place
+    @Nullable
+    private static List<String> toUnmodifiableList(@Nullable List<String> reserveTxKeyImages) {
+        return reserveTxKeyImages == null ? null : Collections.unmodifiableList(new ArrayList<>(reserveTxKeyImages));
+    }
+
     public byte[] getSignatureHash() {
 
         // create copy with ignored fields standardized
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.common.crypto.PubKeyRing;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Caches the results of the expensive offer checks of the OfferFilterService per offer id and offer payload hash.
+ *
+ * An entry is replaced if the payload of the offer has changed. The trade limit results get reset if data they
+ * depend on has changed (e.g. our payment accounts or the filter), and entries are removed with their offers. Only
+ * offers in the offer book get cached, as entries of other offers would never be removed.
+ * A signature result is only used for the arbitrator it was verified with, so a change of the arbitrator list
+ * cannot return a stale result.
+ */
+class OfferValidationCache {
+
+    static class Entry {
+        private final byte[] payloadHash;
+        // Guarded by the entry, so the result is always read with the key it was verified with
+        @Nullable
+        private PubKeyRing signatureVerifiedWith;
+        private boolean isSignatureValid;
+        @Nullable
+        private volatile Boolean isInsufficientCounterpartyTradeLimit;
+        @Nullable
+        private volatile Boolean isMyInsufficientTradeLimit;
+
+        private Entry(byte[] payloadHash) {
+            this.payloadHash = payloadHash;
+        }
+
+        @Nullable
+        synchronized Boolean getSignatureResult(PubKeyRing arbitratorPubKeyRing) {
+            return arbitratorPubKeyRing.equals(signatureVerifiedWith) ? isSignatureValid : null;
+        }
+
+        synchronized void setSignatureResult(PubKeyRing arbitratorPubKeyRing, boolean isSignatureValid) {
+            this.signatureVerifiedWith = arbitratorPubKeyRing;
+            this.isSignatureValid = isSignatureValid;
+        }
+
+        @Nullable
+        Boolean getInsufficientCounterpartyTradeLimit() {
+            return isInsufficientCounterpartyTradeLimit;
+        }
+
+        void setInsufficientCounterpartyTradeLimit(boolean isInsufficientCounterpartyTradeLimit) {
+            this.isInsufficientCounterpartyTradeLimit = isInsufficientCounterpartyTradeLimit;
+        }
+
+        @Nullable
+        Boolean getMyInsufficientTradeLimit() {
+            return isMyInsufficientTradeLimit;
+        }
+
+        void setMyInsufficientTradeLimit(boolean isMyInsufficientTradeLimit) {
+            this.isMyInsufficientTradeLimit = isMyInsufficientTradeLimit;
+        }
+    }
+
+    private final Predicate<String> isOfferBooked;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param isOfferBooked tells if the offer with the given id is in the offer book
+     */
+    OfferValidationCache(Predicate<String> isOfferBooked) {
+        this.isOfferBooked = isOfferBooked;
+    }
+
+    /**
+     * Returns the entry of the offer, or a new empty entry if there is none or the offer payload has changed. The
+     * entry of an offer which is not in the offer book is not cached.
+     */
+    Entry getEntry(Offer offer) {
+        String offerId = offer.getId();
+        byte[] payloadHash = offer.getOfferPayloadHash();
+        if (!isOfferBooked.test(offerId)) {
+            Entry entry = entries.get(offerId);
+            return entry != null && Arrays.equals(entry.payloadHash, payloadHash) ? entry : new Entry(payloadHash);
+        }
+        Entry entry = entries.compute(offerId, (id, cached) ->
+                cached != null && Arrays.equals(cached.payloadHash, payloadHash) ? cached : new Entry(payloadHash));
+
+        // The offer can have been removed before we added the entry, in which case its removal did not evict it
+        if (!isOfferBooked.test(offerId)) {
+            entries.remove(offerId, entry);
+        }
+        return entry;
+    }
+
+    void remove(String offerId) {
+        entries.remove(offerId);
+    }
+
+    void resetTradeLimits() {
+        entries.values().forEach(entry -> {
+            entry.isInsufficientCounterpartyTradeLimit = null;
+            entry.isMyInsufficientTradeLimit = null;
+        });
+    }
+
+    void resetMyTradeLimits() {
+        entries.values().forEach(entry -> entry.isMyInsufficientTradeLimit = null);
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -17,6 +17,7 @@
 
 package haveno.core.offer;
 
+import com.google.common.collect.Lists;
 import common.utils.GenUtils;
 import haveno.common.ThreadUtils;
 import haveno.common.Timer;
@@ -115,6 +116,13 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private static final long REPUBLISH_AGAIN_AT_STARTUP_DELAY_SEC = 30;
     private static final long REPUBLISH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(30);
     private static final long REFRESH_INTERVAL_MS = OfferPayload.TTL / 2;
+    // Offers are refreshed and republished in batches. Each batch gets flushed by the broadcaster at once, so peers
+    // supporting Capability.REFRESH_OFFERS_BUNDLE receive the refreshes of a batch in one RefreshOffersMessage.
+    private static final int REFRESH_BATCH_SIZE = 100;
+    private static final long REFRESH_BATCH_DELAY_MS = 1000;
+    private static final int REPUBLISH_BATCH_SIZE = 20;
+    private static final long REPUBLISH_BATCH_DELAY_MS = 1000;
+    private static final int MAX_CONCURRENT_SIGN_OFFER_REQUESTS = 4;
 
     private final CoreContext coreContext;
     private final KeyRing keyRing;
@@ -141,6 +149,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final SignedOfferList signedOffers = new SignedOfferList();
     private final PersistenceManager<SignedOfferList> signedOfferPersistenceManager;
     private final Map<String, PlaceOfferProtocol> placeOfferProtocols = new HashMap<String, PlaceOfferProtocol>();
+    private final SignOfferRequestQueue signOfferRequestQueue = new SignOfferRequestQueue(MAX_CONCURRENT_SIGN_OFFER_REQUESTS);
     private BigInteger lastUnlockedBalance;
     private boolean stopped;
     private Timer periodicRepublishOffersTimer, periodicRefreshOffersTimer, retryRepublishOffersTimer;
@@ -306,6 +315,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopped = true;
         p2PService.getPeerManager().removeListener(this);
         p2PService.removeDecryptedDirectMessageListener(this);
+        signOfferRequestQueue.shutDown();
         if (signedOfferKeyImagePoller != null) signedOfferKeyImagePoller.clearKeyImages();
 
         stopPeriodicRefreshOffersTimer();
@@ -387,7 +397,9 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         // A basic sig check is in done also at decryption time
         NetworkEnvelope networkEnvelope = decryptedMessageWithPubKey.getNetworkEnvelope();
         if (networkEnvelope instanceof SignOfferRequest) {
-            handleSignOfferRequest((SignOfferRequest) networkEnvelope, peerNodeAddress);
+            SignOfferRequest request = (SignOfferRequest) networkEnvelope;
+            signOfferRequestQueue.submit(request.getOfferId(), request.getUid(), request.getReserveTxKeyImages(),
+                    () -> handleSignOfferRequest(request, peerNodeAddress));
         } if (networkEnvelope instanceof SignOfferResponse) {
             handleSignOfferResponse((SignOfferResponse) networkEnvelope, peerNodeAddress);
         } else if (networkEnvelope instanceof OfferAvailabilityRequest) {
@@ -775,6 +787,10 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         }
     }
 
+    public SignOfferRequestQueue.Metrics getSignOfferRequestMetrics() {
+        return signOfferRequestQueue.getMetrics();
+    }
+
     private void addOpenOffer(OpenOffer openOffer) {
         synchronized (openOffers) {
             openOffers.add(openOffer);
@@ -1226,8 +1242,12 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                     request.getReserveTxKeyImages(),
                     txResult.first.getFee().longValueExact(),
                     signature); // TODO (woodser): no need for signature to be part of SignedOffer?
-            addSignedOffer(signedOffer);
-            requestPersistence();
+
+            // requests are verified concurrently, but the signed offers are updated on the user thread one at a time
+            UserThread.await(() -> {
+                addSignedOffer(signedOffer);
+                requestPersistence();
+            });
 
             // send response with signature
             SignOfferResponse response = new SignOfferResponse(request.getOfferId(),
@@ -1598,7 +1618,22 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     }
 
     private void processListForRepublishOffers(List<OpenOffer> list) {
+        processListForRepublishOffers(list, 0);
+    }
+
+    // We republish the offers in batches and send out each batch at once. With power users who have 100-200 offers
+    // this avoids both a single huge bundle and a message per offer.
+    private void processListForRepublishOffers(List<OpenOffer> list, int numRepublishedInBatch) {
         if (list.isEmpty()) {
+            if (numRepublishedInBatch > 0) UserThread.execute(broadcaster::flush);
+            return;
+        }
+
+        if (numRepublishedInBatch >= REPUBLISH_BATCH_SIZE) {
+            UserThread.execute(broadcaster::flush);
+            UserThread.runAfter(() -> {
+                if (!stopped) ThreadUtils.execute(() -> processListForRepublishOffers(list, 0), THREAD_ID);
+            }, REPUBLISH_BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
             return;
         }
 
@@ -1608,18 +1643,11 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             contained = openOffers.contains(openOffer);
         }
         if (contained && openOffer.isAvailable()) {
-            // TODO It is not clear yet if it is better for the node and the network to send out all add offer
-            //  messages in one go or to spread it over a delay. With power users who have 100-200 offers that can have
-            //  some significant impact to user experience and the network
-            republishOffer(openOffer, () -> processListForRepublishOffers(list));
-
-            /* republishOffer(openOffer,
-                    () -> UserThread.runAfter(() -> processListForRepublishOffers(list),
-                            30, TimeUnit.MILLISECONDS));*/
+            republishOffer(openOffer, () -> processListForRepublishOffers(list, numRepublishedInBatch + 1));
         } else {
             // If the offer was removed in the meantime or if its deactivated we skip and call
             // processListForRepublishOffers again with the list where we removed the offer already.
-            processListForRepublishOffers(list);
+            processListForRepublishOffers(list, numRepublishedInBatch);
         }
     }
 
@@ -1714,22 +1742,14 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         if (periodicRefreshOffersTimer == null)
             periodicRefreshOffersTimer = UserThread.runPeriodically(() -> {
                         if (!stopped) {
-                            int size = openOffers.size();
                             //we clone our list as openOffers might change during our delayed call
-                            final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-                            for (int i = 0; i < size; i++) {
-                                // we delay to avoid reaching throttle limits
-                                // roughly 4 offers per second
-
-                                long delay = 300;
-                                final long minDelay = (i + 1) * delay;
-                                final long maxDelay = (i + 2) * delay;
-                                final OpenOffer openOffer = openOffersList.get(i);
-                                UserThread.runAfterRandomDelay(() -> {
-                                    // we need to check if in the meantime the offer has been removed
-                                    if (openOffers.contains(openOffer) && openOffer.isAvailable())
-                                        refreshOffer(openOffer);
-                                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
+                            List<List<OpenOffer>> batches = Lists.partition(new ArrayList<>(openOffers.getList()), REFRESH_BATCH_SIZE);
+                            for (int i = 0; i < batches.size(); i++) {
+                                // we spread the batches to avoid reaching throttle limits
+                                final long minDelay = (i + 1) * REFRESH_BATCH_DELAY_MS;
+                                final long maxDelay = minDelay + REFRESH_BATCH_DELAY_MS / 2;
+                                final List<OpenOffer> batch = batches.get(i);
+                                UserThread.runAfterRandomDelay(() -> refreshOffers(batch), minDelay, maxDelay, TimeUnit.MILLISECONDS);
                             }
                         } else {
                             log.debug("We have stopped already. We ignore that periodicRefreshOffersTimer.run call.");
@@ -1741,6 +1761,16 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             log.trace("periodicRefreshOffersTimer already stated");
     }
 
+    private void refreshOffers(List<OpenOffer> batch) {
+        if (stopped) return;
+        for (OpenOffer openOffer : batch) {
+            // we need to check if in the meantime the offer has been removed
+            if (openOffers.contains(openOffer) && openOffer.isAvailable())
+                refreshOffer(openOffer);
+        }
+        broadcaster.flush();
+    }
+
     private void refreshOffer(OpenOffer openOffer) {
         offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
                 () -> log.debug("Successful refreshed TTL for offer"),
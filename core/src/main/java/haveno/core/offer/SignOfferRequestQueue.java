@@ -0,0 +1,199 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.common.util.Utilities;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Processes the SignOfferRequests received by an arbitrator with bounded concurrency, so the daemon round trips of
+ * verifying the reserve txs of different makers overlap.
+ *
+ * Requests sharing a key image or the offer id are processed one after another in the order they have been received,
+ * so the same outputs are never verified concurrently. A retried request with the same offer id and uid is dropped
+ * while the original request is pending or if it has been processed recently.
+ */
+@Slf4j
+public class SignOfferRequestQueue {
+    private static final int MAX_RECENT_REQUESTS = 1000;
+
+    @Value
+    public static class Metrics {
+        int queueDepth;
+        int numRunning;
+        long numProcessed;
+        long numDuplicates;
+        long averageWaitMs;
+        long averageProcessingMs;
+        long maxLatencyMs;
+    }
+
+    private static class Request {
+        final String requestId;
+        final Set<String> keys;
+        final Runnable task;
+        final long queuedAt = System.currentTimeMillis();
+
+        Request(String requestId, Set<String> keys, Runnable task) {
+            this.requestId = requestId;
+            this.keys = keys;
+            this.task = task;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final LinkedList<Request> queue = new LinkedList<>();
+    private final Set<String> runningKeys = new HashSet<>();
+    private final Set<String> pendingRequestIds = new HashSet<>();
+    private final Set<String> recentRequestIds = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_RECENT_REQUESTS;
+        }
+    });
+    private int numRunning;
+    private long numProcessed;
+    private long numDuplicates;
+    private long totalWaitMs;
+    private long totalProcessingMs;
+    private long maxLatencyMs;
+
+    public SignOfferRequestQueue(int maxConcurrency) {
+        this(Utilities.getThreadPoolExecutor("SignOfferRequestQueue", maxConcurrency, maxConcurrency, maxConcurrency, 60),
+                maxConcurrency);
+    }
+
+    SignOfferRequestQueue(ExecutorService executor, int maxConcurrency) {
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Queues the processing of a SignOfferRequest.
+     *
+     * @param offerId the offer id of the request
+     * @param uid the uid of the request
+     * @param keyImages the key images of the reserve tx, may be null
+     * @param task processes the request
+     * @return false if the request is a duplicate and got dropped
+     */
+    public synchronized boolean submit(String offerId, String uid, @Nullable Collection<String> keyImages, Runnable task) {
+        String requestId = offerId + "_" + uid;
+        if (pendingRequestIds.contains(requestId) || recentRequestIds.contains(requestId)) {
+            numDuplicates++;
+            log.info("Ignoring duplicate SignOfferRequest with offerId {} and uid {}", offerId, uid);
+            return false;
+        }
+
+        Set<String> keys = new HashSet<>();
+        keys.add(offerId);
+        if (keyImages != null) keys.addAll(keyImages);
+        pendingRequestIds.add(requestId);
+        queue.add(new Request(requestId, keys, task));
+        dispatch();
+        return true;
+    }
+
+    public synchronized Metrics getMetrics() {
+        return new Metrics(queue.size(),
+                numRunning,
+                numProcessed,
+                numDuplicates,
+                numProcessed == 0 ? 0 : totalWaitMs / numProcessed,
+                numProcessed == 0 ? 0 : totalProcessingMs / numProcessed,
+                maxLatencyMs);
+    }
+
+    /**
+     * Drops the queued requests and interrupts the running ones.
+     */
+    public synchronized void shutDown() {
+        queue.forEach(request -> pendingRequestIds.remove(request.requestId));
+        queue.clear();
+        executor.shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void dispatch() {
+        // A request sharing a key with a waiting request stays behind it, so requests of the same key keep their order
+        Set<String> waitingKeys = new HashSet<>();
+        Iterator<Request> iterator = queue.iterator();
+        while (numRunning < maxConcurrency && iterator.hasNext()) {
+            Request request = iterator.next();
+            if (!Collections.disjoint(runningKeys, request.keys) || !Collections.disjoint(waitingKeys, request.keys)) {
+                waitingKeys.addAll(request.keys);
+                continue;
+            }
+            iterator.remove();
+            runningKeys.addAll(request.keys);
+            numRunning++;
+            try {
+                executor.execute(() -> run(request));
+            } catch (RejectedExecutionException e) {
+                log.warn("SignOfferRequest {} got rejected, the queue is shut down", request.requestId);
+                runningKeys.removeAll(request.keys);
+                pendingRequestIds.remove(request.requestId);
+                numRunning--;
+            }
+        }
+    }
+
+    private void run(Request request) {
+        long startTime = System.currentTimeMillis();
+        try {
+            request.task.run();
+        } catch (Throwable t) {
+            log.error("Error processing SignOfferRequest {}", request.requestId, t);
+        } finally {
+            onCompleted(request, startTime);
+        }
+    }
+
+    private synchronized void onCompleted(Request request, long startTime) {
+        long now = System.currentTimeMillis();
+        runningKeys.removeAll(request.keys);
+        pendingRequestIds.remove(request.requestId);
+        recentRequestIds.add(request.requestId);
+        numRunning--;
+        numProcessed++;
+        totalWaitMs += startTime - request.queuedAt;
+        totalProcessingMs += now - startTime;
+        maxLatencyMs = Math.max(maxLatencyMs, now - request.queuedAt);
+        log.info("Processed SignOfferRequest {} in {} ms after waiting {} ms, queueDepth={}, running={}",
+                request.requestId, now - startTime, startTime - request.queuedAt, queue.size(), numRunning);
+        dispatch();
+    }
+}
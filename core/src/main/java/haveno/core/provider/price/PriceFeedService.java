@@ -48,11 +48,8 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
@@ -73,6 +70,7 @@ public class PriceFeedService {
     private static final long PERIOD_SEC = 60;
 
     private final Map<String, MarketPrice> cache = new HashMap<>();
+    private final Map<String, TradeStatistics3> latestTradeStatisticsByCurrencyCode = new HashMap<>();
     private PriceProvider priceProvider;
     @Nullable
     private Consumer<Double> priceConsumer;
@@ -344,28 +342,34 @@ public class PriceFeedService {
         return new Date(epochInMillisAtLastRequest);
     }
 
+    /**
+     * Applies the price of the latest trade statistics of each currency and rebuilds the index of the latest trade
+     * statistics by currency. Only used at bootstrap, new trade statistics are applied with
+     * {@link #applyLatestHavenoMarketPrice(TradeStatistics3)}.
+     */
     public void applyLatestHavenoMarketPrice(Set<TradeStatistics3> tradeStatisticsSet) {
-        // takes about 10 ms for 5000 items
-        Map<String, List<TradeStatistics3>> mapByCurrencyCode = new HashMap<>();
-        tradeStatisticsSet.forEach(e -> {
-            List<TradeStatistics3> list;
-            String currencyCode = e.getCurrency();
-            if (mapByCurrencyCode.containsKey(currencyCode)) {
-                list = mapByCurrencyCode.get(currencyCode);
-            } else {
-                list = new ArrayList<>();
-                mapByCurrencyCode.put(currencyCode, list);
-            }
-            list.add(e);
-        });
+        Map<String, TradeStatistics3> latestByCurrencyCode = new HashMap<>();
+        tradeStatisticsSet.forEach(e -> latestByCurrencyCode.merge(e.getCurrency(), e, PriceFeedService::getLatest));
+        synchronized (latestTradeStatisticsByCurrencyCode) {
+            latestTradeStatisticsByCurrencyCode.clear();
+            latestTradeStatisticsByCurrencyCode.putAll(latestByCurrencyCode);
+        }
+        latestByCurrencyCode.values().forEach(e -> setHavenoMarketPrice(e.getCurrency(), e.getTradePrice()));
+    }
 
-        mapByCurrencyCode.values().stream()
-                .filter(list -> !list.isEmpty())
-                .forEach(list -> {
-                    list.sort(Comparator.comparing(TradeStatistics3::getDate));
-                    TradeStatistics3 tradeStatistics = list.get(list.size() - 1);
-                    setHavenoMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
-                });
+    /**
+     * Applies the price of the given trade statistics if it is the latest of its currency.
+     */
+    public void applyLatestHavenoMarketPrice(TradeStatistics3 tradeStatistics) {
+        synchronized (latestTradeStatisticsByCurrencyCode) {
+            TradeStatistics3 latest = latestTradeStatisticsByCurrencyCode.merge(tradeStatistics.getCurrency(), tradeStatistics, PriceFeedService::getLatest);
+            if (latest != tradeStatistics) return;
+        }
+        setHavenoMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
+    }
+
+    private static TradeStatistics3 getLatest(TradeStatistics3 tradeStatistics, TradeStatistics3 other) {
+        return other.getDateAsLong() > tradeStatistics.getDateAsLong() ? other : tradeStatistics;
     }
 
     /**
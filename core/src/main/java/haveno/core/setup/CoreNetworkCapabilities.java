@@ -39,7 +39,10 @@ public class CoreNetworkCapabilities {
                 Capability.REFUND_AGENT,
                 Capability.TRADE_STATISTICS_HASH_UPDATE,
                 Capability.NO_ADDRESS_PRE_FIX,
-                Capability.TRADE_STATISTICS_3
+                Capability.TRADE_STATISTICS_3,
+                Capability.GET_DATA_BLOOM_FILTER,
+                Capability.GET_DATA_CHUNKED,
+                Capability.REFRESH_OFFERS_BUNDLE
         );
 
         log.info(Capabilities.app.prettyPrint());
@@ -191,7 +191,7 @@ public abstract class SupportManager {
 
                 // ack message on chat message received when dispute is opened and closed
                 if (ackMessage.getSourceMsgClassName().equals(ChatMessage.class.getSimpleName())) {
-                    Trade trade = tradeManager.getTrade(ackMessage.getSourceId());
+                    Trade trade = tradeManager.getInitializedTrade(ackMessage.getSourceId());
                     for (Dispute dispute : trade.getDisputes()) {
                         for (ChatMessage chatMessage : dispute.getChatMessages()) {
                             if (chatMessage.getUid().equals(ackMessage.getSourceUid())) {
@@ -310,7 +310,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                                             FaultHandler faultHandler) {
 
         // get trade
-        Trade trade = tradeManager.getTrade(dispute.getTradeId());
+        Trade trade = tradeManager.getInitializedTrade(dispute.getTradeId());
         if (trade == null) {
             log.warn("Dispute trade {} does not exist", dispute.getTradeId());
             return;
@@ -449,6 +449,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         }
 
         ThreadUtils.execute(() -> {
+            tradeManager.awaitTradeInitialized(trade); // dormant trade is initialized off the user thread
             synchronized (trade) {
                 String errorMessage = null;
                 PubKeyRing senderPubKeyRing = null;
@@ -636,7 +637,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         }
 
         // get trade
-        Trade trade = tradeManager.getTrade(dispute.getTradeId());
+        Trade trade = tradeManager.getInitializedTrade(dispute.getTradeId());
         if (trade == null) {
             log.warn("Dispute trade {} does not exist", dispute.getTradeId());
             return;
@@ -716,7 +717,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         try {
 
             // get trade
-            Trade trade = tradeManager.getTrade(dispute.getTradeId());
+            Trade trade = tradeManager.getInitializedTrade(dispute.getTradeId());
             if (trade == null) throw new RuntimeException("Dispute trade " + dispute.getTradeId() + " does not exist");
 
             // persist result in dispute's chat message once
@@ -792,7 +793,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                             // We use the chatMessage wrapped inside the DisputeClosedMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeResult.getChatMessage().setStoredInMailbox(true);
-                            Trade trade = tradeManager.getTrade(dispute.getTradeId());
+                            Trade trade = tradeManager.getInitializedTrade(dispute.getTradeId());
                             trade.advanceDisputeState(Trade.DisputeState.ARBITRATOR_STORED_IN_MAILBOX_DISPUTE_CLOSED_MSG);
                             requestPersistence();
                             resultHandler.handleResult();
@@ -189,6 +189,7 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
 
         // try to process dispute closed message
         ThreadUtils.execute(() -> {
+            tradeManager.awaitTradeInitialized(trade); // dormant trade is initialized off the user thread
             ChatMessage chatMessage = null;
             Dispute dispute = null;
             synchronized (trade) {
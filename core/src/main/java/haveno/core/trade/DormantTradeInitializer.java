@@ -0,0 +1,111 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Initializes the dormant trades, which are not initialized at startup, on their first access. A trade is dormant if it
+ * is closed or failed and its payout is unlocked, so it has no wallet or protocol work left.
+ *
+ * Each trade is initialized once, by the first caller. Other callers wait until its initialization is done, so they
+ * never get a trade which is initialized halfway. After shut down started, trades which have not started to initialize
+ * are not initialized anymore.
+ */
+@Slf4j
+class DormantTradeInitializer {
+
+    private static class Initialization {
+        final Trade trade;
+        // Set by the caller which initializes the trade, or on shut down if the trade is not initialized
+        final AtomicBoolean isClaimed = new AtomicBoolean();
+        final CompletableFuture<Trade> future = new CompletableFuture<>();
+
+        Initialization(Trade trade) {
+            this.trade = trade;
+        }
+    }
+
+    private final Consumer<Trade> initializer;
+    // Initializations by trade uid which have not completed, or which were skipped on shut down
+    private final Map<String, Initialization> initializations = new ConcurrentHashMap<>();
+
+    DormantTradeInitializer(Consumer<Trade> initializer) {
+        this.initializer = initializer;
+    }
+
+    static boolean isDormant(Trade trade, boolean isOpenTrade) {
+        return !isOpenTrade && trade.isPayoutUnlocked();
+    }
+
+    void add(Trade trade) {
+        initializations.putIfAbsent(trade.getUid(), new Initialization(trade));
+    }
+
+    /**
+     * Initializes the trade on the calling thread if it has not started to initialize, or waits until its
+     * initialization is done. Returns right away if the trade is not a dormant trade or is initialized.
+     */
+    Trade init(Trade trade) {
+        Initialization initialization = getInitialization(trade);
+        if (initialization == null) return trade;
+        if (!initialization.isClaimed.compareAndSet(false, true)) return initialization.future.join();
+        try {
+            initializer.accept(trade);
+        } catch (Exception e) {
+            log.warn("Error initializing dormant {} {}: {}", trade.getClass().getSimpleName(), trade.getId(), e.getMessage());
+        } finally {
+            initializations.remove(trade.getUid(), initialization);
+            initialization.future.complete(trade);
+        }
+        return trade;
+    }
+
+    /**
+     * Returns true if the trade is a dormant trade whose initialization has not completed.
+     */
+    boolean isUninitialized(Trade trade) {
+        return getInitialization(trade) != null;
+    }
+
+    /**
+     * Skips the trades which have not started to initialize and waits until the trades which are initializing are
+     * done. Afterwards the trades which are uninitialized are the skipped trades.
+     */
+    void shutDown() {
+        List<CompletableFuture<Trade>> futures = new ArrayList<>();
+        for (Initialization initialization : initializations.values()) {
+            if (initialization.isClaimed.compareAndSet(false, true)) initialization.future.complete(initialization.trade);
+            else futures.add(initialization.future);
+        }
+        futures.forEach(CompletableFuture::join);
+    }
+
+    private Initialization getInitialization(Trade trade) {
+        Initialization initialization = initializations.get(trade.getUid());
+        return initialization != null && initialization.trade == trade ? initialization : null;
+    }
+}
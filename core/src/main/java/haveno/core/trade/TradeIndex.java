@@ -0,0 +1,91 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the trades of an observable tradable list by trade id and uid, so lookups do not need to scan the list
+ * under its lock.
+ *
+ * The index is updated by a change listener of the list, so it is in sync with all mutations of the list including
+ * setAll when the persisted list gets read. Other tradables (e.g. closed open offers) are ignored. If the list contains
+ * multiple trades with the same id, the index keeps the one added first like a scan of the list would find it.
+ */
+class TradeIndex {
+    private final Map<String, Trade> tradesById = new ConcurrentHashMap<>();
+    private final Map<String, Trade> tradesByUid = new ConcurrentHashMap<>();
+
+    <T extends Tradable> TradeIndex(ObservableList<T> list) {
+        list.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    change.getRemoved().forEach(tradable -> remove(tradable, change.getList()));
+                }
+                if (change.wasAdded()) {
+                    change.getAddedSubList().forEach(this::add);
+                }
+            }
+        });
+        list.forEach(this::add);
+    }
+
+    @Nullable
+    Trade getTradeById(String tradeId) {
+        return tradesById.get(tradeId);
+    }
+
+    @Nullable
+    Trade getTradeByUid(String tradeUid) {
+        return tradesByUid.get(tradeUid);
+    }
+
+    int size() {
+        return tradesById.size();
+    }
+
+    private void add(Tradable tradable) {
+        if (!(tradable instanceof Trade)) return;
+        Trade trade = (Trade) tradable;
+        tradesById.putIfAbsent(trade.getId(), trade);
+        if (trade.getUid() != null) tradesByUid.putIfAbsent(trade.getUid(), trade);
+    }
+
+    private void remove(Tradable tradable, List<? extends Tradable> list) {
+        if (!(tradable instanceof Trade)) return;
+        Trade trade = (Trade) tradable;
+        boolean removedById = tradesById.remove(trade.getId(), trade);
+        boolean removedByUid = trade.getUid() != null && tradesByUid.remove(trade.getUid(), trade);
+
+        // Fall back to another trade with the same id or uid which is still in the list
+        if (removedById || removedByUid) {
+            for (Tradable remaining : list) {
+                if (!(remaining instanceof Trade)) continue;
+                Trade remainingTrade = (Trade) remaining;
+                if (removedById && remainingTrade.getId().equals(trade.getId())) add(remainingTrade);
+                if (removedByUid && trade.getUid().equals(remainingTrade.getUid())) add(remainingTrade);
+            }
+        }
+    }
+}
@@ -109,14 +109,15 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -153,9 +154,18 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private final ProcessModelServiceProvider processModelServiceProvider;
     private final ClockWatcher clockWatcher;
 
+    private static final int NUM_ACTIVE_TRADE_INIT_THREADS = 10;
+
     private final Map<String, TradeProtocol> tradeProtocolByTradeId = new HashMap<>();
     private final PersistenceManager<TradableList<Trade>> persistenceManager;
     private final TradableList<Trade> tradableList = new TradableList<>();
+    private final TradeIndex openTradeIndex = new TradeIndex(tradableList.getObservableList());
+    // Closed and failed trades which have not been initialized yet
+    private final DormantTradeInitializer dormantTradeInitializer = new DormantTradeInitializer(this::initPersistedTradeSafely);
+    private final Map<String, Long> startupPhaseDurationsMs = new LinkedHashMap<>();
+    private final TradePeriodScheduler tradePeriodScheduler = new TradePeriodScheduler(tradableList.getObservableList());
+    private final TradeIndex closedTradeIndex;
+    private final TradeIndex failedTradeIndex;
     @Getter
     private final BooleanProperty persistedTradesInitialized = new SimpleBooleanProperty();
     @Getter
@@ -233,6 +243,8 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         this.clockWatcher = clockWatcher;
         this.referralIdService = referralIdService;
         this.persistenceManager = persistenceManager;
+        closedTradeIndex = new TradeIndex(closedTradableManager.getObservableList());
+        failedTradeIndex = new TradeIndex(failedTradesManager.getObservableList());
 
         this.persistenceManager.initialize(tradableList, "PendingTrades", PersistenceManager.Source.PRIVATE);
 
@@ -336,8 +348,12 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         log.info("{}.onShutDownStarted()", getClass().getSimpleName());
         isShutDownStarted = true;
 
-        // collect trades to prepare
+        // wait for dormant trades which are initializing
+        dormantTradeInitializer.shutDown();
+
+        // collect trades to prepare, dormant trades which have not been initialized have nothing to prepare
         List<Trade> trades = getAllTrades();
+        trades.removeIf(this::isUninitializedDormantTrade);
 
         // prepare to shut down trades in parallel
         Set<Runnable> tasks = new HashSet<Runnable>();
@@ -366,8 +382,9 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     private void closeAllTrades() {
 
-        // collect trades to shutdown
+        // collect trades to shutdown, dormant trades which have not been initialized have no wallet or threads
         List<Trade> trades = getAllTrades();
+        trades.removeIf(this::isUninitializedDormantTrade);
 
         // shut down trades in parallel
         Set<Runnable> tasks = new HashSet<Runnable>();
@@ -412,52 +429,48 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
         // initialize off main thread
         new Thread(() -> {
+            long startTime = System.currentTimeMillis();
+
+            // collect active and dormant (closed or failed with unlocked payout) trades, skipping duplicate uids
+            Set<String> uids = new HashSet<String>();
+            List<Trade> activeTrades = new ArrayList<Trade>();
+            List<Trade> dormantTrades = new ArrayList<Trade>();
+            for (Trade trade : getAllTrades()) {
+                if (!uids.add(trade.getUid())) {
+                    log.warn("Found trade with duplicate uid, skipping. That should never happen. {} {}, uid={}", trade.getClass().getSimpleName(), trade.getId(), trade.getUid());
+                    continue;
+                }
+                boolean isOpenTrade = getOpenTradeByUid(trade.getUid()).orElse(null) == trade;
+                if (DormantTradeInitializer.isDormant(trade, isOpenTrade)) dormantTrades.add(trade);
+                else activeTrades.add(trade);
+            }
 
-            // get all trades
-            List<Trade> trades = getAllTrades();
+            // dormant trades only get initialized when they are awaited
+            for (Trade trade : dormantTrades) {
+                if (getTradeProtocol(trade) == null) dormantTradeInitializer.add(trade);
+            }
 
-            // initialize trades in parallel
-            int threadPoolSize = 10;
+            // initialize active trades in parallel
+            Set<Trade> tradesToMaybeRemoveOnError = ConcurrentHashMap.newKeySet();
             Set<Runnable> tasks = new HashSet<Runnable>();
-            Set<String> uids = new HashSet<String>();
-            Set<Trade> tradesToSkip = new HashSet<Trade>();
-            Set<Trade> tradesToMaybeRemoveOnError = new HashSet<Trade>();
-            for (Trade trade : trades) {
+            for (Trade trade : activeTrades) {
                 tasks.add(() -> {
-                    try {
-                        
-                        // check for duplicate uid
-                        if (!uids.add(trade.getUid())) {
-                            log.warn("Found trade with duplicate uid, skipping. That should never happen. {} {}, uid={}", trade.getClass().getSimpleName(), trade.getId(), trade.getUid());
-                            tradesToSkip.add(trade);
-                            return;
-                        }
-
-                        // initialize trade
-                        initPersistedTrade(trade);
+                    if (!initPersistedTradeSafely(trade)) return;
 
-                        // remove trade if protocol didn't initialize
-                        if (getOpenTradeByUid(trade.getUid()).isPresent() && !trade.isDepositsPublished()) {
-                            tradesToMaybeRemoveOnError.add(trade);
-                        }
-                    } catch (Exception e) {
-                        if (!isShutDownStarted) {
-                            e.printStackTrace();
-                            log.warn("Error initializing {} {}: {}", trade.getClass().getSimpleName(), trade.getId(), e.getMessage());
-                            trade.setInitError(e);
-                        }
+                    // remove trade if protocol didn't initialize
+                    if (getOpenTradeByUid(trade.getUid()).isPresent() && !trade.isDepositsPublished()) {
+                        tradesToMaybeRemoveOnError.add(trade);
                     }
                 });
-            };
-            ThreadUtils.awaitTasks(tasks, threadPoolSize);
-            log.info("Done initializing persisted trades");
+            }
+            ThreadUtils.awaitTasks(tasks, NUM_ACTIVE_TRADE_INIT_THREADS);
+            long activeTradesInitializedTime = System.currentTimeMillis();
+            setStartupPhaseDuration("activeTrades", activeTradesInitializedTime - startTime);
+            log.info("Done initializing {} active trades in {} ms, {} dormant trades are initialized on demand", activeTrades.size(), activeTradesInitializedTime - startTime, dormantTrades.size());
             if (isShutDownStarted) return;
 
-            // remove skipped trades
-            trades.removeAll(tradesToSkip);
-
             // sync idle trades once in background after active trades
-            for (Trade trade : trades) {
+            for (Trade trade : activeTrades) {
                 if (trade.isIdling()) ThreadUtils.submitToPool(() -> trade.syncAndPollWallet());
             }
     
@@ -481,6 +494,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                             xmrWalletService.swapAddressEntryToAvailable(addressEntry.getOfferId(), addressEntry.getContext());
                         });
             }
+            setStartupPhaseDuration("walletCleanup", System.currentTimeMillis() - activeTradesInitializedTime);
 
             // notify that persisted trades initialized
             if (isShutDownStarted) return;
@@ -501,6 +515,39 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         GenUtils.waitFor(100);
     }
 
+    private boolean isUninitializedDormantTrade(Trade trade) {
+        return dormantTradeInitializer.isUninitialized(trade);
+    }
+
+    private boolean initPersistedTradeSafely(Trade trade) {
+        try {
+            initPersistedTrade(trade);
+            return true;
+        } catch (Exception e) {
+            if (!isShutDownStarted) {
+                e.printStackTrace();
+                log.warn("Error initializing {} {}: {}", trade.getClass().getSimpleName(), trade.getId(), e.getMessage());
+                trade.setInitError(e);
+            }
+            return false;
+        }
+    }
+
+    private void setStartupPhaseDuration(String phase, long durationMs) {
+        synchronized (startupPhaseDurationsMs) {
+            startupPhaseDurationsMs.put(phase, durationMs);
+        }
+    }
+
+    /**
+     * Returns the durations of the startup phases of the trade initialization which have completed, in order.
+     */
+    public Map<String, Long> getStartupPhaseDurationsMs() {
+        synchronized (startupPhaseDurationsMs) {
+            return new LinkedHashMap<>(startupPhaseDurationsMs);
+        }
+    }
+
     private void initPersistedTrade(Trade trade) {
         if (isShutDown) return;
         if (getTradeProtocol(trade) != null) return;
@@ -540,12 +587,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         }
 
         // get offer associated with trade
-        Offer offer = null;
-        for (Offer anOffer : offerBookService.getOffers()) {
-            if (anOffer.getId().equals(request.getTradeId())) {
-                offer = anOffer;
-            }
-        }
+        Offer offer = offerBookService.getOffer(request.getTradeId());
         if (offer == null) {
             log.warn("Ignoring InitTradeRequest from {} with tradeId {} because offer is not on the books", sender, request.getTradeId());
             return;
@@ -972,6 +1014,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void applyTradePeriodState() {
+        tradePeriodScheduler.start();
         updateTradePeriodState();
         clockWatcher.addListener(new ClockWatcher.Listener() {
             @Override
@@ -987,21 +1030,8 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     private void updateTradePeriodState() {
         if (isShutDownStarted) return;
-        for (Trade trade : new ArrayList<Trade>(tradableList.getList())) {
-            if (!trade.isPayoutPublished()) {
-                Date maxTradePeriodDate = trade.getMaxTradePeriodDate();
-                Date halfTradePeriodDate = trade.getHalfTradePeriodDate();
-                if (maxTradePeriodDate != null && halfTradePeriodDate != null) {
-                    Date now = new Date();
-                    if (now.after(maxTradePeriodDate)) {
-                        trade.setPeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
-                        requestPersistence();
-                    } else if (now.after(halfTradePeriodDate)) {
-                        trade.setPeriodState(Trade.TradePeriodState.SECOND_HALF);
-                        requestPersistence();
-                    }
-                }
-            }
+        if (tradePeriodScheduler.onTick(System.currentTimeMillis())) {
+            requestPersistence();
         }
     }
 
@@ -1091,6 +1121,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
             return false;
         }
 
+        dormantTradeInitializer.init(trade);
         initPersistedTrade(trade);
 
         UserThread.execute(() -> {
@@ -1180,7 +1211,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     public boolean wasOfferAlreadyUsedInTrade(String offerId) {
         return getOpenTrade(offerId).isPresent() ||
-                failedTradesManager.getTradeById(offerId).isPresent() ||
+                getFailedTrade(offerId).isPresent() ||
                 closedTradableManager.getTradableById(offerId).isPresent();
     }
 
@@ -1193,25 +1224,42 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     }
 
     // TODO (woodser): make Optional<Trade> versus Trade return types consistent
+    // closed and failed trades might not be initialized yet, see awaitTradeInitialized()
     public Trade getTrade(String tradeId) {
-        return getOpenTrade(tradeId).orElseGet(() -> getClosedTrade(tradeId).orElseGet(() -> getFailedTrade(tradeId).orElseGet(() -> null)));
+        Trade trade = openTradeIndex.getTradeById(tradeId);
+        if (trade == null) trade = closedTradeIndex.getTradeById(tradeId);
+        if (trade == null) trade = failedTradeIndex.getTradeById(tradeId);
+        return trade;
+    }
+
+    /**
+     * Returns the trade once it is initialized. A dormant trade (closed or failed with unlocked payout) is initialized
+     * on its first access, on the calling thread, and other callers wait until it is done. Initializing a dormant
+     * trade only cleans it up, but callers which do not need an initialized trade should use getTrade().
+     */
+    public Trade awaitTradeInitialized(Trade trade) {
+        return dormantTradeInitializer.init(trade);
+    }
+
+    /**
+     * Returns the trade with the given id once it is initialized, or null if it does not exist.
+     */
+    public Trade getInitializedTrade(String tradeId) {
+        Trade trade = getTrade(tradeId);
+        return trade == null ? null : awaitTradeInitialized(trade);
     }
 
     public Optional<Trade> getOpenTrade(String tradeId) {
-        synchronized (tradableList) {
-            return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
-        }
+        return Optional.ofNullable(openTradeIndex.getTradeById(tradeId));
     }
 
     public Optional<Trade> getOpenTradeByUid(String tradeUid) {
-        synchronized (tradableList) {
-            return tradableList.stream().filter(e -> e.getUid().equals(tradeUid)).findFirst();
-        }
+        return Optional.ofNullable(openTradeIndex.getTradeByUid(tradeUid));
     }
 
     public List<Trade> getAllTrades() {
         synchronized (tradableList) {
-            List<Trade> trades = new ArrayList<Trade>();
+            List<Trade> trades = new ArrayList<Trade>(tradableList.size() + closedTradeIndex.size() + failedTradeIndex.size());
             trades.addAll(tradableList.getList());
             trades.addAll(closedTradableManager.getClosedTrades());
             trades.addAll(failedTradesManager.getObservableList());
@@ -1233,11 +1281,11 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     }
 
     public Optional<Trade> getClosedTrade(String tradeId) {
-        return closedTradableManager.getClosedTrades().stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return Optional.ofNullable(closedTradeIndex.getTradeById(tradeId));
     }
     
     public Optional<Trade> getFailedTrade(String tradeId) {
-        return failedTradesManager.getTradeById(tradeId);
+        return Optional.ofNullable(failedTradeIndex.getTradeById(tradeId));
     }
 
     private void addTrade(Trade trade) {
@@ -0,0 +1,198 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Schedules the trade period state transitions of the trades of an observable list at their half and max trade
+ * period deadlines.
+ *
+ * The deadlines of a trade are known once its deposits are unlocked, so a trade is marked as pending when it is added
+ * or its state changes, and pending trades get scheduled at the next tick. The deadlines are computed outside of the
+ * scheduler's lock, as this can require a call to the daemon. The deadlines are kept in a priority queue, so a tick
+ * only looks at the deadlines which are due instead of all trades, and each transition is applied once.
+ */
+@Slf4j
+class TradePeriodScheduler {
+
+    private static class Deadline {
+        final Trade trade;
+        final long time;
+        final Trade.TradePeriodState periodState;
+        boolean isCancelled;
+
+        Deadline(Trade trade, long time, Trade.TradePeriodState periodState) {
+            this.trade = trade;
+            this.time = time;
+            this.periodState = periodState;
+        }
+    }
+
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(Comparator.comparingLong(deadline -> deadline.time));
+    // Trades which have been scheduled, with their pending deadlines
+    private final Map<Trade, List<Deadline>> deadlinesByTrade = new IdentityHashMap<>();
+    private final Map<Trade, ChangeListener<Trade.State>> stateListeners = new IdentityHashMap<>();
+    // Trades which get scheduled at the next tick, including trades whose deadlines could not be computed
+    private final Set<Trade> pendingTrades = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean isStarted;
+
+    TradePeriodScheduler(ObservableList<Trade> trades) {
+        trades.addListener((ListChangeListener<Trade>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    change.getRemoved().forEach(this::remove);
+                }
+                if (change.wasAdded()) {
+                    change.getAddedSubList().forEach(this::add);
+                }
+            }
+        });
+        trades.forEach(this::add);
+    }
+
+    /**
+     * Schedules the tracked trades from the next tick on. Trades do not get scheduled before, so their deadlines are
+     * not computed while the persisted trades are read.
+     */
+    synchronized void start() {
+        isStarted = true;
+    }
+
+    /**
+     * Schedules the pending trades and applies the trade period states of all deadlines which have passed.
+     *
+     * @return true if the trade period state of a trade has changed
+     */
+    boolean onTick(long now) {
+        schedulePendingTrades();
+
+        // Only the latest state of a trade gets applied, e.g. if both deadlines have passed while we were offline
+        Map<Trade, Trade.TradePeriodState> dueStates = new IdentityHashMap<>();
+        synchronized (this) {
+            while (!deadlines.isEmpty() && deadlines.peek().time < now) {
+                Deadline deadline = deadlines.poll();
+                if (deadline.isCancelled) continue;
+                deadlinesByTrade.get(deadline.trade).remove(deadline);
+                dueStates.merge(deadline.trade, deadline.periodState,
+                        (state1, state2) -> state1.ordinal() >= state2.ordinal() ? state1 : state2);
+            }
+        }
+
+        boolean isChanged = false;
+        for (Map.Entry<Trade, Trade.TradePeriodState> entry : dueStates.entrySet()) {
+            Trade trade = entry.getKey();
+            if (!trade.isPayoutPublished() && entry.getValue().ordinal() > trade.getPeriodState().ordinal()) {
+                trade.setPeriodState(entry.getValue());
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    synchronized int getNumDeadlines() {
+        return (int) deadlines.stream().filter(deadline -> !deadline.isCancelled).count();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void add(Trade trade) {
+        if (stateListeners.containsKey(trade)) return;
+        ChangeListener<Trade.State> stateListener = (observable, oldValue, newValue) -> markPending(trade);
+        stateListeners.put(trade, stateListener);
+        trade.stateProperty().addListener(stateListener);
+        pendingTrades.add(trade);
+    }
+
+    private synchronized void remove(Trade trade) {
+        ChangeListener<Trade.State> stateListener = stateListeners.remove(trade);
+        if (stateListener == null) return;
+        trade.stateProperty().removeListener(stateListener);
+        pendingTrades.remove(trade);
+        List<Deadline> tradeDeadlines = deadlinesByTrade.remove(trade);
+        if (tradeDeadlines != null) tradeDeadlines.forEach(deadline -> deadline.isCancelled = true);
+    }
+
+    private synchronized void markPending(Trade trade) {
+        if (stateListeners.containsKey(trade) && !deadlinesByTrade.containsKey(trade)) pendingTrades.add(trade);
+    }
+
+    private void schedulePendingTrades() {
+        List<Trade> trades;
+        synchronized (this) {
+            if (!isStarted || pendingTrades.isEmpty()) return;
+            trades = new ArrayList<>(pendingTrades);
+            pendingTrades.clear();
+        }
+        for (Trade trade : trades) {
+            List<Deadline> tradeDeadlines = getDeadlines(trade);
+            synchronized (this) {
+                if (!stateListeners.containsKey(trade) || deadlinesByTrade.containsKey(trade)) continue;
+                if (tradeDeadlines == null) {
+                    pendingTrades.add(trade);
+                } else if (!tradeDeadlines.isEmpty()) {
+                    deadlinesByTrade.put(trade, tradeDeadlines);
+                    deadlines.addAll(tradeDeadlines);
+                }
+            }
+        }
+    }
+
+    // Returns the deadlines of the trade, an empty list if the trade is not scheduled yet or null to retry at the
+    // next tick
+    private List<Deadline> getDeadlines(Trade trade) {
+        // The trade period starts counting when the deposits are unlocked, before the deadlines move with the time
+        if (!trade.isDepositsUnlocked() || trade.getTakeOfferDate() == null || trade.isPayoutPublished()) {
+            return Collections.emptyList();
+        }
+
+        long halfTradePeriodTime;
+        long maxTradePeriodTime;
+        try {
+            halfTradePeriodTime = trade.getHalfTradePeriodDate().getTime();
+            maxTradePeriodTime = trade.getMaxTradePeriodDate().getTime();
+        } catch (Exception e) {
+            log.warn("Could not get trade period of trade {}, retrying at the next tick: {}", trade.getId(), e.getMessage());
+            return null;
+        }
+
+        List<Deadline> tradeDeadlines = new ArrayList<>();
+        if (trade.getPeriodState().ordinal() < Trade.TradePeriodState.SECOND_HALF.ordinal()) {
+            tradeDeadlines.add(new Deadline(trade, halfTradePeriodTime, Trade.TradePeriodState.SECOND_HALF));
+        }
+        if (trade.getPeriodState().ordinal() < Trade.TradePeriodState.TRADE_PERIOD_OVER.ordinal()) {
+            tradeDeadlines.add(new Deadline(trade, maxTradePeriodTime, Trade.TradePeriodState.TRADE_PERIOD_OVER));
+        }
+        return tradeDeadlines;
+    }
+}
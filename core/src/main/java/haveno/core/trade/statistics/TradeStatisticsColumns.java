@@ -0,0 +1,356 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade.statistics;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Columnar in-memory index of the trade statistics. The date, price and amount of the trade statistics are held in
+ * primitive arrays partitioned by currency and sorted by date, so time range queries are a binary search followed by
+ * a sequential scan over the primitive columns. Currency codes are interned to a currency index.
+ *
+ * Only the hash of each trade statistics object is kept, a reference to the hash array of the payload. Queries which
+ * return trade statistics objects resolve them by hash from the storage, rows which cannot be resolved are skipped.
+ *
+ * This is a query index, not a replacement of the trade statistics objects: the storage keeps retaining them for the
+ * P2P network, so the index costs about 32 bytes per row on top of them in exchange for queries without a full scan.
+ *
+ * Date ranges are given in epoch milliseconds with an inclusive start and an exclusive end.
+ */
+public class TradeStatisticsColumns {
+
+    public interface Visitor {
+        void accept(long date, long price, long amount);
+    }
+
+    public interface CurrencyVisitor {
+        void accept(int currencyIndex, long date, long price, long amount);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Function<byte[], TradeStatistics3> resolver;
+    private final Map<String, Integer> currencyIndexByCode = new HashMap<>();
+    private final List<String> currencyCodes = new ArrayList<>();
+    private final List<Partition> partitions = new ArrayList<>();
+    private int size;
+
+    /**
+     * @param resolver returns the trade statistics object for the given hash or null if it is unknown
+     */
+    public TradeStatisticsColumns(Function<byte[], TradeStatistics3> resolver) {
+        this.resolver = resolver;
+    }
+
+    public synchronized void add(TradeStatistics3 tradeStatistics) {
+        getOrCreatePartition(tradeStatistics.getCurrency()).add(tradeStatistics);
+        size++;
+    }
+
+    /**
+     * Adds all trade statistics. Each partition gets sorted once instead of inserting one by one.
+     */
+    public synchronized void addAll(Collection<TradeStatistics3> tradeStatisticsCollection) {
+        Map<Partition, List<TradeStatistics3>> byPartition = new HashMap<>();
+        tradeStatisticsCollection.forEach(e -> byPartition.computeIfAbsent(getOrCreatePartition(e.getCurrency()),
+                partition -> new ArrayList<>()).add(e));
+        byPartition.forEach(Partition::addAll);
+        size += tradeStatisticsCollection.size();
+    }
+
+    public synchronized void clear() {
+        currencyIndexByCode.clear();
+        currencyCodes.clear();
+        partitions.clear();
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the currency index of the given currency code or -1 if there are no trade statistics for it.
+     */
+    public synchronized int getCurrencyIndex(String currencyCode) {
+        return currencyIndexByCode.getOrDefault(currencyCode, -1);
+    }
+
+    public synchronized String getCurrencyCode(int currencyIndex) {
+        return currencyCodes.get(currencyIndex);
+    }
+
+    public synchronized List<String> getCurrencyCodes() {
+        return new ArrayList<>(currencyCodes);
+    }
+
+    public synchronized int getCount(String currencyCode, long fromDate, long toDate) {
+        Partition partition = getPartition(currencyCode);
+        return partition == null ? 0 : Math.max(0, partition.lowerBound(toDate) - partition.lowerBound(fromDate));
+    }
+
+    /**
+     * Returns the date of the latest trade statistics of the given currency or 0 if there is none.
+     */
+    public synchronized long getLatestDate(String currencyCode) {
+        Partition partition = getPartition(currencyCode);
+        return partition == null || partition.size == 0 ? 0 : partition.dates[partition.size - 1];
+    }
+
+    /**
+     * Visits the trade statistics of the given currency in the date range in ascending order of the date.
+     */
+    public synchronized void scan(String currencyCode, long fromDate, long toDate, Visitor visitor) {
+        Partition partition = getPartition(currencyCode);
+        if (partition == null) {
+            return;
+        }
+        for (int i = partition.lowerBound(fromDate), end = partition.lowerBound(toDate); i < end; i++) {
+            visitor.accept(partition.dates[i], partition.prices[i], partition.amounts[i]);
+        }
+    }
+
+    /**
+     * Visits the trade statistics of all currencies in the date range. The trade statistics are visited per currency
+     * in ascending order of the date.
+     */
+    public synchronized void scan(long fromDate, long toDate, CurrencyVisitor visitor) {
+        for (int currencyIndex = 0; currencyIndex < partitions.size(); currencyIndex++) {
+            Partition partition = partitions.get(currencyIndex);
+            for (int i = partition.lowerBound(fromDate), end = partition.lowerBound(toDate); i < end; i++) {
+                visitor.accept(currencyIndex, partition.dates[i], partition.prices[i], partition.amounts[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the trade statistics of the given currency in the date range in ascending order of the date.
+     */
+    public List<TradeStatistics3> getTradeStatistics(String currencyCode, long fromDate, long toDate) {
+        List<byte[]> hashes = new ArrayList<>();
+        synchronized (this) {
+            Partition partition = getPartition(currencyCode);
+            if (partition != null) {
+                for (int i = partition.lowerBound(fromDate), end = partition.lowerBound(toDate); i < end; i++) {
+                    hashes.add(partition.hashes[i]);
+                }
+            }
+        }
+        return resolve(hashes);
+    }
+
+    /**
+     * Returns up to maxItems trade statistics in the date range in ascending order of the date, skipping the first
+     * offset ones. If currencyCode is null the trade statistics of all currencies are merged by date, with ties ordered
+     * by currency index.
+     */
+    public List<TradeStatistics3> getTradeStatistics(@Nullable String currencyCode,
+                                                     long fromDate,
+                                                     long toDate,
+                                                     int offset,
+                                                     int maxItems) {
+        checkArgument(offset >= 0, "offset must not be negative");
+        checkArgument(maxItems >= 0, "maxItems must not be negative");
+        List<byte[]> hashes;
+        synchronized (this) {
+            hashes = getHashes(currencyCode, fromDate, toDate, offset, maxItems);
+        }
+        return resolve(hashes);
+    }
+
+    private List<byte[]> getHashes(@Nullable String currencyCode, long fromDate, long toDate, int offset, int maxItems) {
+        List<byte[]> result = new ArrayList<>();
+        if (currencyCode != null) {
+            Partition partition = getPartition(currencyCode);
+            if (partition == null) {
+                return result;
+            }
+            long from = (long) partition.lowerBound(fromDate) + offset;
+            long to = Math.min(partition.lowerBound(toDate), from + maxItems);
+            for (long i = from; i < to; i++) {
+                result.add(partition.hashes[(int) i]);
+            }
+            return result;
+        }
+
+        // Merge the partitions by date. A cursor is the currency index and the position in its partition.
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Comparator
+                .<int[]>comparingLong(cursor -> partitions.get(cursor[0]).dates[cursor[1]])
+                .thenComparingInt(cursor -> cursor[0]));
+        int[] ends = new int[partitions.size()];
+        for (int currencyIndex = 0; currencyIndex < partitions.size(); currencyIndex++) {
+            Partition partition = partitions.get(currencyIndex);
+            int from = partition.lowerBound(fromDate);
+            ends[currencyIndex] = partition.lowerBound(toDate);
+            if (from < ends[currencyIndex]) {
+                cursors.add(new int[]{currencyIndex, from});
+            }
+        }
+        int numSkipped = 0;
+        while (!cursors.isEmpty() && result.size() < maxItems) {
+            int[] cursor = cursors.poll();
+            if (numSkipped < offset) {
+                numSkipped++;
+            } else {
+                result.add(partitions.get(cursor[0]).hashes[cursor[1]]);
+            }
+            if (++cursor[1] < ends[cursor[0]]) {
+                cursors.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private List<TradeStatistics3> resolve(List<byte[]> hashes) {
+        List<TradeStatistics3> result = new ArrayList<>(hashes.size());
+        for (byte[] hash : hashes) {
+            TradeStatistics3 tradeStatistics = resolver.apply(hash);
+            if (tradeStatistics != null) {
+                result.add(tradeStatistics);
+            }
+        }
+        return result;
+    }
+
+    private Partition getPartition(String currencyCode) {
+        Integer currencyIndex = currencyIndexByCode.get(currencyCode);
+        return currencyIndex == null ? null : partitions.get(currencyIndex);
+    }
+
+    private Partition getOrCreatePartition(String currencyCode) {
+        Integer currencyIndex = currencyIndexByCode.get(currencyCode);
+        if (currencyIndex == null) {
+            currencyIndex = currencyCodes.size();
+            currencyIndexByCode.put(currencyCode, currencyIndex);
+            currencyCodes.add(currencyCode);
+            partitions.add(new Partition());
+        }
+        return partitions.get(currencyIndex);
+    }
+
+    private static class Partition {
+        private long[] dates = new long[INITIAL_CAPACITY];
+        private long[] prices = new long[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        // The hash arrays of the payloads, used to resolve the trade statistics of a range from the storage
+        private byte[][] hashes = new byte[INITIAL_CAPACITY][];
+        private int size;
+
+        void add(TradeStatistics3 item) {
+            ensureCapacity(size + 1);
+            // Trade statistics arrive mostly in order of their date, so this is usually an append
+            int index = upperBound(item.getDateAsLong());
+            int numToMove = size - index;
+            if (numToMove > 0) {
+                System.arraycopy(dates, index, dates, index + 1, numToMove);
+                System.arraycopy(prices, index, prices, index + 1, numToMove);
+                System.arraycopy(amounts, index, amounts, index + 1, numToMove);
+                System.arraycopy(hashes, index, hashes, index + 1, numToMove);
+            }
+            set(index, item);
+            size++;
+        }
+
+        void addAll(List<TradeStatistics3> items) {
+            ensureCapacity(size + items.size());
+            for (TradeStatistics3 item : items) {
+                set(size++, item);
+            }
+
+            // Stable sort of the row indices by date, then the columns get reordered accordingly
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> dates[i]));
+            long[] sortedDates = new long[dates.length];
+            long[] sortedPrices = new long[prices.length];
+            long[] sortedAmounts = new long[amounts.length];
+            byte[][] sortedHashes = new byte[hashes.length][];
+            for (int i = 0; i < size; i++) {
+                sortedDates[i] = dates[order[i]];
+                sortedPrices[i] = prices[order[i]];
+                sortedAmounts[i] = amounts[order[i]];
+                sortedHashes[i] = hashes[order[i]];
+            }
+            dates = sortedDates;
+            prices = sortedPrices;
+            amounts = sortedAmounts;
+            hashes = sortedHashes;
+        }
+
+        // Index of the first element with a date >= the given date
+        int lowerBound(long date) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dates[mid] < date) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Index of the first element with a date > the given date
+        private int upperBound(long date) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dates[mid] <= date) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void set(int index, TradeStatistics3 item) {
+            dates[index] = item.getDateAsLong();
+            prices[index] = item.getPrice();
+            amounts[index] = item.getAmount();
+            hashes[index] = item.getHash();
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= dates.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, dates.length * 2);
+            dates = Arrays.copyOf(dates, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            amounts = Arrays.copyOf(amounts, newCapacity);
+            hashes = Arrays.copyOf(hashes, newCapacity);
+        }
+    }
+}
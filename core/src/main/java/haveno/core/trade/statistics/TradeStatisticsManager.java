@@ -29,6 +29,7 @@ import haveno.core.trade.Trade;
 import haveno.core.util.JsonUtil;
 import haveno.network.p2p.P2PService;
 import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -54,6 +55,8 @@ public class TradeStatisticsManager {
     private final File storageDir;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics3> observableTradeStatisticsSet = FXCollections.observableSet();
+    // Query index over the trade statistics, the objects themselves are retained by the storage and the set above
+    private final TradeStatisticsColumns tradeStatisticsColumns;
     private JsonFileManager jsonFileManager;
 
     @Inject
@@ -68,6 +71,7 @@ public class TradeStatisticsManager {
         this.tradeStatistics3StorageService = tradeStatistics3StorageService;
         this.storageDir = storageDir;
         this.dumpStatistics = dumpStatistics;
+        tradeStatisticsColumns = new TradeStatisticsColumns(this::getTradeStatisticsByHash);
 
 
         appendOnlyDataStoreService.addService(tradeStatistics3StorageService);
@@ -87,8 +91,10 @@ public class TradeStatisticsManager {
                     return;
                 }
                 synchronized (observableTradeStatisticsSet) {
-                    observableTradeStatisticsSet.add(tradeStatistics);
-                    priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsSet);
+                    if (observableTradeStatisticsSet.add(tradeStatistics)) {
+                        tradeStatisticsColumns.add(tradeStatistics);
+                        priceFeedService.applyLatestHavenoMarketPrice(tradeStatistics);
+                    }
                 }
                 maybeDumpStatistics();
             }
@@ -101,6 +107,8 @@ public class TradeStatisticsManager {
                 .collect(Collectors.toSet());
         synchronized (observableTradeStatisticsSet) {
             observableTradeStatisticsSet.addAll(set);
+            tradeStatisticsColumns.clear();
+            tradeStatisticsColumns.addAll(observableTradeStatisticsSet);
             priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsSet);
         }
         maybeDumpStatistics();
@@ -110,6 +118,44 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    /**
+     * Visits the trade statistics of the given currency in the date range [fromDate, toDate) in ascending order of
+     * the date.
+     */
+    public void scanTradeStatistics(String currencyCode, long fromDate, long toDate, TradeStatisticsColumns.Visitor visitor) {
+        tradeStatisticsColumns.scan(currencyCode, fromDate, toDate, visitor);
+    }
+
+    /**
+     * Returns the trade statistics of the given currency in the date range [fromDate, toDate) in ascending order of
+     * the date.
+     */
+    public List<TradeStatistics3> getTradeStatistics(String currencyCode, long fromDate, long toDate) {
+        return tradeStatisticsColumns.getTradeStatistics(currencyCode, fromDate, toDate);
+    }
+
+    /**
+     * Returns up to maxItems trade statistics in the date range [fromDate, toDate) in ascending order of the date,
+     * skipping the first offset ones. If currencyCode is null the trade statistics of all currencies are returned.
+     */
+    public List<TradeStatistics3> getTradeStatistics(@Nullable String currencyCode,
+                                                     long fromDate,
+                                                     long toDate,
+                                                     int offset,
+                                                     int maxItems) {
+        return tradeStatisticsColumns.getTradeStatistics(currencyCode, fromDate, toDate, offset, maxItems);
+    }
+
+    public TradeStatisticsColumns getTradeStatisticsColumns() {
+        return tradeStatisticsColumns;
+    }
+
+    @Nullable
+    private TradeStatistics3 getTradeStatisticsByHash(byte[] hash) {
+        PersistableNetworkPayload payload = tradeStatistics3StorageService.getMapOfAllData().get(new P2PDataStorage.ByteArray(hash));
+        return payload instanceof TradeStatistics3 ? (TradeStatistics3) payload : null;
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
@@ -130,10 +176,9 @@ public class TradeStatisticsManager {
             cryptoCurrencyList.add(0, new CurrencyTuple(Res.getBaseCurrencyCode(), Res.getBaseCurrencyName(), 8));
             jsonFileManager.writeToDiscThreaded(JsonUtil.objectToJson(cryptoCurrencyList), "crypto_currency_list");
 
-            Instant yearAgo = Instant.ofEpochSecond(Instant.now().getEpochSecond() - TimeUnit.DAYS.toSeconds(365));
-            Set<String> activeCurrencies = observableTradeStatisticsSet.stream()
-                    .filter(e -> e.getDate().toInstant().isAfter(yearAgo))
-                    .map(p -> p.getCurrency())
+            long yearAgo = Instant.now().toEpochMilli() - TimeUnit.DAYS.toMillis(365);
+            Set<String> activeCurrencies = tradeStatisticsColumns.getCurrencyCodes().stream()
+                    .filter(currencyCode -> tradeStatisticsColumns.getLatestDate(currencyCode) > yearAgo)
                     .collect(Collectors.toSet());
 
             ArrayList<CurrencyTuple> activeTraditionalCurrencyList = traditionalCurrencyList.stream()
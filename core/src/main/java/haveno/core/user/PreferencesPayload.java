@@ -46,7 +46,7 @@ import static haveno.core.xmr.wallet.Restrictions.getDefaultBuyerSecurityDeposit
 @Slf4j
 @Data
 @AllArgsConstructor
-public final class PreferencesPayload implements PersistableEnvelope {
+public final class PreferencesPayload implements PersistableEnvelope, Cloneable {
     private String userLanguage;
     private Country userCountry;
     private List<TraditionalCurrency> traditionalCurrencies = new ArrayList<>();
@@ -221,6 +221,36 @@ public final class PreferencesPayload implements PersistableEnvelope {
         return protobuf.PersistableEnvelope.newBuilder().setPreferencesPayload(builder).build();
     }
 
+    // Copies the collections and the mutable nested objects. The selected payment account is mutable and gets copied by
+    // a proto round trip. The remaining nested objects are immutable or replaced instead of mutated by Preferences.
+    @Override
+    public PersistableEnvelope toPersistableSnapshot() {
+        try {
+            PreferencesPayload snapshot = (PreferencesPayload) clone();
+            snapshot.traditionalCurrencies = new ArrayList<>(traditionalCurrencies);
+            snapshot.cryptoCurrencies = new ArrayList<>(cryptoCurrencies);
+            snapshot.dontShowAgainMap = new HashMap<>(dontShowAgainMap);
+            snapshot.peerTagMap = new HashMap<>(peerTagMap);
+            snapshot.ignoreTradersList = new ArrayList<>(ignoreTradersList);
+            snapshot.bridgeAddresses = bridgeAddresses != null ? new ArrayList<>(bridgeAddresses) : null;
+            snapshot.autoConfirmSettingsList = autoConfirmSettingsList.stream()
+                    .map(autoConfirmSettings -> AutoConfirmSettings.fromProto((protobuf.AutoConfirmSettings) autoConfirmSettings.toProtoMessage()))
+                    .collect(Collectors.toList());
+            if (xmrNodeSettings != null) {
+                snapshot.xmrNodeSettings = new XmrNodeSettings(xmrNodeSettings.getBlockchainPath(),
+                        xmrNodeSettings.getBootstrapUrl(),
+                        xmrNodeSettings.getStartupFlags() != null ? new ArrayList<>(xmrNodeSettings.getStartupFlags()) : null);
+            }
+            if (selectedPaymentAccountForCreateOffer != null) {
+                snapshot.selectedPaymentAccountForCreateOffer = PaymentAccount.fromProto(
+                        selectedPaymentAccountForCreateOffer.toProtoMessage(), new CoreProtoResolver());
+            }
+            return snapshot;
+        } catch (CloneNotSupportedException e) {
+            return null;
+        }
+    }
+
     public static PreferencesPayload fromProto(protobuf.PreferencesPayload proto, CoreProtoResolver coreProtoResolver) {
         final protobuf.Country userCountry = proto.getUserCountry();
         PaymentAccount paymentAccount = null;
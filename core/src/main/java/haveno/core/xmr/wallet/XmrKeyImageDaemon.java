@@ -0,0 +1,46 @@
+package haveno.core.xmr.wallet;
+
+import monero.daemon.MoneroDaemon;
+import monero.daemon.model.MoneroKeyImageSpentStatus;
+
+import java.util.List;
+
+/**
+ * The daemon calls used by the XmrKeyImagePoller, so it can be tested without a monerod.
+ */
+public interface XmrKeyImageDaemon {
+
+    /**
+     * Get the spent statuses of the given key images in the same order.
+     */
+    List<MoneroKeyImageSpentStatus> getKeyImageSpentStatuses(List<String> keyImages);
+
+    /**
+     * Get the current height of the blockchain.
+     */
+    long getHeight();
+
+    /**
+     * Get the hashes of the transactions in the pool.
+     */
+    List<String> getTxPoolHashes();
+
+    static XmrKeyImageDaemon fromMoneroDaemon(MoneroDaemon daemon) {
+        return new XmrKeyImageDaemon() {
+            @Override
+            public List<MoneroKeyImageSpentStatus> getKeyImageSpentStatuses(List<String> keyImages) {
+                return daemon.getKeyImageSpentStatuses(keyImages);
+            }
+
+            @Override
+            public long getHeight() {
+                return daemon.getHeight();
+            }
+
+            @Override
+            public List<String> getTxPoolHashes() {
+                return daemon.getTxPoolHashes();
+            }
+        };
+    }
+}
@@ -1,5 +1,10 @@
 package haveno.core.xmr.wallet;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import haveno.common.util.Utilities;
 import lombok.extern.slf4j.Slf4j;
 import monero.common.MoneroError;
 import monero.common.TaskLooper;
@@ -9,33 +14,57 @@ import monero.daemon.model.MoneroKeyImageSpentStatus;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Poll for changes to the spent status of key images.
  *
+ * Key images with an unknown status are fetched on the next poll. Key images which are not spent or spent in the
+ * tx pool are only fetched again once the daemon reports a new block or a change of the tx pool, so idle polls cost
+ * two cheap daemon calls regardless of the number of key images. Confirmed key images are fetched again every
+ * CONFIRMED_POLL_PERIOD_BLOCKS blocks or when the chain got shorter, so a reorg which drops their spend is detected.
+ *
+ * Requests are split into chunks of MAX_KEY_IMAGES_PER_REQUEST key images which are fetched concurrently.
+ *
  * TODO: move to monero-java?
  */
 @Slf4j
 public class XmrKeyImagePoller {
 
-    private MoneroDaemon daemon;
+    static final int MAX_KEY_IMAGES_PER_REQUEST = 500;
+    static final int CONFIRMED_POLL_PERIOD_BLOCKS = 10;
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    private static final ListeningExecutorService REQUEST_EXECUTOR = Utilities.getListeningExecutorService(
+            "XmrKeyImagePoller", MAX_CONCURRENT_REQUESTS, MAX_CONCURRENT_REQUESTS, 256, 60);
+
+    private MoneroDaemon moneroDaemon;
+    private volatile XmrKeyImageDaemon daemon;
     private long refreshPeriodMs;
-    private List<String> keyImages = new ArrayList<String>();
-    private Set<XmrKeyImageListener> listeners = new HashSet<XmrKeyImageListener>();
+    private final Set<String> keyImages = ConcurrentHashMap.newKeySet();
+    private final Set<XmrKeyImageListener> listeners = new CopyOnWriteArraySet<XmrKeyImageListener>();
     private TaskLooper looper;
-    private Map<String, MoneroKeyImageSpentStatus> lastStatuses = new HashMap<String, MoneroKeyImageSpentStatus>();
+    private final Map<String, MoneroKeyImageSpentStatus> lastStatuses = new ConcurrentHashMap<String, MoneroKeyImageSpentStatus>();
+    private final Object pollLock = new Object();
+    private final AtomicBoolean isPollInProgress = new AtomicBoolean();
     private boolean isPolling = false;
 
+    // state of the daemon at the last successful poll, used to detect new blocks and tx pool changes
+    private long daemonVersion;
+    private Long lastHeight;
+    private Set<String> lastTxPoolHashes;
+    private Long lastConfirmedPollHeight;
+
     /**
      * Construct the listener.
-     *
-     * @param refreshPeriodMs - refresh period in milliseconds
-     * @param keyImages - key images to listen to
      */
     public XmrKeyImagePoller() {
         looper = new TaskLooper(() -> poll());
@@ -44,6 +73,7 @@ public class XmrKeyImagePoller {
     /**
      * Construct the listener.
      *
+     * @param daemon - the daemon to fetch key images from
      * @param refreshPeriodMs - refresh period in milliseconds
      * @param keyImages - key images to listen to
      */
@@ -70,8 +100,7 @@ public class XmrKeyImagePoller {
      * @param listener - the listener to remove
      */
     public void removeListener(XmrKeyImageListener listener) {
-        if (!listeners.contains(listener)) throw new MoneroError("Listener is not registered");
-        listeners.remove(listener);
+        if (!listeners.remove(listener)) throw new MoneroError("Listener is not registered");
         refreshPolling();
     }
 
@@ -81,7 +110,25 @@ public class XmrKeyImagePoller {
      * @param daemon - the daemon to fetch key images from
      */
     public void setDaemon(MoneroDaemon daemon) {
-        this.daemon = daemon;
+        this.moneroDaemon = daemon;
+        setDaemon(daemon == null ? null : XmrKeyImageDaemon.fromMoneroDaemon(daemon));
+    }
+
+    /**
+     * Set the daemon to fetch key images from.
+     *
+     * @param daemon - the daemon to fetch key images from
+     */
+    public void setDaemon(XmrKeyImageDaemon daemon) {
+        synchronized (pollLock) {
+            this.daemon = daemon;
+
+            // fetch all key images from the new daemon and discard results of a poll against the old one
+            daemonVersion++;
+            lastHeight = null;
+            lastTxPoolHashes = null;
+            lastConfirmedPollHeight = null;
+        }
     }
 
     /**
@@ -90,7 +137,7 @@ public class XmrKeyImagePoller {
      * @return the daemon to fetch key images from
      */
     public MoneroDaemon getDaemon() {
-        return daemon;
+        return moneroDaemon;
     }
 
     /**
@@ -117,9 +164,7 @@ public class XmrKeyImagePoller {
      * @return the key images to listen to
      */
     public Collection<String> getKeyImages() {
-        synchronized (keyImages) {
-            return new ArrayList<String>(keyImages);
-        }
+        return new ArrayList<String>(keyImages);
     }
 
     /**
@@ -129,7 +174,9 @@ public class XmrKeyImagePoller {
      */
     public void setKeyImages(String... keyImages) {
         synchronized (this.keyImages) {
-            this.keyImages.clear();
+            Set<String> removedKeyImages = new HashSet<String>(this.keyImages);
+            removedKeyImages.removeAll(Arrays.asList(keyImages));
+            removeKeyImages(removedKeyImages);
             addKeyImages(keyImages);
         }
     }
@@ -158,8 +205,9 @@ public class XmrKeyImagePoller {
      * @param keyImages - key images to listen to
      */
     public void addKeyImages(Collection<String> keyImages) {
+        if (keyImages == null) return;
         synchronized (this.keyImages) {
-            for (String keyImage : keyImages) if (!this.keyImages.contains(keyImage)) this.keyImages.add(keyImage);
+            this.keyImages.addAll(keyImages);
             refreshPolling();
         }
     }
@@ -188,12 +236,10 @@ public class XmrKeyImagePoller {
      * @param keyImages - key images to unlisten to
      */
     public void removeKeyImages(Collection<String> keyImages) {
+        if (keyImages == null) return;
         synchronized (this.keyImages) {
-            Set<String> containedKeyImages = new HashSet<String>(keyImages);
-            containedKeyImages.retainAll(this.keyImages);
-            this.keyImages.removeAll(containedKeyImages);
-            synchronized (lastStatuses) {
-                for (String lastKeyImage : new HashSet<>(lastStatuses.keySet())) lastStatuses.remove(lastKeyImage);
+            for (String keyImage : keyImages) {
+                if (this.keyImages.remove(keyImage)) lastStatuses.remove(keyImage);
             }
             refreshPolling();
         }
@@ -213,68 +259,155 @@ public class XmrKeyImagePoller {
      * @return true if the key is spent, false if unspent, null if unknown
      */
     public Boolean isSpent(String keyImage) {
-        synchronized (lastStatuses) {
-            if (!lastStatuses.containsKey(keyImage)) return null;
-            return lastStatuses.get(keyImage) != MoneroKeyImageSpentStatus.NOT_SPENT;
-        }
+        MoneroKeyImageSpentStatus status = lastStatuses.get(keyImage);
+        if (status == null) return null;
+        return status != MoneroKeyImageSpentStatus.NOT_SPENT;
     }
 
     /**
      * Get the last known spent status for the given key image.
-     * 
+     *
      * @param keyImage the key image to get the spent status for
      * @return the last known spent status of the key image
      */
     public MoneroKeyImageSpentStatus getLastSpentStatus(String keyImage) {
-        synchronized (lastStatuses) {
-            return lastStatuses.get(keyImage);
-        }
+        return lastStatuses.get(keyImage);
     }
 
     public void poll() {
+        if (!isPollInProgress.compareAndSet(false, true)) return; // skip if already polling, the looper polls again
+        try {
+            doPoll();
+        } finally {
+            isPollInProgress.set(false);
+        }
+    }
+
+    // the daemon is only called outside of the poll lock, so adding key images or switching the daemon never waits
+    // for a slow daemon
+    private void doPoll() {
+        XmrKeyImageDaemon daemon;
+        long daemonVersion;
+        synchronized (pollLock) {
+            daemon = this.daemon;
+            daemonVersion = this.daemonVersion;
+        }
         if (daemon == null) {
             log.warn("Cannot poll key images because daemon is null");
             return;
         }
+        if (keyImages.isEmpty()) return;
+
+        // fetch daemon state to detect new blocks and tx pool changes
+        long height;
+        Set<String> txPoolHashes;
+        try {
+            height = daemon.getHeight();
+            txPoolHashes = new HashSet<String>(daemon.getTxPoolHashes());
+        } catch (Exception e) {
+            log.warn("Error polling daemon state for key images: " + e.getMessage());
+            return;
+        }
 
-        // get copy of key images to fetch
-        List<String> keyImages = new ArrayList<String>(getKeyImages());
+        // collect key images with unknown status, key images which can still change their status and, at a low
+        // rate or when the chain got shorter, confirmed key images whose spend could have been reorganized away
+        List<String> keyImages = new ArrayList<String>();
+        boolean isConfirmedPollDue;
+        synchronized (pollLock) {
+            if (daemonVersion != this.daemonVersion) return;
+            boolean isDaemonChanged = lastHeight == null || lastHeight != height || !txPoolHashes.equals(lastTxPoolHashes);
+            isConfirmedPollDue = lastConfirmedPollHeight == null ||
+                    (lastHeight != null && height < lastHeight) ||
+                    height - lastConfirmedPollHeight >= CONFIRMED_POLL_PERIOD_BLOCKS;
+            for (String keyImage : this.keyImages) {
+                MoneroKeyImageSpentStatus status = lastStatuses.get(keyImage);
+                if (status == null) keyImages.add(keyImage);
+                else if (status != MoneroKeyImageSpentStatus.CONFIRMED) {
+                    if (isDaemonChanged) keyImages.add(keyImage);
+                } else if (isConfirmedPollDue) keyImages.add(keyImage);
+            }
+        }
+        if (keyImages.isEmpty()) return;
 
         // fetch spent statuses
-        List<MoneroKeyImageSpentStatus> spentStatuses = null;
+        List<MoneroKeyImageSpentStatus> spentStatuses;
         try {
-            if (keyImages.isEmpty()) spentStatuses = new ArrayList<MoneroKeyImageSpentStatus>();
-            else {
-                spentStatuses = daemon.getKeyImageSpentStatuses(keyImages); // TODO monero-java: if order of getKeyImageSpentStatuses is guaranteed, then it should take list parameter
-            }
+            spentStatuses = getKeyImageSpentStatuses(daemon, keyImages);
         } catch (Exception e) {
             log.warn("Error polling spent status of key images: " + e.getMessage());
             return;
         }
 
-        // collect changed statuses
+        // collect changed statuses of key images which are still listened to
         Map<String, MoneroKeyImageSpentStatus> changedStatuses = new HashMap<String, MoneroKeyImageSpentStatus>();
-        synchronized (lastStatuses) {
-            for (int i = 0; i < spentStatuses.size(); i++) {
-                if (spentStatuses.get(i) != lastStatuses.get(keyImages.get(i))) {
-                    lastStatuses.put(keyImages.get(i), spentStatuses.get(i));
-                    changedStatuses.put(keyImages.get(i), spentStatuses.get(i));
+        synchronized (pollLock) {
+            if (daemonVersion != this.daemonVersion) return;
+            lastHeight = height;
+            lastTxPoolHashes = txPoolHashes;
+            if (isConfirmedPollDue) lastConfirmedPollHeight = height;
+            synchronized (this.keyImages) {
+                for (int i = 0; i < spentStatuses.size(); i++) {
+                    String keyImage = keyImages.get(i);
+                    MoneroKeyImageSpentStatus spentStatus = spentStatuses.get(i);
+                    if (!this.keyImages.contains(keyImage)) continue;
+                    if (spentStatus != lastStatuses.put(keyImage, spentStatus)) {
+                        changedStatuses.put(keyImage, spentStatus);
+                    }
                 }
             }
         }
 
         // announce changes
         if (!changedStatuses.isEmpty()) {
-            for (XmrKeyImageListener listener : new ArrayList<XmrKeyImageListener>(listeners)) {
+            for (XmrKeyImageListener listener : listeners) {
                 listener.onSpentStatusChanged(changedStatuses);
             }
         }
     }
 
-    private void refreshPolling() {
-        synchronized (keyImages) {
-            setIsPolling(keyImages.size() > 0 && listeners.size() > 0);
+    // fetches the spent statuses in chunks, running up to MAX_CONCURRENT_REQUESTS requests concurrently
+    private static List<MoneroKeyImageSpentStatus> getKeyImageSpentStatuses(XmrKeyImageDaemon daemon, List<String> keyImages) throws ExecutionException, InterruptedException {
+        List<List<String>> chunks = Lists.partition(keyImages, MAX_KEY_IMAGES_PER_REQUEST);
+        if (chunks.size() == 1) return checkSize(daemon.getKeyImageSpentStatuses(chunks.get(0)), chunks.get(0));
+
+        // each task fetches every n-th chunk sequentially, the first task runs on the calling thread
+        int numTasks = Math.min(chunks.size(), MAX_CONCURRENT_REQUESTS);
+        List<List<MoneroKeyImageSpentStatus>> results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+        List<ListenableFuture<?>> futures = new ArrayList<>();
+        for (int task = 1; task < numTasks; task++) {
+            int firstChunk = task;
+            futures.add(REQUEST_EXECUTOR.submit(() -> fetchChunks(daemon, chunks, results, firstChunk, numTasks)));
         }
+        fetchChunks(daemon, chunks, results, 0, numTasks);
+        Futures.allAsList(futures).get();
+
+        List<MoneroKeyImageSpentStatus> spentStatuses = new ArrayList<>(keyImages.size());
+        for (List<MoneroKeyImageSpentStatus> result : results) spentStatuses.addAll(result);
+        return spentStatuses;
+    }
+
+    private static void fetchChunks(XmrKeyImageDaemon daemon,
+                                    List<List<String>> chunks,
+                                    List<List<MoneroKeyImageSpentStatus>> results,
+                                    int firstChunk,
+                                    int step) {
+        for (int i = firstChunk; i < chunks.size(); i += step) {
+            List<MoneroKeyImageSpentStatus> result = checkSize(daemon.getKeyImageSpentStatuses(chunks.get(i)), chunks.get(i));
+            synchronized (results) {
+                results.set(i, result);
+            }
+        }
+    }
+
+    private static List<MoneroKeyImageSpentStatus> checkSize(List<MoneroKeyImageSpentStatus> spentStatuses, List<String> keyImages) {
+        if (spentStatuses.size() != keyImages.size()) {
+            throw new MoneroError("Expected " + keyImages.size() + " key image spent statuses but got " + spentStatuses.size());
+        }
+        return spentStatuses;
+    }
+
+    private void refreshPolling() {
+        setIsPolling(keyImages.size() > 0 && listeners.size() > 0);
     }
 
     private synchronized void setIsPolling(boolean enabled) {
@@ -8,6 +8,7 @@ import haveno.common.ThreadUtils;
 import haveno.common.UserThread;
 import haveno.common.config.Config;
 import haveno.common.file.FileUtil;
+import haveno.common.util.KeySetLock;
 import haveno.common.util.Tuple2;
 import haveno.common.util.Utilities;
 import haveno.core.api.AccountServiceListener;
@@ -81,6 +82,9 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javafx.beans.property.LongProperty;
@@ -132,6 +136,8 @@ public class XmrWalletService {
     private TradeManager tradeManager;
     private MoneroWalletRpc wallet;
     private Object walletLock = new Object();
+    private final ReadWriteLock verifyTradeTxLock = new ReentrantReadWriteLock(true); // verifications of trade txs without expected key images hold the write lock
+    private final KeySetLock verifyTradeTxKeyLock = new KeySetLock(); // lock for verifying trade txs by tx hash and key images
     private boolean wasWalletSynced = false;
     private final Map<String, Optional<MoneroTx>> txCache = new HashMap<String, Optional<MoneroTx>>();
     private boolean isShutDownStarted = false;
@@ -592,7 +598,22 @@ public class XmrWalletService {
         MoneroWallet wallet = getWallet();
         MoneroTx tx = null;
         BigInteger actualSecurityDeposit = null;
-        synchronized (daemon) {
+
+        // verifications of the same tx or outputs would collide in the pool, so they run one after another. If the key
+        // images are not known, the outputs are not known either, so the verification runs exclusively.
+        Lock lock = keyImages == null ? verifyTradeTxLock.writeLock() : verifyTradeTxLock.readLock();
+        Set<String> lockKeys = new HashSet<>();
+        lockKeys.add(txHash);
+        if (keyImages != null) lockKeys.addAll(keyImages);
+        lock.lock();
+        try {
+            verifyTradeTxKeyLock.lock(lockKeys);
+        } catch (InterruptedException e) {
+            lock.unlock();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to verify trade tx " + txHash, e);
+        }
+        try {
             try {
 
                 // verify tx not submitted to pool
@@ -663,6 +684,9 @@ public class XmrWalletService {
                 }
             }
             return new Tuple2<>(tx, actualSecurityDeposit);
+        } finally {
+            verifyTradeTxKeyLock.unlock(lockKeys);
+            lock.unlock();
         }
     }
 
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.api;
+
+import haveno.common.UserThread;
+import haveno.core.api.model.MarketDepthInfo;
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
+import haveno.core.offer.OfferDirection;
+import haveno.core.provider.price.MarketPrice;
+import haveno.core.provider.price.PriceFeedService;
+import javafx.beans.property.SimpleIntegerProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static haveno.core.offer.OfferMaker.amount;
+import static haveno.core.offer.OfferMaker.btcUsdOffer;
+import static haveno.core.offer.OfferMaker.direction;
+import static haveno.core.offer.OfferMaker.id;
+import static haveno.core.offer.OfferMaker.marketPriceMargin;
+import static haveno.core.offer.OfferMaker.price;
+import static haveno.core.offer.OfferMaker.useMarketBasedPrice;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MarketDepthCacheTest {
+    private static final long ONE_XMR = 1_000_000_000_000L;
+
+    private final SimpleIntegerProperty updateCounter = new SimpleIntegerProperty();
+    private PriceFeedService priceFeedService;
+    private OfferBookService.OfferBookChangedListener offerBookListener;
+    private MarketDepthCache marketDepthCache;
+
+    @BeforeEach
+    public void setUp() {
+        UserThread.setExecutor(Runnable::run);
+        priceFeedService = mock(PriceFeedService.class);
+        when(priceFeedService.updateCounterProperty()).thenReturn(updateCounter);
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        when(offerBookService.getOffers()).thenReturn(List.of(createOffer("1", OfferDirection.BUY, 100, ONE_XMR)));
+        marketDepthCache = new MarketDepthCache(offerBookService, priceFeedService);
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor = ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(captor.capture());
+        offerBookListener = captor.getValue();
+    }
+
+    @Test
+    public void testDepthIsSortedAndCumulative() {
+        offerBookListener.onAdded(createOffer("2", OfferDirection.BUY, 110, 2 * ONE_XMR));
+        offerBookListener.onAdded(createOffer("3", OfferDirection.BUY, 100, ONE_XMR));
+        offerBookListener.onAdded(createOffer("4", OfferDirection.SELL, 130, ONE_XMR));
+        offerBookListener.onAdded(createOffer("5", OfferDirection.SELL, 120, 3 * ONE_XMR));
+
+        MarketDepthInfo depth = marketDepthCache.getMarketDepth("USD");
+        assertArrayEquals(new Double[]{110d, 100d}, depth.buyPrices);
+        assertArrayEquals(new Double[]{2d, 4d}, depth.buyDepth);
+        assertArrayEquals(new Double[]{120d, 130d}, depth.sellPrices);
+        assertArrayEquals(new Double[]{3d, 4d}, depth.sellDepth);
+        assertSame(depth, marketDepthCache.getMarketDepth("USD"));
+        assertEquals(0, marketDepthCache.getMarketDepth("EUR").buyPrices.length);
+    }
+
+    @Test
+    public void testRemoveAndNotify() {
+        List<MarketDepthInfo> updates = new ArrayList<>();
+        marketDepthCache.addListener(updates::add);
+        Offer offer = createOffer("2", OfferDirection.BUY, 110, ONE_XMR);
+        offerBookListener.onAdded(offer);
+        offerBookListener.onRemoved(offer);
+
+        assertEquals(2, updates.size());
+        assertArrayEquals(new Double[]{100d}, updates.get(1).buyPrices);
+        assertArrayEquals(new Double[]{1d}, updates.get(1).buyDepth);
+
+        // Removal of a replaced version of an offer is ignored
+        Offer edited = createOffer("1", OfferDirection.BUY, 90, ONE_XMR);
+        offerBookListener.onAdded(edited);
+        offerBookListener.onRemoved(createOffer("1", OfferDirection.BUY, 100, ONE_XMR));
+        assertArrayEquals(new Double[]{90d}, marketDepthCache.getMarketDepth("USD").buyPrices);
+    }
+
+    @Test
+    public void testMarketBasedOfferIsRepricedAtMarketPriceUpdate() {
+        setMarketPrice(200);
+        Offer offer = make(btcUsdOffer.but(with(id, "2"),
+                with(direction, OfferDirection.SELL),
+                with(useMarketBasedPrice, true),
+                with(marketPriceMargin, 0.1),
+                with(amount, ONE_XMR)));
+        offer.setPriceFeedService(priceFeedService);
+        offerBookListener.onAdded(offer);
+        assertEquals(220, marketDepthCache.getMarketDepth("USD").sellPrices[0], 0.0001);
+
+        setMarketPrice(300);
+        assertEquals(330, marketDepthCache.getMarketDepth("USD").sellPrices[0], 0.0001);
+        assertArrayEquals(new Double[]{1d}, marketDepthCache.getMarketDepth("USD").sellDepth);
+    }
+
+    private void setMarketPrice(double marketPrice) {
+        when(priceFeedService.getMarketPrice(any())).thenReturn(new MarketPrice("USD", marketPrice, Instant.now().getEpochSecond(), true));
+        updateCounter.set(updateCounter.get() + 1);
+    }
+
+    @Test
+    public void testConcurrentChangesAreNotifiedInOrder() throws Exception {
+        List<Integer> numBuyPrices = Collections.synchronizedList(new ArrayList<>());
+        marketDepthCache.addListener(marketDepthInfo -> numBuyPrices.add(marketDepthInfo.buyPrices.length));
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            List<Offer> offers = new ArrayList<>();
+            for (int j = 0; j < 100; j++) {
+                int offerIndex = 1000 + i * 100 + j;
+                offers.add(createOffer(String.valueOf(offerIndex), OfferDirection.BUY, offerIndex, ONE_XMR));
+            }
+            threads.add(new Thread(() -> offers.forEach(offerBookListener::onAdded)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) thread.join();
+
+        // Each added offer has its own price level, so a notified depth has more levels than the one before
+        for (int i = 1; i < numBuyPrices.size(); i++) {
+            assertTrue(numBuyPrices.get(i) > numBuyPrices.get(i - 1));
+        }
+        assertEquals(201, (int) numBuyPrices.get(numBuyPrices.size() - 1));
+    }
+
+    private Offer createOffer(String offerId, OfferDirection offerDirection, long priceInUsd, long amountInAtomicUnits) {
+        Offer offer = make(btcUsdOffer.but(with(id, offerId),
+                with(direction, offerDirection),
+                with(price, priceInUsd * 100_000_000L),
+                with(amount, amountInAtomicUnits)));
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+}
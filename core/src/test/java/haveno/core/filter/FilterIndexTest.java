@@ -0,0 +1,176 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.filter;
+
+import com.google.common.collect.Lists;
+import haveno.core.payment.payload.PaymentMethod;
+import haveno.core.payment.payload.ZelleAccountPayload;
+import haveno.network.p2p.NodeAddress;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilterIndexTest {
+    private static final Logger log = LoggerFactory.getLogger(FilterIndexTest.class);
+
+    @Test
+    public void testEmptyIndex() {
+        FilterIndex index = FilterIndex.compile(null);
+        assertFalse(index.isCurrencyBanned("XMR"));
+        assertFalse(index.isOfferIdBanned("offerId"));
+        assertFalse(index.isNodeAddressBanned(new NodeAddress("localhost", 9999)));
+        assertFalse(index.isNodeAddressBannedFromNetwork(new NodeAddress("localhost", 9999)));
+        assertFalse(index.isWitnessSignerPubKeyBanned("pubKey"));
+        assertFalse(index.arePaymentAccountDataBanned(getZelleAccountPayload("Alice")));
+    }
+
+    @Test
+    public void testBannedEntries() {
+        FilterIndex index = FilterIndex.compile(getFilter(List.of("offerId"),
+                List.of("localhost:9999", "invalid"),
+                List.of(new PaymentAccountFilter(PaymentMethod.ZELLE_ID, "getHolderName", "Alice")),
+                List.of("EUR"),
+                List.of("pubKey"),
+                Set.of("peer.onion:8000")));
+
+        assertTrue(index.isOfferIdBanned("offerId"));
+        assertFalse(index.isOfferIdBanned("otherOfferId"));
+        assertTrue(index.isCurrencyBanned("EUR"));
+        assertFalse(index.isCurrencyBanned("USD"));
+        assertTrue(index.isWitnessSignerPubKeyBanned("pubKey"));
+        assertFalse(index.isWitnessSignerPubKeyBanned("otherPubKey"));
+
+        assertTrue(index.isNodeAddressBanned(new NodeAddress("localhost", 9999)));
+        assertTrue(index.isNodeAddressBanned(new NodeAddress("localhost:9999")));
+        assertFalse(index.isNodeAddressBanned(new NodeAddress("localhost", 9998)));
+        assertFalse(index.isNodeAddressBanned(new NodeAddress("peer.onion", 8000)));
+        assertTrue(index.isNodeAddressBannedFromNetwork(new NodeAddress("peer.onion", 8000)));
+        assertFalse(index.isNodeAddressBannedFromNetwork(new NodeAddress("localhost", 9999)));
+
+        assertTrue(index.arePaymentAccountDataBanned(getZelleAccountPayload("Alice")));
+        assertTrue(index.arePaymentAccountDataBanned(getZelleAccountPayload("aLiCe")));
+        assertFalse(index.arePaymentAccountDataBanned(getZelleAccountPayload("Bob")));
+    }
+
+    @Test
+    public void testInvalidGetterIsIgnored() {
+        FilterIndex index = FilterIndex.compile(getFilter(List.of(),
+                List.of(),
+                List.of(new PaymentAccountFilter(PaymentMethod.ZELLE_ID, "getUnknown", "Alice"),
+                        new PaymentAccountFilter(PaymentMethod.ZELLE_ID, "getMaxTradePeriod", "Alice"),
+                        new PaymentAccountFilter(PaymentMethod.ZELLE_ID, "getEmailOrMobileNr", "alice@haveno.exchange")),
+                List.of(),
+                List.of(),
+                Set.of()));
+
+        assertFalse(index.arePaymentAccountDataBanned(getZelleAccountPayload("Alice")));
+        ZelleAccountPayload payload = getZelleAccountPayload("Bob");
+        payload.setEmailOrMobileNr("Alice@Haveno.exchange");
+        assertTrue(index.arePaymentAccountDataBanned(payload));
+    }
+
+    // Benchmark of ban checks against a filter with large lists. Run manually.
+    @Disabled
+    @Test
+    public void benchmarkBanChecks() {
+        int numEntries = 10000;
+        int numChecks = 100000;
+        List<String> offerIds = new ArrayList<>();
+        List<String> nodeAddresses = new ArrayList<>();
+        List<PaymentAccountFilter> paymentAccountFilters = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            offerIds.add("offer-" + i);
+            nodeAddresses.add("peer" + i + ".onion:9999");
+            paymentAccountFilters.add(new PaymentAccountFilter(PaymentMethod.ZELLE_ID, "getHolderName", "holder-" + i));
+        }
+        Filter filter = getFilter(offerIds, nodeAddresses, paymentAccountFilters, List.of(), List.of(), new HashSet<>(nodeAddresses));
+
+        long ts = System.nanoTime();
+        FilterIndex index = FilterIndex.compile(filter);
+        log.info("Compiled filter with {} entries per list in {} ms", numEntries, (System.nanoTime() - ts) / 1_000_000);
+
+        NodeAddress nodeAddress = new NodeAddress("peer.onion", 9999);
+        ZelleAccountPayload payload = getZelleAccountPayload("holder");
+        int numBanned = 0;
+        ts = System.nanoTime();
+        for (int i = 0; i < numChecks; i++) {
+            if (index.isOfferIdBanned("offer")) numBanned++;
+            if (index.isNodeAddressBanned(nodeAddress)) numBanned++;
+            if (index.arePaymentAccountDataBanned(payload)) numBanned++;
+        }
+        log.info("Indexed: {} checks in {} ms, banned={}", 3 * numChecks, (System.nanoTime() - ts) / 1_000_000, numBanned);
+
+        // Linear scans like before the index
+        int numLinearChecks = numChecks / 100;
+        ts = System.nanoTime();
+        for (int i = 0; i < numLinearChecks; i++) {
+            if (filter.getBannedOfferIds().stream().anyMatch(e -> e.equals("offer"))) numBanned++;
+            if (filter.getNodeAddressesBannedFromTrading().stream().anyMatch(e -> e.equals(nodeAddress.getFullAddress()))) numBanned++;
+        }
+        log.info("Linear scan: {} checks in {} ms, banned={}", 2 * numLinearChecks, (System.nanoTime() - ts) / 1_000_000, numBanned);
+    }
+
+    private static ZelleAccountPayload getZelleAccountPayload(String holderName) {
+        ZelleAccountPayload payload = new ZelleAccountPayload(PaymentMethod.ZELLE_ID, "id");
+        payload.setHolderName(holderName);
+        return payload;
+    }
+
+    private static Filter getFilter(List<String> bannedOfferIds,
+                                    List<String> nodeAddressesBannedFromTrading,
+                                    List<PaymentAccountFilter> bannedPaymentAccounts,
+                                    List<String> bannedCurrencies,
+                                    List<String> bannedAccountWitnessSignerPubKeys,
+                                    Set<String> nodeAddressesBannedFromNetwork) {
+        return new Filter(bannedOfferIds,
+                nodeAddressesBannedFromTrading,
+                bannedPaymentAccounts,
+                bannedCurrencies,
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                false,
+                Lists.newArrayList(),
+                null,
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                bannedAccountWitnessSignerPubKeys,
+                Lists.newArrayList(),
+                null,
+                0,
+                null,
+                null,
+                null,
+                Lists.newArrayList(),
+                false,
+                Lists.newArrayList(),
+                nodeAddressesBannedFromNetwork,
+                false,
+                false);
+    }
+}
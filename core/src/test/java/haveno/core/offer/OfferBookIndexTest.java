@@ -0,0 +1,92 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfferBookIndexTest {
+    private OfferBookIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new OfferBookIndex();
+    }
+
+    @Test
+    public void testLookupByIdCurrencyAndKeyImage() {
+        Offer buyUsd = createOffer("1", OfferDirection.BUY, "XMR", "ki1", "ki2");
+        Offer sellUsd = createOffer("2", OfferDirection.SELL, "XMR", "ki3");
+        Offer buyBtc = createOffer("3", OfferDirection.BUY, "BTC", "ki2");
+        index.add(buyUsd);
+        index.add(sellUsd);
+        index.add(buyBtc);
+
+        assertEquals(3, index.size());
+        assertSame(sellUsd, index.getOffer("2"));
+        assertEquals(List.of(buyUsd), index.getOffers("xmr", OfferDirection.BUY.name()));
+        assertEquals(List.of(sellUsd), index.getOffers("XMR", OfferDirection.SELL.name()));
+        assertEquals(2, index.getOffersByKeyImage("ki2").size());
+        assertTrue(index.getOffersByKeyImage("unknown").isEmpty());
+    }
+
+    @Test
+    public void testRemoveClearsSecondaryIndexes() {
+        Offer offer = createOffer("1", OfferDirection.BUY, "XMR", "ki1");
+        index.add(offer);
+
+        assertSame(offer, index.remove(offer.getOfferPayload()));
+        assertNull(index.getOffer("1"));
+        assertTrue(index.getOffers("XMR", OfferDirection.BUY.name()).isEmpty());
+        assertTrue(index.getOffersByKeyImage("ki1").isEmpty());
+        assertNull(index.remove(offer.getOfferPayload()));
+    }
+
+    @Test
+    public void testRemoveOfReplacedPayloadKeepsNewOffer() {
+        Offer oldOffer = createOffer("1", OfferDirection.BUY, "XMR", "ki1");
+        Offer editedOffer = createOffer("1", OfferDirection.SELL, "XMR", "ki2");
+        index.add(oldOffer);
+
+        assertSame(oldOffer, index.add(editedOffer));
+        assertNull(index.remove(oldOffer.getOfferPayload()));
+        assertSame(editedOffer, index.getOffer("1"));
+        assertTrue(index.getOffers("XMR", OfferDirection.BUY.name()).isEmpty());
+        assertTrue(index.getOffersByKeyImage("ki1").isEmpty());
+        assertEquals(List.of(editedOffer), index.getOffersByKeyImage("ki2"));
+    }
+
+    private static Offer createOffer(String id, OfferDirection direction, String baseCurrencyCode, String... keyImages) {
+        OfferPayload payload = mock(OfferPayload.class);
+        when(payload.getId()).thenReturn(id);
+        when(payload.getDirection()).thenReturn(direction);
+        when(payload.getBaseCurrencyCode()).thenReturn(baseCurrencyCode);
+        when(payload.getReserveTxKeyImages()).thenReturn(Arrays.asList(keyImages));
+        return new Offer(payload);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.common.crypto.PubKeyRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfferValidationCacheTest {
+    private final Set<String> bookedOfferIds = new HashSet<>(Set.of("offerId"));
+    private final OfferValidationCache cache = new OfferValidationCache(bookedOfferIds::contains);
+
+    @Test
+    public void testEntryIsReplacedIfPayloadChanged() {
+        Offer offer = getOffer("offerId", new byte[]{1});
+        OfferValidationCache.Entry entry = cache.getEntry(offer);
+        entry.setInsufficientCounterpartyTradeLimit(true);
+        assertSame(entry, cache.getEntry(getOffer("offerId", new byte[]{1})));
+
+        OfferValidationCache.Entry newEntry = cache.getEntry(getOffer("offerId", new byte[]{2}));
+        assertNotSame(entry, newEntry);
+        assertNull(newEntry.getInsufficientCounterpartyTradeLimit());
+        assertEquals(1, cache.size());
+
+        cache.remove("offerId");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testOfferNotInOfferBookIsNotCached() {
+        OfferValidationCache.Entry entry = cache.getEntry(getOffer("unknownOfferId", new byte[]{1}));
+        entry.setInsufficientCounterpartyTradeLimit(true);
+        assertEquals(0, cache.size());
+        assertNull(cache.getEntry(getOffer("unknownOfferId", new byte[]{1})).getInsufficientCounterpartyTradeLimit());
+
+        // The entry of a removed offer is still returned until it gets evicted, but no new entries are added
+        OfferValidationCache.Entry bookedEntry = cache.getEntry(getOffer("offerId", new byte[]{1}));
+        bookedOfferIds.remove("offerId");
+        assertSame(bookedEntry, cache.getEntry(getOffer("offerId", new byte[]{1})));
+        assertNotSame(bookedEntry, cache.getEntry(getOffer("offerId", new byte[]{2})));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testSignatureResultIsBoundToArbitrator() {
+        PubKeyRing arbitrator = mock(PubKeyRing.class);
+        OfferValidationCache.Entry entry = cache.getEntry(getOffer("offerId", new byte[]{1}));
+        assertNull(entry.getSignatureResult(arbitrator));
+
+        entry.setSignatureResult(arbitrator, true);
+        assertTrue(entry.getSignatureResult(arbitrator));
+        assertNull(entry.getSignatureResult(mock(PubKeyRing.class)));
+    }
+
+    @Test
+    public void testResetTradeLimits() {
+        OfferValidationCache.Entry entry = cache.getEntry(getOffer("offerId", new byte[]{1}));
+        entry.setSignatureResult(mock(PubKeyRing.class), true);
+        entry.setInsufficientCounterpartyTradeLimit(true);
+        entry.setMyInsufficientTradeLimit(true);
+
+        cache.resetMyTradeLimits();
+        assertNull(entry.getMyInsufficientTradeLimit());
+        assertTrue(entry.getInsufficientCounterpartyTradeLimit());
+
+        entry.setMyInsufficientTradeLimit(false);
+        cache.resetTradeLimits();
+        assertNull(entry.getMyInsufficientTradeLimit());
+        assertNull(entry.getInsufficientCounterpartyTradeLimit());
+    }
+
+    private static Offer getOffer(String offerId, byte[] payloadHash) {
+        Offer offer = mock(Offer.class);
+        when(offer.getId()).thenReturn(offerId);
+        when(offer.getOfferPayloadHash()).thenReturn(payloadHash);
+        return offer;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SignOfferRequestQueueTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SignOfferRequestQueue queue = new SignOfferRequestQueue(executor, 2);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDisjointRequestsRunConcurrently() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        assertTrue(queue.submit("offer1", "uid1", List.of("a"), () -> awaitRelease(bothRunning, release)));
+        assertTrue(queue.submit("offer2", "uid2", List.of("b"), () -> awaitRelease(bothRunning, release)));
+
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        assertEquals(2, queue.getMetrics().getNumRunning());
+        release.countDown();
+        awaitProcessed(2);
+    }
+
+    @Test
+    public void testConcurrencyIsBounded() throws Exception {
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            queue.submit("offer" + i, "uid", List.of("keyImage" + i), () -> awaitRelease(running, release));
+        }
+
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertEquals(2, queue.getMetrics().getNumRunning());
+        assertEquals(1, queue.getMetrics().getQueueDepth());
+        release.countDown();
+        awaitProcessed(3);
+        assertEquals(0, queue.getMetrics().getQueueDepth());
+    }
+
+    @Test
+    public void testSharedKeyImagesAreSerialized() throws Exception {
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        queue.submit("offer1", "uid1", List.of("a", "b"), () -> {
+            awaitRelease(firstRunning, release);
+            order.add("offer1");
+        });
+        queue.submit("offer2", "uid2", List.of("b", "c"), () -> order.add("offer2"));
+        // Shares no key image with the running request, but one with the waiting request
+        queue.submit("offer3", "uid3", List.of("c"), () -> order.add("offer3"));
+
+        assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+        assertEquals(1, queue.getMetrics().getNumRunning());
+        assertEquals(2, queue.getMetrics().getQueueDepth());
+        release.countDown();
+        awaitProcessed(3);
+        assertEquals(List.of("offer1", "offer2", "offer3"), order);
+    }
+
+    @Test
+    public void testDuplicatesAreDropped() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        assertTrue(queue.submit("offer1", "uid1", null, () -> awaitRelease(running, release)));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertFalse(queue.submit("offer1", "uid1", null, () -> {}));
+
+        release.countDown();
+        awaitProcessed(1);
+        assertFalse(queue.submit("offer1", "uid1", null, () -> {}));
+        assertTrue(queue.submit("offer1", "uid2", null, () -> {}));
+        awaitProcessed(2);
+        assertEquals(2, queue.getMetrics().getNumDuplicates());
+    }
+
+    @Test
+    public void testFailingRequestReleasesKeys() throws Exception {
+        queue.submit("offer1", "uid1", List.of("a"), () -> {
+            throw new IllegalStateException("expected by test");
+        });
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit("offer2", "uid2", List.of("a"), done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitRelease(CountDownLatch running, CountDownLatch release) {
+        running.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ignore) {
+        }
+    }
+
+    private void awaitProcessed(long numProcessed) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.getMetrics().getNumProcessed() < numProcessed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(numProcessed, queue.getMetrics().getNumProcessed());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DormantTradeInitializerTest {
+    private final AtomicInteger numInitializations = new AtomicInteger();
+
+    @Test
+    public void testClosedTradesWithUnlockedPayoutAreDormant() {
+        Trade trade = getTrade("uid");
+        when(trade.isPayoutUnlocked()).thenReturn(false);
+        assertFalse(DormantTradeInitializer.isDormant(trade, true));
+        assertFalse(DormantTradeInitializer.isDormant(trade, false)); // closed or failed trade still has a wallet
+        when(trade.isPayoutUnlocked()).thenReturn(true);
+        assertFalse(DormantTradeInitializer.isDormant(trade, true));
+        assertTrue(DormantTradeInitializer.isDormant(trade, false));
+    }
+
+    @Test
+    public void testOnlyDormantTradesAreInitialized() {
+        DormantTradeInitializer initializer = new DormantTradeInitializer(trade -> numInitializations.incrementAndGet());
+        Trade activeTrade = getTrade("uid1");
+        Trade dormantTrade = getTrade("uid2");
+        initializer.add(dormantTrade);
+        assertFalse(initializer.isUninitialized(activeTrade));
+        assertTrue(initializer.isUninitialized(dormantTrade));
+
+        assertSame(activeTrade, initializer.init(activeTrade));
+        assertEquals(0, numInitializations.get());
+        assertSame(dormantTrade, initializer.init(dormantTrade));
+        assertEquals(1, numInitializations.get());
+        assertFalse(initializer.isUninitialized(dormantTrade));
+
+        initializer.init(dormantTrade);
+        assertEquals(1, numInitializations.get());
+    }
+
+    @Test
+    public void testOtherTradeWithSameUidIsNotInitialized() {
+        DormantTradeInitializer initializer = new DormantTradeInitializer(trade -> numInitializations.incrementAndGet());
+        initializer.add(getTrade("uid"));
+        Trade otherTrade = getTrade("uid");
+        assertFalse(initializer.isUninitialized(otherTrade));
+        initializer.init(otherTrade);
+        assertEquals(0, numInitializations.get());
+    }
+
+    @Test
+    public void testConcurrentFirstAccessWaitsForInitialization() throws Exception {
+        CountDownLatch initStarted = new CountDownLatch(1);
+        CountDownLatch initReleased = new CountDownLatch(1);
+        AtomicBoolean isInitialized = new AtomicBoolean();
+        DormantTradeInitializer initializer = new DormantTradeInitializer(trade -> {
+            numInitializations.incrementAndGet();
+            initStarted.countDown();
+            await(initReleased);
+            isInitialized.set(true);
+        });
+        Trade trade = getTrade("uid");
+        initializer.add(trade);
+
+        CompletableFuture<Trade> firstAccess = CompletableFuture.supplyAsync(() -> initializer.init(trade));
+        assertTrue(initStarted.await(10, TimeUnit.SECONDS));
+        assertTrue(initializer.isUninitialized(trade));
+        CountDownLatch secondAccessStarted = new CountDownLatch(1);
+        CompletableFuture<Boolean> secondAccess = CompletableFuture.supplyAsync(() -> {
+            secondAccessStarted.countDown();
+            initializer.init(trade);
+            return isInitialized.get();
+        });
+        assertTrue(secondAccessStarted.await(10, TimeUnit.SECONDS));
+
+        initReleased.countDown();
+        assertSame(trade, firstAccess.get(10, TimeUnit.SECONDS));
+        assertTrue(secondAccess.get(10, TimeUnit.SECONDS)); // waited for the first access instead of returning the trade halfway
+        assertEquals(1, numInitializations.get());
+        assertFalse(initializer.isUninitialized(trade));
+    }
+
+    @Test
+    public void testFailedInitializationCompletes() {
+        DormantTradeInitializer initializer = new DormantTradeInitializer(trade -> {
+            numInitializations.incrementAndGet();
+            throw new RuntimeException("daemon not available");
+        });
+        Trade trade = getTrade("uid");
+        initializer.add(trade);
+        assertSame(trade, initializer.init(trade));
+        assertSame(trade, initializer.init(trade));
+        assertEquals(1, numInitializations.get());
+    }
+
+    @Test
+    public void testShutDownSkipsUninitializedTrades() {
+        DormantTradeInitializer initializer = new DormantTradeInitializer(trade -> numInitializations.incrementAndGet());
+        Trade trade = getTrade("uid");
+        initializer.add(trade);
+        initializer.shutDown();
+        assertSame(trade, initializer.init(trade));
+        assertEquals(0, numInitializations.get());
+        assertTrue(initializer.isUninitialized(trade));
+    }
+
+    @Test
+    public void testShutDownWaitsForInitializingTrades() throws Exception {
+        CountDownLatch initStarted = new CountDownLatch(1);
+        CountDownLatch initReleased = new CountDownLatch(1);
+        AtomicBoolean isInitialized = new AtomicBoolean();
+        DormantTradeInitializer initializer = new DormantTradeInitializer(trade -> {
+            initStarted.countDown();
+            await(initReleased);
+            isInitialized.set(true);
+        });
+        Trade trade = getTrade("uid");
+        initializer.add(trade);
+
+        CompletableFuture.runAsync(() -> initializer.init(trade));
+        assertTrue(initStarted.await(10, TimeUnit.SECONDS));
+        CountDownLatch shutDownStarted = new CountDownLatch(1);
+        CompletableFuture<Boolean> shutDown = CompletableFuture.supplyAsync(() -> {
+            shutDownStarted.countDown();
+            initializer.shutDown();
+            return isInitialized.get();
+        });
+        assertTrue(shutDownStarted.await(10, TimeUnit.SECONDS));
+
+        initReleased.countDown();
+        assertTrue(shutDown.get(10, TimeUnit.SECONDS)); // waited for the initializing trade
+        assertFalse(initializer.isUninitialized(trade)); // initialized trade gets shut down
+    }
+
+    private static Trade getTrade(String uid) {
+        Trade trade = mock(Trade.class);
+        when(trade.getUid()).thenReturn(uid);
+        when(trade.getId()).thenReturn("tradeId");
+        return trade;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
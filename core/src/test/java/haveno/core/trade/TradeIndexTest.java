@@ -0,0 +1,82 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.core.offer.OpenOffer;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradeIndexTest {
+
+    @Test
+    public void testIndexFollowsList() {
+        ObservableList<Tradable> list = FXCollections.observableArrayList();
+        Trade existing = getTrade("existing", "uid0");
+        list.add(existing);
+        TradeIndex index = new TradeIndex(list);
+        assertSame(existing, index.getTradeById("existing"));
+
+        Trade trade = getTrade("tradeId", "uid1");
+        list.add(trade);
+        list.add(mock(OpenOffer.class));
+        assertSame(trade, index.getTradeById("tradeId"));
+        assertSame(trade, index.getTradeByUid("uid1"));
+        assertEquals(2, index.size());
+
+        list.remove(trade);
+        assertNull(index.getTradeById("tradeId"));
+        assertNull(index.getTradeByUid("uid1"));
+
+        Trade other = getTrade("otherId", "uid2");
+        list.setAll(List.of(other));
+        assertNull(index.getTradeById("existing"));
+        assertSame(other, index.getTradeById("otherId"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testDuplicateIdFallsBackToRemainingTrade() {
+        ObservableList<Trade> list = FXCollections.observableArrayList();
+        TradeIndex index = new TradeIndex(list);
+        Trade first = getTrade("tradeId", "uid1");
+        Trade second = getTrade("tradeId", "uid2");
+        list.addAll(first, second);
+        assertSame(first, index.getTradeById("tradeId"));
+
+        list.remove(first);
+        assertSame(second, index.getTradeById("tradeId"));
+        assertNull(index.getTradeByUid("uid1"));
+        assertSame(second, index.getTradeByUid("uid2"));
+    }
+
+    private static Trade getTrade(String id, String uid) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        when(trade.getUid()).thenReturn(uid);
+        return trade;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TradePeriodSchedulerTest {
+    private final ObservableList<Trade> trades = FXCollections.observableArrayList();
+    private final TradePeriodScheduler scheduler = new TradePeriodScheduler(trades);
+
+    @Test
+    public void testTransitionsFireOnce() {
+        Trade trade = getTrade(true, 1000, 2000);
+        trades.add(trade);
+        assertEquals(0, scheduler.getNumDeadlines()); // not started
+        scheduler.start();
+        assertFalse(scheduler.onTick(1000));
+        assertEquals(2, scheduler.getNumDeadlines());
+
+        assertTrue(scheduler.onTick(1001));
+        assertEquals(Trade.TradePeriodState.SECOND_HALF, trade.getPeriodState());
+        assertFalse(scheduler.onTick(1500));
+        assertTrue(scheduler.onTick(2001));
+        assertEquals(Trade.TradePeriodState.TRADE_PERIOD_OVER, trade.getPeriodState());
+        assertFalse(scheduler.onTick(3000));
+        assertEquals(0, scheduler.getNumDeadlines());
+        verify(trade, times(2)).setPeriodState(any());
+    }
+
+    @Test
+    public void testOnlyLatestDueStateIsApplied() {
+        Trade trade = getTrade(true, 1000, 2000);
+        trades.add(trade);
+        scheduler.start();
+        assertTrue(scheduler.onTick(5000));
+        verify(trade).setPeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
+        verify(trade, never()).setPeriodState(Trade.TradePeriodState.SECOND_HALF);
+    }
+
+    @Test
+    public void testTradeIsScheduledWhenDepositsUnlocked() {
+        Trade trade = getTrade(false, 1000, 2000);
+        trades.add(trade);
+        scheduler.start();
+        assertFalse(scheduler.onTick(0));
+        assertEquals(0, scheduler.getNumDeadlines());
+
+        when(trade.isDepositsUnlocked()).thenReturn(true);
+        ((SimpleObjectProperty<Trade.State>) trade.stateProperty()).set(Trade.State.DEPOSIT_TXS_UNLOCKED_IN_BLOCKCHAIN);
+        assertEquals(0, scheduler.getNumDeadlines()); // scheduled at the next tick
+        verify(trade, never()).getHalfTradePeriodDate();
+        assertFalse(scheduler.onTick(0));
+        assertEquals(2, scheduler.getNumDeadlines());
+    }
+
+    @Test
+    public void testFailedTradeIsRetriedAtNextTick() {
+        Trade trade = getTrade(true, 1000, 2000);
+        when(trade.getHalfTradePeriodDate()).thenThrow(new RuntimeException("daemon not available"))
+                .thenReturn(new Date(1000));
+        trades.add(trade);
+        scheduler.start();
+        assertFalse(scheduler.onTick(0));
+        assertEquals(0, scheduler.getNumDeadlines());
+        assertFalse(scheduler.onTick(0));
+        assertEquals(2, scheduler.getNumDeadlines());
+    }
+
+    @Test
+    public void testRemovedTradeIsUnscheduled() {
+        Trade trade = getTrade(true, 1000, 2000);
+        trades.add(trade);
+        scheduler.start();
+        trades.remove(trade);
+        assertEquals(0, scheduler.getNumDeadlines());
+        assertFalse(scheduler.onTick(5000));
+        verify(trade, never()).setPeriodState(any());
+    }
+
+    @Test
+    public void testPayoutPublishedTradeIsSkipped() {
+        Trade trade = getTrade(true, 1000, 2000);
+        trades.add(trade);
+        scheduler.start();
+        when(trade.isPayoutPublished()).thenReturn(true);
+        assertFalse(scheduler.onTick(5000));
+        verify(trade, never()).setPeriodState(any());
+    }
+
+    private static Trade getTrade(boolean isDepositsUnlocked, long halfTradePeriodTime, long maxTradePeriodTime) {
+        Trade trade = mock(Trade.class);
+        SimpleObjectProperty<Trade.State> stateProperty = new SimpleObjectProperty<>(Trade.State.PREPARATION);
+        SimpleObjectProperty<Trade.TradePeriodState> periodState = new SimpleObjectProperty<>(Trade.TradePeriodState.FIRST_HALF);
+        when(trade.getId()).thenReturn("tradeId");
+        when(trade.stateProperty()).thenReturn(stateProperty);
+        when(trade.isDepositsUnlocked()).thenReturn(isDepositsUnlocked);
+        when(trade.getTakeOfferDate()).thenReturn(new Date(0));
+        when(trade.getHalfTradePeriodDate()).thenReturn(new Date(halfTradePeriodTime));
+        when(trade.getMaxTradePeriodDate()).thenReturn(new Date(maxTradePeriodTime));
+        when(trade.getPeriodState()).thenAnswer(invocation -> periodState.get());
+        doAnswer(invocation -> {
+            periodState.set(invocation.getArgument(0));
+            return null;
+        }).when(trade).setPeriodState(any());
+        return trade;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade.statistics;
+
+import haveno.network.p2p.storage.P2PDataStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TradeStatisticsColumnsTest {
+    private final Map<P2PDataStorage.ByteArray, TradeStatistics3> store = new HashMap<>();
+
+    @Test
+    public void testScanIsSortedByDateAndBoundedByRange() {
+        TradeStatisticsColumns columns = new TradeStatisticsColumns(this::getByHash);
+        columns.add(create("USD", 300, 3));
+        columns.add(create("USD", 100, 1));
+        columns.add(create("EUR", 150, 5));
+        columns.add(create("USD", 200, 2));
+
+        List<Long> dates = new ArrayList<>();
+        List<Long> prices = new ArrayList<>();
+        columns.scan("USD", 100, 300, (date, price, amount) -> {
+            dates.add(date);
+            prices.add(price);
+        });
+        assertEquals(List.of(100L, 200L), dates);
+        assertEquals(List.of(1L, 2L), prices);
+        assertEquals(3, columns.getCount("USD", 0, Long.MAX_VALUE));
+        assertEquals(0, columns.getCount("USD", 301, Long.MAX_VALUE));
+        assertEquals(300, columns.getLatestDate("USD"));
+        assertEquals(0, columns.getLatestDate("BTC"));
+    }
+
+    @Test
+    public void testAddAllMergesWithExistingData() {
+        TradeStatisticsColumns columns = new TradeStatisticsColumns(this::getByHash);
+        columns.add(create("USD", 200, 2));
+        columns.addAll(List.of(create("USD", 300, 3), create("USD", 100, 1), create("EUR", 50, 9)));
+
+        assertEquals(4, columns.size());
+        List<TradeStatistics3> usd = columns.getTradeStatistics("USD", 0, Long.MAX_VALUE);
+        assertEquals(3, usd.size());
+        assertEquals(100, usd.get(0).getDateAsLong());
+        assertEquals(300, usd.get(2).getDateAsLong());
+        assertTrue(columns.getTradeStatistics("XMR", 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testScanAllCurrencies() {
+        TradeStatisticsColumns columns = new TradeStatisticsColumns(this::getByHash);
+        columns.add(create("USD", 100, 1));
+        columns.add(create("EUR", 200, 2));
+        columns.add(create("EUR", 400, 4));
+
+        long[] sumByCurrency = new long[2];
+        columns.scan(0, 300, (currencyIndex, date, price, amount) -> sumByCurrency[currencyIndex] += price);
+        assertEquals(1, sumByCurrency[columns.getCurrencyIndex("USD")]);
+        assertEquals(2, sumByCurrency[columns.getCurrencyIndex("EUR")]);
+        assertEquals("EUR", columns.getCurrencyCode(columns.getCurrencyIndex("EUR")));
+        assertEquals(-1, columns.getCurrencyIndex("BTC"));
+    }
+
+    @Test
+    public void testGetTradeStatisticsPaged() {
+        TradeStatisticsColumns columns = new TradeStatisticsColumns(this::getByHash);
+        columns.add(create("USD", 100, 1));
+        columns.add(create("EUR", 200, 2));
+        columns.add(create("USD", 300, 3));
+        columns.add(create("EUR", 300, 4));
+        columns.add(create("USD", 500, 5));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), getPrices(columns.getTradeStatistics(null, 0, Long.MAX_VALUE, 0, Integer.MAX_VALUE)));
+        assertEquals(List.of(3L, 4L), getPrices(columns.getTradeStatistics(null, 0, Long.MAX_VALUE, 2, 2)));
+        assertEquals(List.of(2L, 3L), getPrices(columns.getTradeStatistics(null, 200, 500, 0, 2)));
+        assertEquals(List.of(3L, 5L), getPrices(columns.getTradeStatistics("USD", 0, Long.MAX_VALUE, 1, 5)));
+        assertEquals(List.of(3L), getPrices(columns.getTradeStatistics("USD", 200, 400, 0, Integer.MAX_VALUE)));
+        assertTrue(columns.getTradeStatistics("USD", 0, Long.MAX_VALUE, 3, 5).isEmpty());
+        assertTrue(columns.getTradeStatistics("BTC", 0, Long.MAX_VALUE, 0, 5).isEmpty());
+        assertTrue(columns.getTradeStatistics(null, 0, Long.MAX_VALUE, 10, 5).isEmpty());
+    }
+
+    private static List<Long> getPrices(List<TradeStatistics3> tradeStatistics) {
+        List<Long> prices = new ArrayList<>();
+        tradeStatistics.forEach(e -> prices.add(e.getPrice()));
+        return prices;
+    }
+
+    @Test
+    public void testUnresolvableTradeStatisticsAreSkipped() {
+        TradeStatisticsColumns columns = new TradeStatisticsColumns(this::getByHash);
+        TradeStatistics3 removed = create("USD", 100, 1);
+        columns.add(removed);
+        columns.add(create("USD", 200, 2));
+        store.remove(new P2PDataStorage.ByteArray(removed.getHash()));
+
+        assertEquals(2, columns.getCount("USD", 0, Long.MAX_VALUE));
+        assertEquals(List.of(2L), getPrices(columns.getTradeStatistics("USD", 0, Long.MAX_VALUE)));
+    }
+
+    private TradeStatistics3 getByHash(byte[] hash) {
+        return store.get(new P2PDataStorage.ByteArray(hash));
+    }
+
+    private TradeStatistics3 create(String currency, long date, long price) {
+        TradeStatistics3 tradeStatistics = new TradeStatistics3(currency, price, 10000, "0", date, null, (byte[]) null);
+        store.put(new P2PDataStorage.ByteArray(tradeStatistics.getHash()), tradeStatistics);
+        return tradeStatistics;
+    }
+}
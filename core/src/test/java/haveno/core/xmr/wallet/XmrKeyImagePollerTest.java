@@ -0,0 +1,243 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import monero.daemon.model.MoneroKeyImageSpentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class XmrKeyImagePollerTest {
+    private FakeDaemon daemon;
+    private XmrKeyImagePoller poller;
+    private List<Map<String, MoneroKeyImageSpentStatus>> notifications;
+
+    @BeforeEach
+    public void setUp() {
+        daemon = new FakeDaemon();
+        poller = new XmrKeyImagePoller();
+        poller.setDaemon(daemon);
+        poller.setRefreshPeriodMs(3600000);
+        notifications = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        poller.clearKeyImages();
+    }
+
+    @Test
+    public void testRequestsAreChunked() {
+        List<String> keyImages = createKeyImages(XmrKeyImagePoller.MAX_KEY_IMAGES_PER_REQUEST * 2 + 1);
+        daemon.statuses.put(keyImages.get(keyImages.size() - 1), MoneroKeyImageSpentStatus.CONFIRMED);
+        poller.addKeyImages(keyImages);
+        poller.poll();
+
+        assertEquals(3, daemon.numRequests.get());
+        for (List<String> request : daemon.requests) {
+            assertTrue(request.size() <= XmrKeyImagePoller.MAX_KEY_IMAGES_PER_REQUEST);
+        }
+        assertFalse(poller.isSpent(keyImages.get(0)));
+        assertTrue(poller.isSpent(keyImages.get(keyImages.size() - 1)));
+    }
+
+    @Test
+    public void testNoRequestWithoutNewBlockOrTxPoolChange() {
+        poller.addKeyImages(createKeyImages(10));
+        poller.poll();
+        assertEquals(1, daemon.numRequests.get());
+
+        poller.poll();
+        poller.poll();
+        assertEquals(1, daemon.numRequests.get());
+
+        daemon.height++;
+        poller.poll();
+        assertEquals(2, daemon.numRequests.get());
+
+        daemon.txPoolHashes = Collections.singletonList("tx1");
+        poller.poll();
+        assertEquals(3, daemon.numRequests.get());
+    }
+
+    @Test
+    public void testOnlyPendingKeyImagesArePolledAgain() {
+        List<String> keyImages = createKeyImages(3);
+        daemon.statuses.put(keyImages.get(0), MoneroKeyImageSpentStatus.CONFIRMED);
+        daemon.statuses.put(keyImages.get(1), MoneroKeyImageSpentStatus.TX_POOL);
+        poller.addListener(notifications::add);
+        poller.addKeyImages(keyImages);
+        poller.poll();
+        assertEquals(1, notifications.size());
+        assertEquals(3, notifications.get(0).size());
+
+        daemon.statuses.put(keyImages.get(1), MoneroKeyImageSpentStatus.CONFIRMED);
+        daemon.height++;
+        poller.poll();
+        assertEquals(Set.of(keyImages.get(1), keyImages.get(2)), new HashSet<>(daemon.requests.get(1)));
+        assertEquals(2, notifications.size());
+        assertEquals(Map.of(keyImages.get(1), MoneroKeyImageSpentStatus.CONFIRMED), notifications.get(1));
+    }
+
+    @Test
+    public void testNewKeyImagesArePolledWithoutNewBlock() {
+        List<String> keyImages = createKeyImages(2);
+        poller.addKeyImage(keyImages.get(0));
+        poller.poll();
+
+        poller.addKeyImage(keyImages.get(1));
+        poller.poll();
+        assertEquals(List.of(keyImages.get(1)), daemon.requests.get(1));
+    }
+
+    @Test
+    public void testRemoveKeepsStatusesOfOtherKeyImages() {
+        List<String> keyImages = createKeyImages(3);
+        poller.addKeyImages(keyImages);
+        poller.poll();
+
+        poller.removeKeyImage(keyImages.get(0));
+        assertNull(poller.getLastSpentStatus(keyImages.get(0)));
+        assertEquals(MoneroKeyImageSpentStatus.NOT_SPENT, poller.getLastSpentStatus(keyImages.get(1)));
+        assertEquals(MoneroKeyImageSpentStatus.NOT_SPENT, poller.getLastSpentStatus(keyImages.get(2)));
+
+        poller.addKeyImages((List<String>) null);
+        poller.removeKeyImages((List<String>) null);
+        assertEquals(2, poller.getKeyImages().size());
+    }
+
+    @Test
+    public void testConfirmedKeyImagesArePolledAtLowRate() {
+        List<String> keyImages = createKeyImages(2);
+        daemon.statuses.put(keyImages.get(0), MoneroKeyImageSpentStatus.CONFIRMED);
+        poller.addListener(notifications::add);
+        poller.addKeyImages(keyImages);
+        poller.poll();
+
+        daemon.height += XmrKeyImagePoller.CONFIRMED_POLL_PERIOD_BLOCKS - 1;
+        poller.poll();
+        assertEquals(List.of(keyImages.get(1)), daemon.requests.get(1));
+
+        // the spend got reorganized back into the tx pool
+        daemon.statuses.put(keyImages.get(0), MoneroKeyImageSpentStatus.TX_POOL);
+        daemon.height++;
+        poller.poll();
+        assertEquals(new HashSet<>(keyImages), new HashSet<>(daemon.requests.get(2)));
+        assertEquals(Map.of(keyImages.get(0), MoneroKeyImageSpentStatus.TX_POOL), notifications.get(1));
+    }
+
+    @Test
+    public void testConfirmedKeyImagesArePolledWhenChainGetsShorter() {
+        List<String> keyImages = createKeyImages(1);
+        daemon.statuses.put(keyImages.get(0), MoneroKeyImageSpentStatus.CONFIRMED);
+        poller.addKeyImages(keyImages);
+        poller.poll();
+
+        daemon.height--;
+        poller.poll();
+        assertEquals(2, daemon.numRequests.get());
+    }
+
+    @Test
+    public void testRegistrationDoesNotWaitForDaemon() throws Exception {
+        List<String> keyImages = createKeyImages(2);
+        daemon.requestLatch = new CountDownLatch(1);
+        poller.addKeyImage(keyImages.get(0));
+        Thread pollThread = new Thread(poller::poll);
+        pollThread.start();
+        while (daemon.numRequests.get() == 0) Thread.sleep(1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            poller.addKeyImage(keyImages.get(1));
+            poller.removeKeyImage(keyImages.get(0));
+            poller.setDaemon(daemon);
+        });
+
+        // the result of the poll against the replaced daemon is discarded
+        daemon.requestLatch.countDown();
+        pollThread.join();
+        assertNull(poller.getLastSpentStatus(keyImages.get(0)));
+        assertNull(poller.getLastSpentStatus(keyImages.get(1)));
+
+        poller.poll();
+        assertEquals(MoneroKeyImageSpentStatus.NOT_SPENT, poller.getLastSpentStatus(keyImages.get(1)));
+    }
+
+    private static List<String> createKeyImages(int numKeyImages) {
+        List<String> keyImages = new ArrayList<>();
+        for (int i = 0; i < numKeyImages; i++) {
+            keyImages.add("keyImage" + i);
+        }
+        return keyImages;
+    }
+
+    private static class FakeDaemon implements XmrKeyImageDaemon {
+        private final Map<String, MoneroKeyImageSpentStatus> statuses = new ConcurrentHashMap<>();
+        private final List<List<String>> requests = new CopyOnWriteArrayList<>();
+        private final AtomicInteger numRequests = new AtomicInteger();
+        private volatile long height = 100;
+        private volatile List<String> txPoolHashes = Collections.emptyList();
+        private volatile CountDownLatch requestLatch;
+
+        @Override
+        public List<MoneroKeyImageSpentStatus> getKeyImageSpentStatuses(List<String> keyImages) {
+            requests.add(new ArrayList<>(keyImages));
+            numRequests.incrementAndGet();
+            if (requestLatch != null) {
+                try {
+                    requestLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<MoneroKeyImageSpentStatus> result = new ArrayList<>();
+            for (String keyImage : keyImages) {
+                result.add(statuses.getOrDefault(keyImage, MoneroKeyImageSpentStatus.NOT_SPENT));
+            }
+            return result;
+        }
+
+        @Override
+        public long getHeight() {
+            return height;
+        }
+
+        @Override
+        public List<String> getTxPoolHashes() {
+            return txPoolHashes;
+        }
+    }
+}
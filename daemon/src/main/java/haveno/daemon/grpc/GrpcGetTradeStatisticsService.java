@@ -6,22 +6,31 @@ import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import haveno.proto.grpc.GetTradeStatisticsReply;
 import haveno.proto.grpc.GetTradeStatisticsRequest;
+import haveno.proto.grpc.StreamTradeStatisticsRequest;
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static haveno.proto.grpc.GetTradeStatisticsGrpc.GetTradeStatisticsImplBase;
 import static haveno.proto.grpc.GetTradeStatisticsGrpc.getGetTradeStatisticsMethod;
+import static haveno.proto.grpc.GetTradeStatisticsGrpc.getStreamTradeStatisticsMethod;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Slf4j
 class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 10000;
 
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
@@ -36,18 +45,81 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
     public void getTradeStatistics(GetTradeStatisticsRequest req,
                                    StreamObserver<GetTradeStatisticsReply> responseObserver) {
         try {
-            var tradeStatistics = coreApi.getTradeStatistics().stream()
-                    .map(TradeStatistics3::toProtoTradeStatistics3)
-                    .collect(Collectors.toList());
-
-            var reply = GetTradeStatisticsReply.newBuilder().addAllTradeStatistics(tradeStatistics).build();
-            responseObserver.onNext(reply);
+            var tradeStatistics = getTradeStatistics(req.getCurrencyCode(),
+                    req.getSinceDate(),
+                    req.getUntilDate(),
+                    0,
+                    req.getLimit());
+            responseObserver.onNext(toReply(tradeStatistics, tradeStatistics.size()));
             responseObserver.onCompleted();
         } catch (Throwable cause) {
             exceptionHandler.handleException(log, cause, responseObserver);
         }
     }
 
+    @Override
+    public void streamTradeStatistics(StreamTradeStatisticsRequest req,
+                                      StreamObserver<GetTradeStatisticsReply> responseObserver) {
+        try {
+            checkArgument(req.getStartIndex() >= 0, "start index must not be negative");
+            checkArgument(req.getPageSize() >= 0 && req.getPageSize() <= MAX_PAGE_SIZE,
+                    "page size must be between 0 and " + MAX_PAGE_SIZE);
+            int pageSize = req.getPageSize() == 0 ? DEFAULT_PAGE_SIZE : req.getPageSize();
+
+            // We only collect the references of the requested trade statistics and convert them page by page
+            var tradeStatistics = getTradeStatistics(req.getCurrencyCode(),
+                    req.getSinceDate(),
+                    req.getUntilDate(),
+                    req.getStartIndex(),
+                    req.getLimit());
+            var serverCallStreamObserver = (ServerCallStreamObserver<GetTradeStatisticsReply>) responseObserver;
+            AtomicInteger numSent = new AtomicInteger();
+            AtomicBoolean completed = new AtomicBoolean();
+            serverCallStreamObserver.setOnCancelHandler(() -> {
+                completed.set(true);
+                log.info("Client cancelled trade statistics stream after {} of {} items", numSent.get(), tradeStatistics.size());
+            });
+            // We send the next pages only when the client is ready to receive them, so we do not buffer the whole stream
+            serverCallStreamObserver.setOnReadyHandler(() -> {
+                try {
+                    while (serverCallStreamObserver.isReady() && !completed.get()) {
+                        int from = numSent.get();
+                        int to = Math.min(from + pageSize, tradeStatistics.size());
+                        responseObserver.onNext(toReply(tradeStatistics.subList(from, to), req.getStartIndex() + to));
+                        numSent.set(to);
+                        if (to == tradeStatistics.size()) {
+                            completed.set(true);
+                            responseObserver.onCompleted();
+                        }
+                    }
+                } catch (Throwable cause) {
+                    completed.set(true);
+                    exceptionHandler.handleException(log, cause, responseObserver);
+                }
+            });
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private List<TradeStatistics3> getTradeStatistics(String currencyCode, long sinceDate, long untilDate, int offset, int limit) {
+        checkArgument(limit >= 0, "limit must not be negative");
+        return coreApi.getTradeStatistics(currencyCode.isEmpty() ? null : currencyCode.toUpperCase(),
+                sinceDate,
+                untilDate == 0 ? Long.MAX_VALUE : untilDate,
+                offset,
+                limit == 0 ? Integer.MAX_VALUE : limit);
+    }
+
+    private static GetTradeStatisticsReply toReply(List<TradeStatistics3> tradeStatistics, int nextIndex) {
+        return GetTradeStatisticsReply.newBuilder()
+                .addAllTradeStatistics(tradeStatistics.stream()
+                        .map(TradeStatistics3::toProtoTradeStatistics3)
+                        .collect(Collectors.toList()))
+                .setNextIndex(nextIndex)
+                .build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -59,6 +131,7 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getStreamTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                         }}
                 )));
     }
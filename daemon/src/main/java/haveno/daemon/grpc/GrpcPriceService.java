@@ -19,6 +19,7 @@ package haveno.daemon.grpc;
 
 import haveno.common.config.Config;
 import haveno.core.api.CoreApi;
+import haveno.core.api.MarketDepthListener;
 import haveno.core.api.model.MarketDepthInfo;
 import haveno.core.api.model.MarketPriceInfo;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
@@ -31,6 +32,7 @@ import haveno.proto.grpc.MarketPricesReply;
 import haveno.proto.grpc.MarketPricesRequest;
 import haveno.proto.grpc.PriceGrpc.PriceImplBase;
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
@@ -38,6 +40,8 @@ import javax.inject.Inject;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static haveno.proto.grpc.PriceGrpc.getGetMarketPriceMethod;
@@ -89,6 +93,56 @@ class GrpcPriceService extends PriceImplBase {
         }
     }
 
+    @Override
+    public void streamMarketDepth(MarketDepthRequest req,
+                                  StreamObserver<MarketDepthReply> responseObserver) {
+        try {
+            String currencyCode = req.getCurrencyCode().toUpperCase();
+            var serverCallStreamObserver = (ServerCallStreamObserver<MarketDepthReply>) responseObserver;
+            // Updates are coalesced while the client is not ready, so a slow client only gets the latest depth
+            AtomicReference<MarketDepthInfo> pendingMarketDepth = new AtomicReference<>();
+            // The initial depth is only used if the listener did not provide a newer one meanwhile
+            AtomicBoolean hasMarketDepthUpdate = new AtomicBoolean();
+            Runnable sendPendingMarketDepth = () -> {
+                synchronized (responseObserver) {
+                    if (serverCallStreamObserver.isCancelled() || !serverCallStreamObserver.isReady()) {
+                        return;
+                    }
+                    MarketDepthInfo marketDepth = pendingMarketDepth.getAndSet(null);
+                    if (marketDepth != null) {
+                        responseObserver.onNext(mapMarketDepthReply(marketDepth));
+                    }
+                }
+            };
+            MarketDepthListener listener = marketDepth -> {
+                if (marketDepth.currencyCode.equals(currencyCode)) {
+                    synchronized (hasMarketDepthUpdate) {
+                        hasMarketDepthUpdate.set(true);
+                        pendingMarketDepth.set(marketDepth);
+                    }
+                    sendPendingMarketDepth.run();
+                }
+            };
+            serverCallStreamObserver.setOnCancelHandler(() -> coreApi.removeMarketDepthListener(listener));
+            serverCallStreamObserver.setOnReadyHandler(sendPendingMarketDepth);
+            coreApi.addMarketDepthListener(listener);
+            try {
+                MarketDepthInfo initialMarketDepth = coreApi.getMarketDepth(currencyCode);
+                synchronized (hasMarketDepthUpdate) {
+                    if (!hasMarketDepthUpdate.get()) {
+                        pendingMarketDepth.set(initialMarketDepth);
+                    }
+                }
+            } catch (Throwable cause) {
+                coreApi.removeMarketDepthListener(listener);
+                throw cause;
+            }
+            sendPendingMarketDepth.run();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     private MarketPricesReply mapMarketPricesReply(List<MarketPriceInfo> marketPrices) {
         MarketPricesReply.Builder builder = MarketPricesReply.newBuilder();
         marketPrices.stream()
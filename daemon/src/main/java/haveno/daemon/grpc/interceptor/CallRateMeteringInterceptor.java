@@ -17,17 +17,30 @@
 
 package haveno.daemon.grpc.interceptor;
 
+import io.grpc.Grpc;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
 import io.grpc.StatusRuntimeException;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.annotation.Nullable;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 import static io.grpc.Status.PERMISSION_DENIED;
 import static java.lang.String.format;
@@ -36,10 +49,46 @@ import static java.util.stream.Collectors.joining;
 @Slf4j
 public final class CallRateMeteringInterceptor implements ServerInterceptor {
 
+    // Max. number of client rate meters per method. If exceeded, the meters of the least recently calling clients are
+    // removed down to EVICTED_NUM_CLIENT_RATE_METERS, so the eviction does not run on every call of a new client.
+    static final int MAX_NUM_CLIENT_RATE_METERS = 1000;
+    static final int EVICTED_NUM_CLIENT_RATE_METERS = MAX_NUM_CLIENT_RATE_METERS * 9 / 10;
+
+    private static class ClientRateMeter {
+        final GrpcCallRateMeter rateMeter;
+        volatile long lastCallTime;
+
+        ClientRateMeter(GrpcCallRateMeter rateMeter) {
+            this.rateMeter = rateMeter;
+            this.lastCallTime = System.currentTimeMillis();
+        }
+    }
+
+    @Value
+    public static class CallRateMetrics {
+        String methodName;
+        int allowedCallsPerTimeWindow;
+        int allowedCallsPerClientPerTimeWindow;
+        TimeUnit timeUnit;
+        int numTimeUnits;
+        // Calls of all clients in the current time window
+        int callsCount;
+        long numAcceptedCalls;
+        long numRejectedCalls;
+        int numClients;
+    }
+
     // Maps the gRPC server method names to rate meters.  This allows one interceptor
     // instance to handle rate metering for any or all the methods in a Grpc*Service.
     protected final Map<String, GrpcCallRateMeter> serviceCallRateMeters;
 
+    // Each client additionally gets its own rate meter per method with the smaller client limit of the configured rate
+    // meter, so a client calling at a high rate does not use up the calls of other clients. The configured rate meter
+    // still limits the calls of all clients. Clients are identified by their address.
+    private final Map<String, Map<String, ClientRateMeter>> clientCallRateMeters = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> numAcceptedCallsByMethod = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> numRejectedCallsByMethod = new ConcurrentHashMap<>();
+
     public CallRateMeteringInterceptor(Map<String, GrpcCallRateMeter> serviceCallRateMeters) {
         this.serviceCallRateMeters = serviceCallRateMeters;
     }
@@ -63,11 +112,83 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
                                                  ServerCall<?, ?> serverCall) {
         String methodName = rateMeterKV.getKey();
         GrpcCallRateMeter rateMeter = rateMeterKV.getValue();
+        GrpcCallRateMeter clientRateMeter = getClientRateMeter(methodName, rateMeter, serverCall);
 
-        if (!rateMeter.checkAndIncrement())
+        // The client's meter is checked first, so calls rejected for exceeding the client's limit do not use up the
+        // calls of the other clients
+        if (clientRateMeter != null && !clientRateMeter.checkAndIncrement()) {
+            numRejectedCallsByMethod.computeIfAbsent(methodName, key -> new LongAdder()).increment();
+            handlePermissionDeniedWarningAndCloseCall(methodName, clientRateMeter, serverCall);
+        } else if (!rateMeter.checkAndIncrement()) {
+            numRejectedCallsByMethod.computeIfAbsent(methodName, key -> new LongAdder()).increment();
             handlePermissionDeniedWarningAndCloseCall(methodName, rateMeter, serverCall);
-        else
+        } else {
+            numAcceptedCallsByMethod.computeIfAbsent(methodName, key -> new LongAdder()).increment();
             log.info(rateMeter.getCallsCountProgress(methodName));
+        }
+    }
+
+    @Nullable
+    private GrpcCallRateMeter getClientRateMeter(String methodName,
+                                                 GrpcCallRateMeter rateMeter,
+                                                 ServerCall<?, ?> serverCall) {
+        SocketAddress remoteAddress = serverCall.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        if (remoteAddress == null) {
+            return null;
+        }
+        // The port changes with each connection of a client, so we only use the host address
+        String clientKey = remoteAddress instanceof InetSocketAddress && ((InetSocketAddress) remoteAddress).getAddress() != null ?
+                ((InetSocketAddress) remoteAddress).getAddress().getHostAddress() :
+                remoteAddress.toString();
+        Map<String, ClientRateMeter> rateMeters = clientCallRateMeters.computeIfAbsent(methodName,
+                key -> new ConcurrentHashMap<>());
+        ClientRateMeter clientRateMeter = rateMeters.computeIfAbsent(clientKey,
+                key -> new ClientRateMeter(rateMeter.newClientInstance()));
+        clientRateMeter.lastCallTime = System.currentTimeMillis();
+        if (rateMeters.size() > MAX_NUM_CLIENT_RATE_METERS) {
+            evictClientRateMeters(rateMeters);
+        }
+        return clientRateMeter.rateMeter;
+    }
+
+    private void evictClientRateMeters(Map<String, ClientRateMeter> rateMeters) {
+        // Only one thread evicts, the others keep using the map meanwhile
+        synchronized (rateMeters) {
+            if (rateMeters.size() <= MAX_NUM_CLIENT_RATE_METERS) {
+                return;
+            }
+            int numToEvict = rateMeters.size() - EVICTED_NUM_CLIENT_RATE_METERS;
+            rateMeters.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastCallTime))
+                    .limit(numToEvict)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(rateMeters::remove);
+        }
+    }
+
+    /**
+     * Returns the call rate metrics of the metered methods.
+     */
+    public List<CallRateMetrics> getCallRateMetrics() {
+        return serviceCallRateMeters.entrySet().stream()
+                .map(e -> getCallRateMetrics(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private CallRateMetrics getCallRateMetrics(String methodName, GrpcCallRateMeter rateMeter) {
+        Map<String, ClientRateMeter> rateMeters = clientCallRateMeters.getOrDefault(methodName, Collections.emptyMap());
+        LongAdder numAcceptedCalls = numAcceptedCallsByMethod.get(methodName);
+        LongAdder numRejectedCalls = numRejectedCallsByMethod.get(methodName);
+        return new CallRateMetrics(methodName,
+                rateMeter.getAllowedCallsPerTimeWindow(),
+                rateMeter.getAllowedCallsPerClientPerTimeWindow(),
+                rateMeter.getTimeUnit(),
+                rateMeter.getNumTimeUnits(),
+                rateMeter.getCallsCount(),
+                numAcceptedCalls == null ? 0 : numAcceptedCalls.sum(),
+                numRejectedCalls == null ? 0 : numRejectedCalls.sum(),
+                rateMeters.size());
     }
 
     private void handleMissingRateMeterConfiguration(ServerCall<?, ?> serverCall)
@@ -83,6 +204,7 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
             throws StatusRuntimeException {
         String msg = getDefaultRateExceededError(methodName, rateMeter);
         log.warn(msg + ".");
+        log.info("Call rate metrics: {}", getCallRateMetrics(methodName, serviceCallRateMeters.get(methodName)));
         serverCall.close(PERMISSION_DENIED.withDescription(msg.toLowerCase()), new Metadata());
     }
 
@@ -101,8 +223,8 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
 
     private Optional<Map.Entry<String, GrpcCallRateMeter>> getRateMeterKV(ServerCall<?, ?> serverCall) {
         String rateMeterKey = getRateMeterKey(serverCall);
-        return serviceCallRateMeters.entrySet().stream()
-                .filter((e) -> e.getKey().equals(rateMeterKey)).findFirst();
+        GrpcCallRateMeter rateMeter = serviceCallRateMeters.get(rateMeterKey);
+        return rateMeter == null ? Optional.empty() : Optional.of(new AbstractMap.SimpleImmutableEntry<>(rateMeterKey, rateMeter));
     }
 
     private String getRateMeterKey(ServerCall<?, ?> serverCall) {
@@ -118,7 +240,7 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
         String rateMetersString =
                 serviceCallRateMeters.entrySet()
                         .stream()
-                        .map(Object::toString)
+                        .map(e -> e.getKey() + "=" + e.getValue() + ", " + getCallRateMetrics(e.getKey(), e.getValue()))
                         .collect(joining("\n\t\t"));
         return "CallRateMeteringInterceptor {" + "\n\t" +
                 "serviceCallRateMeters {" + "\n\t\t" +
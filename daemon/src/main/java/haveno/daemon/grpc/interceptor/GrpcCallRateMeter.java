@@ -4,15 +4,27 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayDeque;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 
+/**
+ * Sliding window rate meter. It is lock-free and its memory is fixed at construction.
+ *
+ * Up to MAX_NUM_EXACT_CALLS allowed calls per time window the timestamps of the last accepted calls are kept in a ring
+ * buffer of fixed size, so the meter is exact (concurrent calls can exceed the limit by a few calls, if a thread is
+ * suspended between accepting a call and recording its timestamp). For higher limits a sliding window counter of constant size is used,
+ * which weights the calls of the previous fixed window by the part of it still covered by the sliding window.
+ */
 @Slf4j
 public class GrpcCallRateMeter {
+    static final int MAX_NUM_EXACT_CALLS = 1024;
+    // If no client limit is configured, a client can make this share of the allowed calls
+    static final int DEFAULT_CLIENT_SHARE_DIVISOR = 2;
 
     @Getter
     private final int allowedCallsPerTimeWindow;
@@ -20,83 +32,178 @@ public class GrpcCallRateMeter {
     private final TimeUnit timeUnit;
     @Getter
     private final int numTimeUnits;
+    // Allowed calls of a single client per time window, 0 for the default share of the allowed calls
+    private final int allowedCallsPerClientPerTimeWindow;
 
     @Getter
     private transient final long timeUnitIntervalInMilliseconds;
 
-    private transient final ArrayDeque<Long> callTimestamps;
+    // Timestamps of the last accepted calls, indexed by the call number modulo the allowed calls. Null if the meter
+    // uses the sliding window counter.
+    private transient final AtomicLongArray callTimestamps;
+    private transient final AtomicReference<WindowCounts> windowCounts;
+    private transient final AtomicLong numAcceptedCalls = new AtomicLong();
+
+    private static class WindowCounts {
+        private final long windowIndex;
+        private final long previousCount;
+        private final long currentCount;
+
+        WindowCounts(long windowIndex, long previousCount, long currentCount) {
+            this.windowIndex = windowIndex;
+            this.previousCount = previousCount;
+            this.currentCount = currentCount;
+        }
+
+        WindowCounts moveTo(long windowIndex) {
+            if (windowIndex == this.windowIndex) {
+                return this;
+            }
+            return new WindowCounts(windowIndex, windowIndex == this.windowIndex + 1 ? currentCount : 0, 0);
+        }
+    }
 
     public GrpcCallRateMeter(int allowedCallsPerTimeWindow, TimeUnit timeUnit) {
         this(allowedCallsPerTimeWindow, timeUnit, 1);
     }
 
     public GrpcCallRateMeter(int allowedCallsPerTimeWindow, TimeUnit timeUnit, int numTimeUnits) {
+        this(allowedCallsPerTimeWindow, timeUnit, numTimeUnits, 0);
+    }
+
+    public GrpcCallRateMeter(int allowedCallsPerTimeWindow,
+                             TimeUnit timeUnit,
+                             int numTimeUnits,
+                             int allowedCallsPerClientPerTimeWindow) {
         this.allowedCallsPerTimeWindow = allowedCallsPerTimeWindow;
         this.timeUnit = timeUnit;
         this.numTimeUnits = numTimeUnits;
+        this.allowedCallsPerClientPerTimeWindow = allowedCallsPerClientPerTimeWindow;
         this.timeUnitIntervalInMilliseconds = timeUnit.toMillis(1) * numTimeUnits;
-        this.callTimestamps = new ArrayDeque<>();
+        if (allowedCallsPerTimeWindow <= MAX_NUM_EXACT_CALLS) {
+            this.callTimestamps = new AtomicLongArray(Math.max(0, allowedCallsPerTimeWindow));
+            for (int i = 0; i < callTimestamps.length(); i++) {
+                callTimestamps.set(i, Long.MIN_VALUE);
+            }
+            this.windowCounts = null;
+        } else {
+            this.callTimestamps = null;
+            this.windowCounts = new AtomicReference<>(new WindowCounts(0, 0, 0));
+        }
+    }
+
+    /**
+     * Returns the allowed calls of a single client per time window, which is the configured client limit or else
+     * 1/DEFAULT_CLIENT_SHARE_DIVISOR of the allowed calls. It is never higher than the allowed calls.
+     */
+    public int getAllowedCallsPerClientPerTimeWindow() {
+        int allowedCallsPerClient = allowedCallsPerClientPerTimeWindow > 0 ?
+                allowedCallsPerClientPerTimeWindow :
+                Math.max(1, allowedCallsPerTimeWindow / DEFAULT_CLIENT_SHARE_DIVISOR);
+        return Math.min(allowedCallsPerClient, allowedCallsPerTimeWindow);
+    }
+
+    /**
+     * Returns a new rate meter for a single client with the client limit and without calls.
+     */
+    public GrpcCallRateMeter newClientInstance() {
+        return new GrpcCallRateMeter(getAllowedCallsPerClientPerTimeWindow(), timeUnit, numTimeUnits);
     }
 
     public boolean checkAndIncrement() {
-        synchronized (callTimestamps) {
-            if (getCallsCount() < allowedCallsPerTimeWindow) {
-                incrementCallsCount();
-                return true;
-            } else {
-                return false;
-            }
+        long now = currentTimeMillis();
+        if (allowedCallsPerTimeWindow <= 0) {
+            return false;
+        } else if (callTimestamps != null) {
+            return checkAndIncrementExact(now);
+        } else {
+            return checkAndIncrementWindowCounts(now);
         }
     }
 
     public int getCallsCount() {
-        synchronized (callTimestamps) {
-            removeStaleCallTimestamps();
-            return callTimestamps.size();
+        long now = currentTimeMillis();
+        if (callTimestamps != null) {
+            int count = 0;
+            for (int i = 0; i < callTimestamps.length(); i++) {
+                if (!isStale(callTimestamps.get(i), now)) {
+                    count++;
+                }
+            }
+            return count;
         }
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(getEstimatedCount(windowCounts.get(), now)));
+    }
+
+    public long getNumAcceptedCalls() {
+        return numAcceptedCalls.get();
     }
 
     public String getCallsCountProgress(String calledMethodName) {
-        synchronized (callTimestamps) {
-            String shortTimeUnitName = StringUtils.chop(timeUnit.name().toLowerCase());
-            // Just print 'GetVersion has been called N times...',
-            // not 'io.haveno.protobuffer.GetVersion/GetVersion has been called N times...'
-            String loggedMethodName = calledMethodName.split("/")[1];
-            return format("%s has been called %d time%s in the last %s, rate limit is %d/%s",
-                    loggedMethodName,
-                    callTimestamps.size(),
-                    callTimestamps.size() == 1 ? "" : "s",
-                    shortTimeUnitName,
-                    allowedCallsPerTimeWindow,
-                    shortTimeUnitName);
-        }
+        String shortTimeUnitName = StringUtils.chop(timeUnit.name().toLowerCase());
+        // Just print 'GetVersion has been called N times...',
+        // not 'io.haveno.protobuffer.GetVersion/GetVersion has been called N times...'
+        String loggedMethodName = calledMethodName.split("/")[1];
+        int callsCount = getCallsCount();
+        return format("%s has been called %d time%s in the last %s, rate limit is %d/%s",
+                loggedMethodName,
+                callsCount,
+                callsCount == 1 ? "" : "s",
+                shortTimeUnitName,
+                allowedCallsPerTimeWindow,
+                shortTimeUnitName);
     }
 
-    private void incrementCallsCount() {
-        callTimestamps.add(currentTimeMillis());
+    private boolean checkAndIncrementExact(long now) {
+        while (true) {
+            // The slot of the next call holds the timestamp of the call accepted allowedCallsPerTimeWindow calls ago
+            long callNumber = numAcceptedCalls.get();
+            int slot = (int) (callNumber % callTimestamps.length());
+            if (!isStale(callTimestamps.get(slot), now)) {
+                return false;
+            }
+            if (numAcceptedCalls.compareAndSet(callNumber, callNumber + 1)) {
+                callTimestamps.set(slot, now);
+                return true;
+            }
+        }
     }
 
-    private void removeStaleCallTimestamps() {
-        while (!callTimestamps.isEmpty() && isStale.test(callTimestamps.peek())) {
-            callTimestamps.remove();
+    private boolean checkAndIncrementWindowCounts(long now) {
+        long windowIndex = now / timeUnitIntervalInMilliseconds;
+        while (true) {
+            WindowCounts counts = windowCounts.get();
+            WindowCounts currentCounts = counts.moveTo(windowIndex);
+            if (getEstimatedCount(currentCounts, now) >= allowedCallsPerTimeWindow) {
+                return false;
+            }
+            WindowCounts incrementedCounts = new WindowCounts(windowIndex, currentCounts.previousCount, currentCounts.currentCount + 1);
+            if (windowCounts.compareAndSet(counts, incrementedCounts)) {
+                numAcceptedCalls.incrementAndGet();
+                return true;
+            }
         }
     }
 
-    private final Predicate<Long> isStale = (t) -> {
-        long stale = currentTimeMillis() - this.getTimeUnitIntervalInMilliseconds();
-        // Is the given timestamp before the current time minus 1 timeUnit in millis?
-        return t < stale;
-    };
+    private double getEstimatedCount(WindowCounts counts, long now) {
+        WindowCounts currentCounts = counts.moveTo(now / timeUnitIntervalInMilliseconds);
+        double elapsedPartOfWindow = (double) (now % timeUnitIntervalInMilliseconds) / timeUnitIntervalInMilliseconds;
+        return currentCounts.previousCount * (1 - elapsedPartOfWindow) + currentCounts.currentCount;
+    }
+
+    // Is the given timestamp before the current time minus 1 timeUnit in millis?
+    private boolean isStale(long timestamp, long now) {
+        return timestamp < now - timeUnitIntervalInMilliseconds;
+    }
 
     @Override
     public String toString() {
-        synchronized (callTimestamps) {
-            return "GrpcCallRateMeter{" +
-                    "allowedCallsPerTimeWindow=" + allowedCallsPerTimeWindow +
-                    ", timeUnit=" + timeUnit.name() +
-                    ", timeUnitIntervalInMilliseconds=" + timeUnitIntervalInMilliseconds +
-                    ", callsCount=" + callTimestamps.size() +
-                    '}';
-        }
+        return "GrpcCallRateMeter{" +
+                "allowedCallsPerTimeWindow=" + allowedCallsPerTimeWindow +
+                ", allowedCallsPerClientPerTimeWindow=" + getAllowedCallsPerClientPerTimeWindow() +
+                ", timeUnit=" + timeUnit.name() +
+                ", timeUnitIntervalInMilliseconds=" + timeUnitIntervalInMilliseconds +
+                ", callsCount=" + getCallsCount() +
+                '}';
     }
 }
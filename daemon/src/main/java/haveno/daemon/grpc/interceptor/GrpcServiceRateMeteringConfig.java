@@ -55,6 +55,7 @@ public class GrpcServiceRateMeteringConfig {
     private static final String KEY_ALLOWED_CALL_PER_TIME_WINDOW = "allowedCallsPerTimeWindow";
     private static final String KEY_TIME_UNIT = "timeUnit";
     private static final String KEY_NUM_TIME_UNITS = "numTimeUnits";
+    private static final String KEY_ALLOWED_CALLS_PER_CLIENT_PER_TIME_WINDOW = "allowedCallsPerClientPerTimeWindow";
 
     private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
@@ -181,7 +182,12 @@ public class GrpcServiceRateMeteringConfig {
         int allowedCallsPerTimeWindow = ((Number) valueMap.get(KEY_ALLOWED_CALL_PER_TIME_WINDOW)).intValue();
         TimeUnit timeUnit = TimeUnit.valueOf((String) valueMap.get(KEY_TIME_UNIT));
         int numTimeUnits = ((Number) valueMap.get(KEY_NUM_TIME_UNITS)).intValue();
-        return new GrpcCallRateMeter(allowedCallsPerTimeWindow, timeUnit, numTimeUnits);
+        // The client limit is optional, config files without it use the default share of the allowed calls
+        Number allowedCallsPerClientPerTimeWindow = (Number) valueMap.get(KEY_ALLOWED_CALLS_PER_CLIENT_PER_TIME_WINDOW);
+        return new GrpcCallRateMeter(allowedCallsPerTimeWindow,
+                timeUnit,
+                numTimeUnits,
+                allowedCallsPerClientPerTimeWindow == null ? 0 : allowedCallsPerClientPerTimeWindow.intValue());
     }
 
     private static void verifyConfigFile(File configFile) {
@@ -0,0 +1,167 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc.interceptor;
+
+import io.grpc.Attributes;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CallRateMeteringInterceptorTest {
+    private static final String METHOD_NAME = "io.haveno.protobuffer.Help/GetMethodHelp";
+
+    @Test
+    public void testMethodLimitIsSharedByAllClients() {
+        CallRateMeteringInterceptor interceptor = createInterceptor(2, 2);
+        assertAccepted(interceptor, "10.0.0.1");
+        assertAccepted(interceptor, "10.0.0.1");
+        assertRejected(interceptor, "10.0.0.2");
+
+        CallRateMeteringInterceptor.CallRateMetrics metrics = interceptor.getCallRateMetrics().get(0);
+        assertEquals(2, metrics.getCallsCount());
+        assertEquals(2, metrics.getNumAcceptedCalls());
+        assertEquals(1, metrics.getNumRejectedCalls());
+    }
+
+    @Test
+    public void testClientLimitDoesNotUseUpCallsOfOtherClients() {
+        CallRateMeteringInterceptor interceptor = createInterceptor(4, 2);
+        assertAccepted(interceptor, "10.0.0.1");
+        assertAccepted(interceptor, "10.0.0.1");
+        assertRejected(interceptor, "10.0.0.1");
+        assertRejected(interceptor, "10.0.0.1");
+        assertAccepted(interceptor, "10.0.0.2");
+        assertAccepted(interceptor, "10.0.0.2");
+
+        CallRateMeteringInterceptor.CallRateMetrics metrics = interceptor.getCallRateMetrics().get(0);
+        assertEquals(2, metrics.getAllowedCallsPerClientPerTimeWindow());
+        assertEquals(4, metrics.getNumAcceptedCalls());
+        assertEquals(2, metrics.getNumRejectedCalls());
+    }
+
+    @Test
+    public void testClientLimitDefaultsToShareOfMethodLimit() {
+        CallRateMeteringInterceptor interceptor = createInterceptor(4, 0);
+        assertAccepted(interceptor, "10.0.0.1");
+        assertAccepted(interceptor, "10.0.0.1");
+        assertRejected(interceptor, "10.0.0.1");
+        assertAccepted(interceptor, "10.0.0.2");
+    }
+
+    @Test
+    public void testNumClientRateMetersIsCapped() {
+        int numClients = CallRateMeteringInterceptor.MAX_NUM_CLIENT_RATE_METERS + 10;
+        CallRateMeteringInterceptor interceptor = createInterceptor(numClients, 1);
+        for (int i = 0; i < numClients; i++) {
+            assertAccepted(interceptor, "10.0." + (i / 256) + "." + (i % 256));
+            assertTrue(interceptor.getCallRateMetrics().get(0).getNumClients() <= CallRateMeteringInterceptor.MAX_NUM_CLIENT_RATE_METERS);
+        }
+        CallRateMeteringInterceptor.CallRateMetrics metrics = interceptor.getCallRateMetrics().get(0);
+        assertTrue(metrics.getNumClients() >= CallRateMeteringInterceptor.EVICTED_NUM_CLIENT_RATE_METERS);
+    }
+
+    private static CallRateMeteringInterceptor createInterceptor(int allowedCallsPerHour, int allowedCallsPerClientPerHour) {
+        return CallRateMeteringInterceptor.valueOf(Map.of(METHOD_NAME,
+                new GrpcCallRateMeter(allowedCallsPerHour, HOURS, 1, allowedCallsPerClientPerHour)));
+    }
+
+    private static void assertAccepted(CallRateMeteringInterceptor interceptor, String clientAddress) {
+        assertNull(interceptCall(interceptor, clientAddress).closeStatus);
+    }
+
+    private static void assertRejected(CallRateMeteringInterceptor interceptor, String clientAddress) {
+        assertEquals(Status.Code.PERMISSION_DENIED, interceptCall(interceptor, clientAddress).closeStatus.getCode());
+    }
+
+    private static TestServerCall interceptCall(CallRateMeteringInterceptor interceptor, String clientAddress) {
+        TestServerCall serverCall = new TestServerCall(new InetSocketAddress(clientAddress, 9999));
+        interceptor.interceptCall(serverCall, new Metadata(), (call, headers) -> new ServerCall.Listener<>() {
+        });
+        return serverCall;
+    }
+
+    private static class TestServerCall extends ServerCall<Object, Object> {
+        private static final MethodDescriptor.Marshaller<Object> MARSHALLER = new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(Object value) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+
+            @Override
+            public Object parse(InputStream stream) {
+                return null;
+            }
+        };
+        private static final MethodDescriptor<Object, Object> METHOD_DESCRIPTOR = MethodDescriptor.newBuilder(MARSHALLER, MARSHALLER)
+                .setType(MethodDescriptor.MethodType.UNARY)
+                .setFullMethodName(METHOD_NAME)
+                .build();
+
+        private final Attributes attributes;
+        private Status closeStatus;
+
+        TestServerCall(InetSocketAddress remoteAddress) {
+            attributes = Attributes.newBuilder().set(Grpc.TRANSPORT_ATTR_REMOTE_ADDR, remoteAddress).build();
+        }
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(Object message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            closeStatus = status;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public MethodDescriptor<Object, Object> getMethodDescriptor() {
+            return METHOD_DESCRIPTOR;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GrpcCallRateMeterTest {
+
+    @Test
+    public void testSlidingWindowCounterForHighLimits() {
+        int allowedCalls = GrpcCallRateMeter.MAX_NUM_EXACT_CALLS * 2;
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(allowedCalls, HOURS);
+        for (int i = 0; i < allowedCalls; i++) {
+            assertTrue(rateMeter.checkAndIncrement());
+        }
+        assertFalse(rateMeter.checkAndIncrement());
+        assertEquals(allowedCalls, rateMeter.getCallsCount());
+        assertEquals(allowedCalls, rateMeter.getNumAcceptedCalls());
+    }
+
+    @Test
+    public void testConcurrentCalls() throws Exception {
+        int allowedCalls = 100;
+        int numThreads = 8;
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(allowedCalls, HOURS);
+        AtomicInteger numAccepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ignore) {
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (rateMeter.checkAndIncrement()) numAccepted.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        // A thread suspended between accepting a call and recording its timestamp can let a few more calls pass
+        assertTrue(numAccepted.get() >= allowedCalls && numAccepted.get() < allowedCalls + numThreads);
+        assertEquals(numAccepted.get(), rateMeter.getNumAcceptedCalls());
+    }
+
+    @Test
+    public void testClientInstanceHasClientLimitWithoutCalls() {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(4, HOURS, 1, 1);
+        assertTrue(rateMeter.checkAndIncrement());
+        GrpcCallRateMeter clientRateMeter = rateMeter.newClientInstance();
+        assertEquals(1, clientRateMeter.getAllowedCallsPerTimeWindow());
+        assertEquals(0, clientRateMeter.getCallsCount());
+        assertTrue(clientRateMeter.checkAndIncrement());
+        assertFalse(clientRateMeter.checkAndIncrement());
+    }
+
+    @Test
+    public void testClientLimitDefaultsToShareOfLimit() {
+        assertEquals(5, new GrpcCallRateMeter(10, HOURS).getAllowedCallsPerClientPerTimeWindow());
+        assertEquals(1, new GrpcCallRateMeter(1, HOURS).getAllowedCallsPerClientPerTimeWindow());
+        assertEquals(10, new GrpcCallRateMeter(10, HOURS, 1, 20).getAllowedCallsPerClientPerTimeWindow());
+    }
+}
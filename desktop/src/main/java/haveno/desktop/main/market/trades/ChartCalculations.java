@@ -23,6 +23,7 @@ import haveno.core.locale.CurrencyUtil;
 import haveno.core.monetary.CryptoMoney;
 import haveno.core.monetary.TraditionalMoney;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.desktop.main.market.trades.charts.CandleData;
 import haveno.desktop.util.DisplayUtils;
 import javafx.scene.chart.XYChart;
@@ -55,7 +56,7 @@ public class ChartCalculations {
     // Async
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    static CompletableFuture<Map<TradesChartsViewModel.TickUnit, Map<Long, Long>>> getUsdAveragePriceMapsPerTickUnit(Set<TradeStatistics3> tradeStatisticsSet) {
+    static CompletableFuture<Map<TradesChartsViewModel.TickUnit, Map<Long, Long>>> getUsdAveragePriceMapsPerTickUnit(TradeStatisticsManager tradeStatisticsManager) {
         return CompletableFuture.supplyAsync(() -> {
             Map<TradesChartsViewModel.TickUnit, Map<Long, Long>> usdAveragePriceMapsPerTickUnit = new HashMap<>();
             Map<TradesChartsViewModel.TickUnit, Map<Long, List<TradeStatistics3>>> dateMapsPerTickUnit = new HashMap<>();
@@ -63,8 +64,7 @@ public class ChartCalculations {
                 dateMapsPerTickUnit.put(tick, new HashMap<>());
             }
 
-            tradeStatisticsSet.stream()
-                    .filter(e -> e.getCurrency().equals("USD"))
+            tradeStatisticsManager.getTradeStatistics("USD", 0, Long.MAX_VALUE)
                     .forEach(tradeStatistics -> {
                         for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
                             long time = roundToTick(tradeStatistics.getLocalDateTime(), tick).getTime();
@@ -83,13 +83,13 @@ public class ChartCalculations {
         });
     }
 
-    static CompletableFuture<List<TradeStatistics3>> getTradeStatisticsForCurrency(Set<TradeStatistics3> tradeStatisticsSet,
+    static CompletableFuture<List<TradeStatistics3>> getTradeStatisticsForCurrency(TradeStatisticsManager tradeStatisticsManager,
                                                                                    String currencyCode,
                                                                                    boolean showAllTradeCurrencies) {
         return CompletableFuture.supplyAsync(() -> {
-            return tradeStatisticsSet.stream()
-                    .filter(e -> showAllTradeCurrencies || e.getCurrency().equals(currencyCode))
-                    .collect(Collectors.toList());
+            return showAllTradeCurrencies ?
+                    tradeStatisticsManager.getTradeStatistics(null, 0, Long.MAX_VALUE, 0, Integer.MAX_VALUE) :
+                    tradeStatisticsManager.getTradeStatistics(currencyCode, 0, Long.MAX_VALUE);
         });
     }
 
@@ -26,6 +26,7 @@ import haveno.core.locale.GlobalSettings;
 import haveno.core.locale.TradeCurrency;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsColumns;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.user.Preferences;
 import haveno.desktop.Navigation;
@@ -48,6 +49,7 @@ import javafx.util.Pair;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -55,7 +57,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 class TradesChartsViewModel extends ActivatableViewModel {
     static final int MAX_TICKS = 90;
@@ -200,7 +201,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private void applyAsyncUsdAveragePriceMapsPerTickUnit(CompletableFuture<Boolean> completeFuture) {
         long ts = System.currentTimeMillis();
-        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(tradeStatisticsManager.getObservableTradeStatisticsSet())
+        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(tradeStatisticsManager)
                 .whenComplete((usdAveragePriceMapsPerTickUnit, throwable) -> {
                     if (deactivateCalled) {
                         return;
@@ -227,7 +228,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
                                                                             @Nullable CompletableFuture<Boolean> completeFuture) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         long ts = System.currentTimeMillis();
-        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager.getObservableTradeStatisticsSet(),
+        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager,
                 currencyCode,
                 showAllTradeCurrenciesProperty.get())
                 .whenComplete((list, throwable) -> {
@@ -359,9 +360,13 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private void fillTradeCurrencies() {
         // Don't use a set as we need all entries
-        List<TradeCurrency> tradeCurrencyList = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .flatMap(e -> CurrencyUtil.getTradeCurrency(e.getCurrency()).stream())
-                .collect(Collectors.toList());
+        TradeStatisticsColumns tradeStatisticsColumns = tradeStatisticsManager.getTradeStatisticsColumns();
+        List<TradeCurrency> tradeCurrencyList = new ArrayList<>();
+        for (String currencyCode : tradeStatisticsColumns.getCurrencyCodes()) {
+            int numTrades = tradeStatisticsColumns.getCount(currencyCode, 0, Long.MAX_VALUE);
+            CurrencyUtil.getTradeCurrency(currencyCode)
+                    .ifPresent(tradeCurrency -> tradeCurrencyList.addAll(Collections.nCopies(numTrades, tradeCurrency)));
+        }
         currencyListItems.updateWithCurrencies(tradeCurrencyList, showAllCurrencyListItem);
     }
 
@@ -35,7 +35,6 @@ import haveno.core.payment.PaymentAccount;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.trade.HavenoUtils;
 import haveno.core.trade.handlers.TransactionResultHandler;
-import haveno.core.trade.statistics.TradeStatistics3;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.user.Preferences;
 import haveno.core.user.User;
@@ -70,14 +69,12 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.inject.Named;
 import java.math.BigInteger;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Comparator.comparing;
@@ -325,15 +322,9 @@ public abstract class MutableOfferDataModel extends OfferDataModel {
             // Get average historic prices over for the prior trade period equaling the lock time
             var blocksRange = Restrictions.getLockTime(paymentAccount.getPaymentMethod().isBlockchain());
             var startDate = new Date(System.currentTimeMillis() - blocksRange * 10L * 60000);
-            var sortedRangeData = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                    .filter(e -> e.getCurrency().equals(getTradeCurrency().getCode()))
-                    .filter(e -> e.getDate().compareTo(startDate) >= 0)
-                    .sorted(Comparator.comparing(TradeStatistics3::getDate))
-                    .collect(Collectors.toList());
             var movingAverage = new MathUtils.MovingAverage(10, 0.2);
             double[] extremes = {Double.MAX_VALUE, Double.MIN_VALUE};
-            sortedRangeData.forEach(e -> {
-                var price = e.getTradePrice().getValue();
+            tradeStatisticsManager.scanTradeStatistics(getTradeCurrency().getCode(), startDate.getTime(), Long.MAX_VALUE, (date, price, amount) -> {
                 movingAverage.next(price).ifPresent(val -> {
                     if (val < extremes[0]) extremes[0] = val;
                     if (val > extremes[1]) extremes[1] = val;
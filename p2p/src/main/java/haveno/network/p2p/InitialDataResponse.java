@@ -20,4 +20,9 @@ package haveno.network.p2p;
 // Marker interface for initial data response
 public interface InitialDataResponse {
     Class<? extends InitialDataRequest> associatedRequest();
+
+    // False if more chunks of a response streamed in several chunks follow
+    default boolean isLastChunk() {
+        return true;
+    }
 }
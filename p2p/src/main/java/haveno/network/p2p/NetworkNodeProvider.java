@@ -18,6 +18,7 @@
 package haveno.network.p2p;
 
 import haveno.network.p2p.network.BridgeAddressProvider;
+import haveno.network.p2p.network.ConnectionEngine;
 import haveno.network.p2p.network.LocalhostNetworkNode;
 import haveno.network.p2p.network.BanFilter;
 import haveno.network.p2p.network.NetworkNode;
@@ -46,6 +47,7 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
             BridgeAddressProvider bridgeAddressProvider,
             @Nullable BanFilter banFilter,
             @Named(Config.MAX_CONNECTIONS) int maxConnections,
+            @Named(Config.CONNECTION_ENGINE) String connectionEngine,
             @Named(Config.USE_LOCALHOST_FOR_P2P) boolean useLocalhostForP2P,
             @Named(Config.NODE_PORT) int port,
             @Named(Config.TOR_DIR) File torDir,
@@ -56,8 +58,9 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
             @Nullable @Named(Config.TOR_CONTROL_COOKIE_FILE) File cookieFile,
             @Named(Config.TOR_STREAM_ISOLATION) boolean streamIsolation,
             @Named(Config.TOR_CONTROL_USE_SAFE_COOKIE_AUTH) boolean useSafeCookieAuthentication) {
+        ConnectionEngine engine = ConnectionEngine.fromString(connectionEngine);
         if (useLocalhostForP2P) {
-            networkNode = new LocalhostNetworkNode(port, networkProtoResolver, banFilter, maxConnections);
+            networkNode = new LocalhostNetworkNode(port, networkProtoResolver, banFilter, maxConnections, engine);
         } else {
             TorMode torMode = getTorMode(bridgeAddressProvider,
                     torDir,
@@ -67,7 +70,7 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
                     password,
                     cookieFile,
                     useSafeCookieAuthentication);
-            networkNode = new TorNetworkNode(port, networkProtoResolver, streamIsolation, torMode, banFilter, maxConnections);
+            networkNode = new TorNetworkNode(port, networkProtoResolver, streamIsolation, torMode, banFilter, maxConnections, engine);
         }
     }
 
@@ -43,6 +43,7 @@ import java.util.List;
 import static com.google.inject.name.Names.named;
 import static com.google.inject.util.Providers.of;
 import static haveno.common.config.Config.BAN_LIST;
+import static haveno.common.config.Config.CONNECTION_ENGINE;
 import static haveno.common.config.Config.MAX_CONNECTIONS;
 import static haveno.common.config.Config.NODE_PORT;
 import static haveno.common.config.Config.REPUBLISH_MAILBOX_ENTRIES;
@@ -90,6 +91,7 @@ public class P2PModule extends AppModule {
         bind(int.class).annotatedWith(named(NODE_PORT)).toInstance(config.nodePort);
 
         bindConstant().annotatedWith(named(MAX_CONNECTIONS)).to(config.maxConnections);
+        bindConstant().annotatedWith(named(CONNECTION_ENGINE)).to(config.connectionEngine);
 
         bind(new TypeLiteral<List<String>>(){}).annotatedWith(named(BAN_LIST)).toInstance(config.banList);
         bindConstant().annotatedWith(named(SOCKS_5_PROXY_XMR_ADDRESS)).to(config.socks5ProxyXmrAddress);
@@ -210,6 +210,10 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             keepAliveManager.shutDown();
         }
 
+        if (mailboxMessageService != null) {
+            mailboxMessageService.shutDown();
+        }
+
         if (networkReadySubscription != null) {
             networkReadySubscription.unsubscribe();
         }
@@ -19,13 +19,12 @@ package haveno.network.p2p.mailbox;
 
 
 import haveno.common.proto.persistable.PersistableEnvelope;
-import haveno.common.util.CollectionUtils;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @EqualsAndHashCode
@@ -34,7 +33,8 @@ public class IgnoredMailboxMap implements PersistableEnvelope {
     private final Map<String, Long> dataMap;
 
     public IgnoredMailboxMap() {
-        this.dataMap = new HashMap<>();
+        // Entries get added from the mailbox decryption threads
+        this.dataMap = new ConcurrentHashMap<>();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -53,7 +53,7 @@ public class IgnoredMailboxMap implements PersistableEnvelope {
     }
 
     public static IgnoredMailboxMap fromProto(protobuf.IgnoredMailboxMap proto) {
-        return new IgnoredMailboxMap(CollectionUtils.isEmpty(proto.getDataMap()) ? new HashMap<>() : proto.getDataMap());
+        return new IgnoredMailboxMap(new ConcurrentHashMap<>(proto.getDataMap()));
     }
 
     public void putAll(Map<String, Long> map) {
@@ -18,8 +18,11 @@
 package haveno.network.p2p.mailbox;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import haveno.common.UserThread;
@@ -64,6 +67,7 @@ import java.security.PublicKey;
 import java.time.Clock;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
@@ -72,7 +76,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
@@ -105,6 +108,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class MailboxMessageService implements HashMapChangedListener, PersistedDataHost {
     private static final long REPUBLISH_DELAY_SEC = TimeUnit.MINUTES.toSeconds(2);
     private static final long MAX_SERIALIZED_SIZE = 50000;
+    private static final int NUM_DECRYPTION_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    // We split a batch in more chunks than threads as the chunks can have very different costs (foreign entries
+    // are cheap, our own entries need the decryption).
+    private static final int NUM_CHUNKS_PER_THREAD = 4;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
@@ -119,6 +126,11 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final MailboxMessageList mailboxMessageList = new MailboxMessageList();
     private final Map<String, MailboxItem> mailboxItemsByUid = new HashMap<>();
+    private final ListeningExecutorService decryptionExecutor = Utilities.getListeningExecutorService("MailboxDecryption",
+            NUM_DECRYPTION_THREADS,
+            NUM_DECRYPTION_THREADS,
+            Integer.MAX_VALUE,
+            60);
 
     private boolean isBootstrapped;
     private boolean allServicesInitialized;
@@ -238,6 +250,10 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         init();
     }
 
+    public void shutDown() {
+        decryptionExecutor.shutdownNow();
+    }
+
     // We don't listen on requestDataManager directly as we require the correct
     // order of execution. The p2pService is handling the correct order of execution and we get called
     // directly from there.
@@ -424,30 +440,29 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         p2PDataStorage.addHashMapChangedListener(this);
     }
 
-    // We run the batch processing of all mailbox messages we have received at startup in a thread to not block the UI.
-    // For about 1000 messages decryption takes about 1 sec.
+    // We run the batch processing of all mailbox messages we have received at startup in a thread pool to not block
+    // the UI. Entries which are not addressed to us are skipped without decryption, so only our own entries cause
+    // the expensive decryption and signature verification, which is spread over the available cores.
     private void threadedBatchProcessMailboxEntries(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
-        long ts = System.currentTimeMillis();
-        SettableFuture<Set<MailboxItem>> future = SettableFuture.create();
-
-        new Thread(() -> {
-            try {
-                var mailboxItems = getMailboxItems(protectedMailboxStorageEntries);
-
-                if (!protectedMailboxStorageEntries.isEmpty())
-                    log.info("Batch processing of {} mailbox entries took {} ms",
-                            protectedMailboxStorageEntries.size(),
-                            System.currentTimeMillis() - ts);
-                future.set(mailboxItems);
+        if (protectedMailboxStorageEntries.isEmpty() || decryptionExecutor.isShutdown()) {
+            return;
+        }
 
-            } catch (Throwable throwable) {
-                future.setException(throwable);
-            }
-        }, "processMailboxEntry-" + new Random().nextInt(1000)).start();
+        long ts = System.currentTimeMillis();
+        int chunkSize = (int) Math.ceil((double) protectedMailboxStorageEntries.size() / (NUM_DECRYPTION_THREADS * NUM_CHUNKS_PER_THREAD));
+        List<ListenableFuture<Set<MailboxItem>>> futures = new ArrayList<>();
+        for (List<ProtectedMailboxStorageEntry> chunk : Lists.partition(new ArrayList<>(protectedMailboxStorageEntries), chunkSize)) {
+            futures.add(decryptionExecutor.submit(() -> getMailboxItems(chunk)));
+        }
 
-        Futures.addCallback(future, new FutureCallback<>() {
-            public void onSuccess(Set<MailboxItem> decryptedMailboxMessageWithEntries) {
-                new Thread(() -> handleMailboxItems(decryptedMailboxMessageWithEntries)).start();
+        Futures.addCallback(Futures.allAsList(futures), new FutureCallback<>() {
+            public void onSuccess(List<Set<MailboxItem>> mailboxItemsOfChunks) {
+                Set<MailboxItem> mailboxItems = new HashSet<>();
+                mailboxItemsOfChunks.forEach(mailboxItems::addAll);
+                log.info("Batch processing of {} mailbox entries took {} ms",
+                        protectedMailboxStorageEntries.size(),
+                        System.currentTimeMillis() - ts);
+                new Thread(() -> handleMailboxItems(mailboxItems)).start();
             }
 
             public void onFailure(@NotNull Throwable throwable) {
@@ -464,7 +479,19 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         return mailboxItems;
     }
 
+    // The receiversPubKey of the entry has to match the ownerPubKey of the payload, which is the signature pubKey of
+    // the receiver (see ProtectedMailboxStorageEntry.isValidForAddOperation), so we can detect foreign entries
+    // without the asymmetric decryption.
+    private boolean isAddressedToMe(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        return Arrays.equals(protectedMailboxStorageEntry.getReceiversPubKeyBytes(),
+                keyRing.getPubKeyRing().getSignaturePubKeyBytes());
+    }
+
     private MailboxItem tryDecryptProtectedMailboxStorageEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        if (!isAddressedToMe(protectedMailboxStorageEntry)) {
+            return new MailboxItem(protectedMailboxStorageEntry, null);
+        }
+
         PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = protectedMailboxStorageEntry
                 .getMailboxStoragePayload()
                 .getPrefixedSealedAndSignedMessage();
@@ -479,7 +506,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
             checkArgument(decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage);
             return new MailboxItem(protectedMailboxStorageEntry, decryptedMessageWithPubKey);
         } catch (CryptoException ignore) {
-            // Expected if message was not intended for us
+            // Not expected as the entry was addressed to us. Might be a malicious or corrupted message.
             // We persist those entries so at the next startup we do not need to try to decrypt it anymore
             ignoredMailboxService.ignore(uid, protectedMailboxStorageEntry.getCreationTimeStamp());
         } catch (ProtobufferException e) {
@@ -40,13 +40,16 @@ import haveno.common.config.Config;
 import haveno.common.proto.ProtobufferException;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.network.NetworkProtoResolver;
-import haveno.common.util.SingleThreadExecutorUtils;
 import haveno.common.util.Utilities;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import javax.inject.Inject;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
 
 import javafx.beans.property.ObjectProperty;
@@ -73,6 +76,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -83,6 +87,7 @@ import java.lang.ref.WeakReference;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -109,6 +114,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     //TODO decrease limits again after testing
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(240);
     private static final int SHUTDOWN_TIMEOUT = 100;
+    // Max. number of bulk messages we send in a burst before the send rate is limited to one per throttle trigger
+    private static final int SEND_MSG_BURST_CAPACITY = 10;
     private static final String THREAD_ID = Connection.class.getSimpleName();
 
     public static int getPermittedMessageSize() {
@@ -134,6 +141,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     @Getter
     private final String uid;
     private final ExecutorService executorService;
+    private final OutboundQueue outboundQueue;
     @Getter
     private final Statistic statistic;
     @Getter
@@ -154,7 +162,6 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
     private final List<Long> messageTimeStamps = new ArrayList<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
     // We use a weak reference here to ensure that no connection causes a memory leak in case it get closed without
     // the shutDown being called.
     private final CopyOnWriteArraySet<WeakReference<SupportedCapabilitiesListener>> capabilitiesListeners = new CopyOnWriteArraySet<>();
@@ -174,13 +181,17 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                ConnectionListener connectionListener,
                @Nullable NodeAddress peersNodeAddress,
                NetworkProtoResolver networkProtoResolver,
-               @Nullable BanFilter banFilter) {
+               @Nullable BanFilter banFilter,
+               ConnectionEngine connectionEngine) {
         this.socket = socket;
         this.connectionListener = connectionListener;
         this.banFilter = banFilter;
 
         this.uid = UUID.randomUUID().toString();
-        this.executorService = SingleThreadExecutorUtils.getSingleThreadExecutor("Executor service for connection with uid " + uid);
+        this.executorService = connectionEngine.createConnectionExecutor("Executor service for connection with uid " + uid);
+        this.outboundQueue = new OutboundQueue(envelopes -> protoOutputStream.writeEnvelopes(envelopes),
+                SEND_MSG_BURST_CAPACITY,
+                Math.max(1, getSendMsgThrottleTrigger()));
 
         statistic = new Statistic();
 
@@ -227,13 +238,33 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return capabilities;
     }
 
+    /**
+     * Sends the envelope and blocks until it got written.
+     */
     void sendMessage(NetworkEnvelope networkEnvelope) {
+        try {
+            sendMessageAsync(networkEnvelope).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Queues the envelope at the outbound queue. Outbound messages are rate limited by the queue, except close
+     * connection messages, keep alive messages and direct messages which get sent ahead of queued bulk messages.
+     *
+     * @return future which completes when the envelope got written or was dropped because the connection got closed
+     */
+    ListenableFuture<Connection> sendMessageAsync(NetworkEnvelope networkEnvelope) {
         long ts = System.currentTimeMillis();
         log.debug(">> Send networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
 
         if (stopped) {
             log.debug("called sendMessage but was already stopped");
-            return;
+            return Futures.immediateFuture(this);
         }
 
         if (banFilter != null &&
@@ -241,38 +272,31 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                 banFilter.isPeerBanned(peersNodeAddressOptional.get())) {
             log.warn("We tried to send a message to a banned peer. message={}", networkEnvelope.getClass().getSimpleName());
             reportInvalidRequest(RuleViolation.PEER_BANNED);
-            return;
+            return Futures.immediateFuture(this);
         }
 
         if (!testCapability(networkEnvelope)) {
             log.debug("Capability for networkEnvelope is required but not supported");
-            return;
+            return Futures.immediateFuture(this);
         }
-        int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
-        try {
-            // Throttle outbound network_messages
-            long now = System.currentTimeMillis();
-            long elapsed = now - lastSendTimeStamp;
-            if (elapsed < getSendMsgThrottleTrigger()) {
-                log.debug("We got 2 sendMessage requests in less than {} ms. We set the thread to sleep " +
-                                "for {} ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}, networkEnvelope={}",
-                        getSendMsgThrottleTrigger(), getSendMsgThrottleSleep(), lastSendTimeStamp, now, elapsed,
-                        networkEnvelope.getClass().getSimpleName());
-
-                Thread.sleep(getSendMsgThrottleSleep());
-            }
 
-            lastSendTimeStamp = now;
+        ListenableFuture<Boolean> future = outboundQueue.enqueue(networkEnvelope);
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Boolean written) {
+                if (written) {
+                    int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
+                    ThreadUtils.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, Connection.this)), THREAD_ID);
+                    ThreadUtils.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize), THREAD_ID);
+                }
+            }
 
-            if (!stopped) {
-                protoOutputStream.writeEnvelope(networkEnvelope);
-                ThreadUtils.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)), THREAD_ID);
-                ThreadUtils.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize), THREAD_ID);
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                handleException(throwable);
             }
-        } catch (Throwable t) {
-            handleException(t);
-            throw new RuntimeException(t);
-        }
+        }, MoreExecutors.directExecutor());
+        return Futures.transform(future, written -> this, MoreExecutors.directExecutor());
     }
 
     public boolean testCapability(NetworkEnvelope networkEnvelope) {
@@ -360,10 +384,6 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return config != null ? config.msgThrottlePer10Sec : 1000;
     }
 
-    private int getSendMsgThrottleSleep() {
-        return config != null ? config.sendMsgThrottleSleep : 50;
-    }
-
     private int getSendMsgThrottleTrigger() {
         return config != null ? config.sendMsgThrottleTrigger : 20;
     }
@@ -521,6 +541,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private void doShutDown(CloseConnectionReason closeConnectionReason, @Nullable Runnable shutDownCompleteHandler) {
         ThreadUtils.execute(() -> connectionListener.onDisconnect(closeConnectionReason, this), THREAD_ID);
         try {
+            outboundQueue.close();
             protoOutputStream.onConnectionShutdown();
             socket.close();
         } catch (SocketException e) {
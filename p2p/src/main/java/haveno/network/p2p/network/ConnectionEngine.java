@@ -0,0 +1,99 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import haveno.common.util.SingleThreadExecutorUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Defines which threads run the blocking input handlers of the connections.
+ *
+ * THREAD_PER_CONNECTION uses a platform thread per connection. VIRTUAL_THREADS uses a virtual thread per connection,
+ * so a node with many connections does not need a platform thread for each connection parked in a socket read. The
+ * connection semantics are the same for both engines.
+ *
+ * Virtual threads require a Java 21 runtime. As we compile for Java 11 they are created by reflection and we fall
+ * back to THREAD_PER_CONNECTION if the runtime does not support them.
+ */
+@Slf4j
+public enum ConnectionEngine {
+    THREAD_PER_CONNECTION,
+    VIRTUAL_THREADS;
+
+    private static final Method OF_VIRTUAL_METHOD;
+    private static final Method BUILDER_NAME_METHOD;
+    private static final Method BUILDER_FACTORY_METHOD;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderClass.getMethod("name", String.class);
+            factory = builderClass.getMethod("factory");
+        } catch (ClassNotFoundException | NoSuchMethodException ignore) {
+            // Runtime does not support virtual threads
+        }
+        OF_VIRTUAL_METHOD = ofVirtual;
+        BUILDER_NAME_METHOD = name;
+        BUILDER_FACTORY_METHOD = factory;
+    }
+
+    public static ConnectionEngine fromString(String value) {
+        try {
+            return ConnectionEngine.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Unknown connection engine '{}'. We use {}.", value, THREAD_PER_CONNECTION);
+            return THREAD_PER_CONNECTION;
+        }
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return OF_VIRTUAL_METHOD != null;
+    }
+
+    /**
+     * Returns the engine which is used at runtime, which is THREAD_PER_CONNECTION if virtual threads are not supported.
+     */
+    public ConnectionEngine getEffectiveEngine() {
+        return this == VIRTUAL_THREADS && !isVirtualThreadsSupported() ? THREAD_PER_CONNECTION : this;
+    }
+
+    /**
+     * Creates the single threaded executor which runs the input handler of a connection.
+     */
+    ExecutorService createConnectionExecutor(String name) {
+        if (getEffectiveEngine() == VIRTUAL_THREADS) {
+            try {
+                Object builder = BUILDER_NAME_METHOD.invoke(OF_VIRTUAL_METHOD.invoke(null), name);
+                ThreadFactory threadFactory = (ThreadFactory) BUILDER_FACTORY_METHOD.invoke(builder);
+                return Executors.newSingleThreadExecutor(threadFactory);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Could not create virtual thread for {}. We use a platform thread. {}", name, e.toString());
+            }
+        }
+        return SingleThreadExecutorUtils.getSingleThreadExecutor(name);
+    }
+}
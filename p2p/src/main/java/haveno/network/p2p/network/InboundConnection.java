@@ -28,7 +28,8 @@ public class InboundConnection extends Connection {
             MessageListener messageListener,
             ConnectionListener connectionListener,
             NetworkProtoResolver networkProtoResolver,
-            @Nullable BanFilter banFilter) {
-        super(socket, messageListener, connectionListener, null, networkProtoResolver, banFilter);
+            @Nullable BanFilter banFilter,
+            ConnectionEngine connectionEngine) {
+        super(socket, messageListener, connectionListener, null, networkProtoResolver, banFilter, connectionEngine);
     }
 }
@@ -57,7 +57,15 @@ public class LocalhostNetworkNode extends NetworkNode {
             NetworkProtoResolver networkProtoResolver,
             @Nullable BanFilter banFilter,
             int maxConnections) {
-        super(port, networkProtoResolver, banFilter, maxConnections);
+        this(port, networkProtoResolver, banFilter, maxConnections, ConnectionEngine.THREAD_PER_CONNECTION);
+    }
+
+    public LocalhostNetworkNode(int port,
+            NetworkProtoResolver networkProtoResolver,
+            @Nullable BanFilter banFilter,
+            int maxConnections,
+            ConnectionEngine connectionEngine) {
+        super(port, networkProtoResolver, banFilter, maxConnections, connectionEngine);
     }
 
     @Override
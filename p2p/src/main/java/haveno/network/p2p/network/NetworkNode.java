@@ -72,6 +72,7 @@ public abstract class NetworkNode implements MessageListener {
     private final NetworkProtoResolver networkProtoResolver;
     @Nullable
     private final BanFilter banFilter;
+    private final ConnectionEngine connectionEngine;
 
     private final CopyOnWriteArraySet<InboundConnection> inBoundConnections = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
@@ -93,10 +94,16 @@ public abstract class NetworkNode implements MessageListener {
     NetworkNode(int servicePort,
             NetworkProtoResolver networkProtoResolver,
             @Nullable BanFilter banFilter,
-            int maxConnections) {
+            int maxConnections,
+            ConnectionEngine connectionEngine) {
         this.servicePort = servicePort;
         this.networkProtoResolver = networkProtoResolver;
         this.banFilter = banFilter;
+        this.connectionEngine = connectionEngine.getEffectiveEngine();
+        if (this.connectionEngine != connectionEngine) {
+            log.warn("Connection engine {} is not supported by the Java runtime. We use {}.",
+                    connectionEngine, this.connectionEngine);
+        }
 
         connectionExecutor = Utilities.getListeningExecutorService("NetworkNode.connection",
                 maxConnections * 2,
@@ -205,7 +212,8 @@ public abstract class NetworkNode implements MessageListener {
                             connectionListener,
                             peersNodeAddress,
                             networkProtoResolver,
-                            banFilter);
+                            banFilter,
+                            connectionEngine);
 
                     if (log.isDebugEnabled()) {
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
@@ -292,13 +300,9 @@ public abstract class NetworkNode implements MessageListener {
             ListeningExecutorService executor) {
         SettableFuture<Connection> resultFuture = SettableFuture.create();
         try {
-            ListenableFuture<Connection> future = executor.submit(() -> {
-                String id = connection.getPeersNodeAddressOptional().isPresent() ? connection.getPeersNodeAddressOptional().get().getFullAddress() : connection.getUid();
-                Thread.currentThread().setName("NetworkNode:SendMessage-to-" + Utilities.toTruncatedString(id, 15));
-
-                connection.sendMessage(networkEnvelope);
-                return connection;
-            });
+            // The executor only runs the checks before the envelope gets queued at the connection. The write is done
+            // by the outbound queue of the connection, so we do not block a thread of the executor until it is sent.
+            ListenableFuture<Connection> future = Futures.submitAsync(() -> connection.sendMessageAsync(networkEnvelope), executor);
 
             Futures.addCallback(future, new FutureCallback<>() {
                 public void onSuccess(Connection connection) {
@@ -325,6 +329,10 @@ public abstract class NetworkNode implements MessageListener {
         }
     }
 
+    public ConnectionEngine getConnectionEngine() {
+        return connectionEngine;
+    }
+
     public ReadOnlyObjectProperty<NodeAddress> nodeAddressProperty() {
         return nodeAddressProperty;
     }
@@ -476,7 +484,8 @@ public abstract class NetworkNode implements MessageListener {
                 NetworkNode.this,
                 connectionListener,
                 networkProtoResolver,
-                banFilter);
+                banFilter,
+                connectionEngine);
         server.start();
     }
 
@@ -0,0 +1,205 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import haveno.common.proto.network.NetworkEnvelope;
+import haveno.network.p2p.CloseConnectionMessage;
+import haveno.network.p2p.PrefixedSealedAndSignedMessage;
+import haveno.network.p2p.peers.keepalive.messages.KeepAliveMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound message queue of a connection.
+ *
+ * Envelopes are queued in two lanes. The priority lane holds close connection messages, keep alive messages and
+ * direct messages (trade messages). The bulk lane holds all other messages like broadcasts. Each lane is rate limited
+ * by its own token bucket, the one of the priority lane allows a multiple of the bulk rate, so a flood of direct
+ * messages cannot get around the limiter but does not get delayed by broadcasts either. The queue is drained by a task
+ * on a shared pool, which writes all envelopes available for sending as one batch with a single flush. If a lane runs
+ * out of tokens the drain gets rescheduled for when the next token is available instead of blocking a thread.
+ *
+ * Only one drain task runs per queue at a time, so the envelopes of each lane are written in the order they have
+ * been queued.
+ */
+@Slf4j
+class OutboundQueue {
+    // Max. number of envelopes written before a flush
+    static final int MAX_BATCH_SIZE = 50;
+    // Burst capacity and rate of the priority lane relative to the bulk lane
+    static final int PRIORITY_RATE_FACTOR = 5;
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("OutboundQueue-%d")
+            .setDaemon(true)
+            .build();
+    private static final Executor DRAIN_EXECUTOR = Executors.newCachedThreadPool(THREAD_FACTORY);
+    private static final ScheduledExecutorService DELAY_EXECUTOR = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+
+    interface Writer {
+        /**
+         * Writes the envelopes and flushes them. Gets called from the drain task only.
+         */
+        void write(List<NetworkEnvelope> envelopes) throws Exception;
+    }
+
+    private static class Pending {
+        final NetworkEnvelope envelope;
+        final SettableFuture<Boolean> future = SettableFuture.create();
+
+        Pending(NetworkEnvelope envelope) {
+            this.envelope = envelope;
+        }
+    }
+
+    private final Writer writer;
+    private final Executor drainExecutor;
+    private final Queue<Pending> priorityLane = new ArrayDeque<>();
+    private final Queue<Pending> bulkLane = new ArrayDeque<>();
+    private final TokenBucket priorityTokenBucket;
+    private final TokenBucket tokenBucket;
+    private boolean drainScheduled;
+    private boolean closed;
+
+    OutboundQueue(Writer writer, int burstCapacity, long refillIntervalMs) {
+        this(writer, burstCapacity, refillIntervalMs, DRAIN_EXECUTOR);
+    }
+
+    OutboundQueue(Writer writer, int burstCapacity, long refillIntervalMs, Executor drainExecutor) {
+        this.writer = writer;
+        this.drainExecutor = drainExecutor;
+        long now = System.currentTimeMillis();
+        this.priorityTokenBucket = new TokenBucket(burstCapacity * PRIORITY_RATE_FACTOR,
+                Math.max(1, refillIntervalMs / PRIORITY_RATE_FACTOR),
+                now);
+        this.tokenBucket = new TokenBucket(burstCapacity, refillIntervalMs, now);
+    }
+
+    static boolean isPriority(NetworkEnvelope envelope) {
+        return envelope instanceof CloseConnectionMessage ||
+                envelope instanceof KeepAliveMessage ||
+                envelope instanceof PrefixedSealedAndSignedMessage;
+    }
+
+    /**
+     * Queues the envelope. The returned future completes with true when the envelope got written, with false if the
+     * queue got closed before and fails if the write failed.
+     */
+    ListenableFuture<Boolean> enqueue(NetworkEnvelope envelope) {
+        Pending pending = new Pending(envelope);
+        synchronized (this) {
+            if (closed) {
+                pending.future.set(false);
+                return pending.future;
+            }
+            (isPriority(envelope) ? priorityLane : bulkLane).add(pending);
+            if (drainScheduled) {
+                return pending.future;
+            }
+            drainScheduled = true;
+        }
+        executeDrain();
+        return pending.future;
+    }
+
+    /**
+     * Drops all queued envelopes and rejects new ones.
+     */
+    void close() {
+        List<Pending> dropped;
+        synchronized (this) {
+            closed = true;
+            dropped = new ArrayList<>(priorityLane);
+            dropped.addAll(bulkLane);
+            priorityLane.clear();
+            bulkLane.clear();
+        }
+        dropped.forEach(pending -> pending.future.set(false));
+    }
+
+    synchronized int size() {
+        return priorityLane.size() + bulkLane.size();
+    }
+
+    private void executeDrain() {
+        try {
+            drainExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            log.warn("Could not schedule drain of outbound queue. {}", e.getMessage());
+            synchronized (this) {
+                drainScheduled = false;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            List<Pending> batch = new ArrayList<>();
+            long delay = 0;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                while (!priorityLane.isEmpty() && batch.size() < MAX_BATCH_SIZE) {
+                    if (!priorityTokenBucket.tryAcquire(now)) {
+                        delay = priorityTokenBucket.getDelayToNextToken(now);
+                        break;
+                    }
+                    batch.add(priorityLane.poll());
+                }
+                while (!bulkLane.isEmpty() && batch.size() < MAX_BATCH_SIZE) {
+                    if (!tokenBucket.tryAcquire(now)) {
+                        long bulkDelay = tokenBucket.getDelayToNextToken(now);
+                        delay = delay > 0 ? Math.min(delay, bulkDelay) : bulkDelay;
+                        break;
+                    }
+                    batch.add(bulkLane.poll());
+                }
+                if (batch.isEmpty()) {
+                    if (delay > 0 && !closed) {
+                        // We keep drainScheduled set, so no other drain gets started until the delayed one runs
+                        DELAY_EXECUTOR.schedule(this::executeDrain, delay, TimeUnit.MILLISECONDS);
+                    } else {
+                        drainScheduled = false;
+                    }
+                    return;
+                }
+            }
+
+            List<NetworkEnvelope> envelopes = new ArrayList<>(batch.size());
+            batch.forEach(pending -> envelopes.add(pending.envelope));
+            try {
+                writer.write(envelopes);
+                batch.forEach(pending -> pending.future.set(true));
+            } catch (Throwable t) {
+                batch.forEach(pending -> pending.future.setException(t));
+            }
+        }
+    }
+}
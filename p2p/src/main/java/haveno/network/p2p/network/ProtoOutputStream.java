@@ -21,9 +21,12 @@ import haveno.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 
 import haveno.common.proto.network.NetworkEnvelope;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
@@ -38,6 +41,8 @@ import javax.annotation.concurrent.ThreadSafe;
 class ProtoOutputStream {
     private static final Logger log = LoggerFactory.getLogger(ProtoOutputStream.class);
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final OutputStream outputStream;
     private final Statistic statistic;
 
@@ -45,15 +50,19 @@ class ProtoOutputStream {
     private final Lock lock = new ReentrantLock();
 
     ProtoOutputStream(OutputStream outputStream, Statistic statistic) {
-        this.outputStream = outputStream;
+        // We buffer the envelopes of a batch so they get written to the socket with the flush at the end of the batch
+        this.outputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
         this.statistic = statistic;
     }
 
-    void writeEnvelope(NetworkEnvelope envelope) {
+    /**
+     * Writes the envelopes and flushes the stream once after the last envelope.
+     */
+    void writeEnvelopes(List<NetworkEnvelope> envelopes) {
         lock.lock();
 
         try {
-            writeEnvelopeOrThrow(envelope);
+            writeEnvelopesOrThrow(envelopes);
         } catch (IOException e) {
             if (!isConnectionActive.get()) {
                 // Connection was closed by us.
@@ -86,19 +95,29 @@ class ProtoOutputStream {
         }
     }
 
-    private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
+    private void writeEnvelopesOrThrow(List<NetworkEnvelope> envelopes) throws IOException {
         long ts = System.currentTimeMillis();
-        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
-        proto.writeDelimitedTo(outputStream);
+        List<protobuf.NetworkEnvelope> protos = new ArrayList<>(envelopes.size());
+        for (NetworkEnvelope envelope : envelopes) {
+            protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
+            proto.writeDelimitedTo(outputStream);
+            protos.add(proto);
+        }
         outputStream.flush();
         long duration = System.currentTimeMillis() - ts;
         if (duration > 10000) {
-            log.info("Sending {} to peer took {} sec.", envelope.getClass().getSimpleName(), duration / 1000d);
+            log.info("Sending {} envelopes ({}) to peer took {} sec.", envelopes.size(),
+                    envelopes.get(0).getClass().getSimpleName(), duration / 1000d);
         }
-        statistic.addSentBytes(proto.getSerializedSize());
-        statistic.addSentMessage(envelope);
 
-        if (!(envelope instanceof KeepAliveMessage)) {
+        boolean isActivity = false;
+        for (int i = 0; i < envelopes.size(); i++) {
+            NetworkEnvelope envelope = envelopes.get(i);
+            statistic.addSentBytes(protos.get(i).getSerializedSize());
+            statistic.addSentMessage(envelope);
+            isActivity |= !(envelope instanceof KeepAliveMessage);
+        }
+        if (isActivity) {
             statistic.updateLastActivityTimestamp();
         }
     }
@@ -45,14 +45,17 @@ class Server implements Runnable {
     private final int localPort;
     private final Set<Connection> connections = new CopyOnWriteArraySet<>();
     private final NetworkProtoResolver networkProtoResolver;
+    private final ConnectionEngine connectionEngine;
     private final Thread serverThread = new Thread(this);
 
     public Server(ServerSocket serverSocket,
             MessageListener messageListener,
             ConnectionListener connectionListener,
             NetworkProtoResolver networkProtoResolver,
-            @Nullable BanFilter banFilter) {
+            @Nullable BanFilter banFilter,
+            ConnectionEngine connectionEngine) {
         this.networkProtoResolver = networkProtoResolver;
+        this.connectionEngine = connectionEngine;
         this.serverSocket = serverSocket;
         this.localPort = serverSocket.getLocalPort();
         this.messageListener = messageListener;
@@ -80,7 +83,8 @@ class Server implements Runnable {
                                 messageListener,
                                 connectionListener,
                                 networkProtoResolver,
-                                banFilter);
+                                banFilter,
+                                connectionEngine);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "Server created new inbound connection:"
@@ -0,0 +1,76 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Token bucket rate limiter. The bucket holds up to capacity tokens and gets one token added every refillIntervalMs.
+ * Time is passed in by the caller so the bucket does not need to read the clock or sleep.
+ */
+@NotThreadSafe
+class TokenBucket {
+    private final int capacity;
+    private final long refillIntervalMs;
+
+    private int tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, long refillIntervalMs, long now) {
+        checkArgument(capacity > 0, "capacity must be positive");
+        checkArgument(refillIntervalMs > 0, "refillIntervalMs must be positive");
+        this.capacity = capacity;
+        this.refillIntervalMs = refillIntervalMs;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens == 0) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Returns the time in ms until the next token gets available, 0 if there is a token available.
+     */
+    long getDelayToNextToken(long now) {
+        refill(now);
+        return tokens > 0 ? 0 : Math.max(1, lastRefill + refillIntervalMs - now);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed < refillIntervalMs) {
+            return;
+        }
+        long newTokens = elapsed / refillIntervalMs;
+        if (tokens + newTokens >= capacity) {
+            tokens = capacity;
+            lastRefill = now;
+        } else {
+            tokens += (int) newTokens;
+            lastRefill += newTokens * refillIntervalMs;
+        }
+    }
+}
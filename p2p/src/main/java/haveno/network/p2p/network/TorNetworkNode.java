@@ -71,7 +71,18 @@ public class TorNetworkNode extends NetworkNode {
             TorMode torMode,
             @Nullable BanFilter banFilter,
             int maxConnections) {
-        super(servicePort, networkProtoResolver, banFilter, maxConnections);
+        this(servicePort, networkProtoResolver, useStreamIsolation, torMode, banFilter, maxConnections,
+                ConnectionEngine.THREAD_PER_CONNECTION);
+    }
+
+    public TorNetworkNode(int servicePort,
+            NetworkProtoResolver networkProtoResolver,
+            boolean useStreamIsolation,
+            TorMode torMode,
+            @Nullable BanFilter banFilter,
+            int maxConnections,
+            ConnectionEngine connectionEngine) {
+        super(servicePort, networkProtoResolver, banFilter, maxConnections, connectionEngine);
         this.torMode = torMode;
         this.streamIsolation = useStreamIsolation;
 
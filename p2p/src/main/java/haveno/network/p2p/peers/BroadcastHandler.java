@@ -22,9 +22,14 @@ import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.network.Connection;
 import haveno.network.p2p.network.NetworkNode;
 import haveno.network.p2p.storage.messages.BroadcastMessage;
+import haveno.network.p2p.storage.messages.RefreshOfferMessage;
+import haveno.network.p2p.storage.messages.RefreshOffersMessage;
 
 import haveno.common.Timer;
 import haveno.common.UserThread;
+import haveno.common.app.Capability;
+
+import com.google.common.collect.Lists;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -258,7 +263,7 @@ public class BroadcastHandler implements PeerManager.Listener {
             List<Broadcaster.BroadcastRequest> broadcastRequestsForConnection,
             ListeningExecutorService executor) {
         // Can be BundleOfEnvelopes or a single BroadcastMessage
-        BroadcastMessage broadcastMessage = getMessage(broadcastRequestsForConnection);
+        BroadcastMessage broadcastMessage = getMessage(connection, broadcastRequestsForConnection);
         SettableFuture<Connection> future = networkNode.sendMessage(connection, broadcastMessage, executor);
         sendMessageFutures.add(future);
         Futures.addCallback(future, new FutureCallback<>() {
@@ -289,14 +294,38 @@ public class BroadcastHandler implements PeerManager.Listener {
         }, MoreExecutors.directExecutor());
     }
 
-    private BroadcastMessage getMessage(List<Broadcaster.BroadcastRequest> broadcastRequests) {
-        if (broadcastRequests.size() == 1) {
+    private BroadcastMessage getMessage(Connection connection,
+                                        List<Broadcaster.BroadcastRequest> broadcastRequests) {
+        return getMessage(broadcastRequests.stream()
+                        .map(Broadcaster.BroadcastRequest::getMessage)
+                        .collect(Collectors.toList()),
+                connection.getCapabilities().containsAll(Capability.REFRESH_OFFERS_BUNDLE));
+    }
+
+    // If the peer supports it we merge the RefreshOfferMessages into RefreshOffersMessages, so a maker with many open
+    // offers causes one refresh envelope per peer instead of one per offer.
+    static BroadcastMessage getMessage(List<BroadcastMessage> messages, boolean bundleRefreshes) {
+        List<BroadcastMessage> envelopes = messages;
+        if (bundleRefreshes) {
+            List<RefreshOfferMessage> refreshOfferMessages = messages.stream()
+                    .filter(message -> message instanceof RefreshOfferMessage)
+                    .map(message -> (RefreshOfferMessage) message)
+                    .collect(Collectors.toList());
+            if (refreshOfferMessages.size() > 1) {
+                envelopes = messages.stream()
+                        .filter(message -> !(message instanceof RefreshOfferMessage))
+                        .collect(Collectors.toCollection(ArrayList::new));
+                for (List<RefreshOfferMessage> partition : Lists.partition(refreshOfferMessages, RefreshOffersMessage.MAX_NUM_REFRESHES)) {
+                    envelopes.add(new RefreshOffersMessage(new ArrayList<>(partition)));
+                }
+            }
+        }
+
+        if (envelopes.size() == 1) {
             // If we only have 1 message we avoid the overhead of the BundleOfEnvelopes and send the message directly
-            return broadcastRequests.get(0).getMessage();
+            return envelopes.get(0);
         } else {
-            return new BundleOfEnvelopes(broadcastRequests.stream()
-                    .map(Broadcaster.BroadcastRequest::getMessage)
-                    .collect(Collectors.toList()));
+            return new BundleOfEnvelopes(new ArrayList<>(envelopes));
         }
     }
 
@@ -23,11 +23,13 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import haveno.common.Timer;
 import haveno.common.UserThread;
+import haveno.common.app.Capability;
 import haveno.network.p2p.network.CloseConnectionReason;
 import haveno.network.p2p.network.Connection;
 import haveno.network.p2p.network.NetworkNode;
 import haveno.network.p2p.peers.getdata.messages.GetDataRequest;
 import haveno.network.p2p.peers.getdata.messages.GetDataResponse;
+import haveno.network.p2p.storage.GetDataResponseCursor;
 import haveno.network.p2p.storage.P2PDataStorage;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
@@ -84,6 +86,15 @@ public class GetDataRequestHandler {
                 .map(e -> "node address " + e.getFullAddress())
                 .orElseGet(() -> "connection UID " + connection.getUid());
 
+        if (connection.getCapabilities().containsAll(Capability.GET_DATA_CHUNKED)) {
+            GetDataResponseCursor cursor = dataStorage.buildGetDataResponseCursor(getDataRequest, connection.getCapabilities());
+            log.info("The getDataResponse to peer with {} contains {} items and gets sent in chunks",
+                    connectionInfo, cursor.getNumItems());
+            sendNextChunk(cursor, connection);
+            log.info("handle GetDataRequest took {} ms", System.currentTimeMillis() - ts);
+            return;
+        }
+
         AtomicBoolean wasPersistableNetworkPayloadsTruncated = new AtomicBoolean(false);
         AtomicBoolean wasProtectedStorageEntriesTruncated = new AtomicBoolean(false);
         GetDataResponse getDataResponse = dataStorage.buildGetDataResponse(
@@ -153,6 +164,60 @@ public class GetDataRequestHandler {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Chunked response
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We send the next chunk when the previous one was written, so we do not fill up the outbound queue of the
+    // connection with the whole data at once. The timeout applies to each chunk.
+    private void sendNextChunk(GetDataResponseCursor cursor, Connection connection) {
+        if (stopped) {
+            log.trace("We have stopped already. We do not send the next chunk.");
+            return;
+        }
+
+        GetDataResponse getDataResponse = cursor.next();
+        stopTimeoutTimer();
+        timeoutTimer = UserThread.runAfter(() -> {
+                    String errorMessage = "A timeout occurred for chunk " + getDataResponse.getChunkIndex() +
+                            " of getDataResponse on connection:" + connection;
+                    handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
+                },
+                TIMEOUT, TimeUnit.SECONDS);
+
+        SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataResponse);
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+                if (stopped) {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call.");
+                    return;
+                }
+                if (getDataResponse.isHasMoreChunks()) {
+                    UserThread.execute(() -> sendNextChunk(cursor, connection));
+                } else {
+                    log.info("Sent all {} chunks of getDataResponse to {}",
+                            getDataResponse.getChunkIndex() + 1, connection.getPeersNodeAddressOptional());
+                    cleanup();
+                    listener.onComplete();
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (!stopped) {
+                    String errorMessage = "Sending chunk " + getDataResponse.getChunkIndex() + " of getDataResponse to " +
+                            connection + " failed. That is expected if the peer is offline. " +
+                            cursor.getNumRemainingItems() + " items were not sent. Exception: " + throwable.getMessage();
+                    handleFault(errorMessage, CloseConnectionReason.SEND_MSG_FAILURE, connection);
+                } else {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onFailure call.");
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -169,6 +234,10 @@ public class GetDataRequestHandler {
 
     private void cleanup() {
         stopped = true;
+        stopTimeoutTimer();
+    }
+
+    private void stopTimeoutTimer() {
         if (timeoutTimer != null) {
             timeoutTimer.stop();
             timeoutTimer = null;
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import haveno.common.Timer;
 import haveno.common.UserThread;
+import haveno.common.app.Capability;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.network.NetworkPayload;
 import haveno.common.util.Tuple2;
@@ -86,6 +87,7 @@ class RequestDataHandler implements MessageListener {
     private final Listener listener;
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
+    private int numReceivedChunks;
     private boolean stopped;
 
 
@@ -117,24 +119,18 @@ class RequestDataHandler implements MessageListener {
         if (!stopped) {
             GetDataRequest getDataRequest;
 
+            // We only know the capabilities if we have been connected to the peer before. Otherwise we send the list
+            // of excluded keys, which is supported by all peers.
+            boolean useBloomFilter = peerManager.findPeersCapabilities(nodeAddress)
+                    .map(capabilities -> capabilities.containsAll(Capability.GET_DATA_BLOOM_FILTER))
+                    .orElse(false);
             if (isPreliminaryDataRequest)
-                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce);
+                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce, useBloomFilter);
             else
-                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
+                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, useBloomFilter);
 
             if (timeoutTimer == null) {
-                timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
-                            if (!stopped) {
-                                String errorMessage = "A timeout occurred at sending getDataRequest:" + getDataRequest +
-                                        " on nodeAddress:" + nodeAddress;
-                                log.debug(errorMessage + " / RequestDataHandler=" + RequestDataHandler.this);
-                                handleFault(errorMessage, nodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
-                            } else {
-                                log.trace("We have stopped already. We ignore that timeoutTimer.run call. " +
-                                        "Might be caused by a previous networkNode.sendMessage.onFailure.");
-                            }
-                        },
-                        TIMEOUT);
+                startTimeoutTimer(nodeAddress);  // setup before sending to avoid race conditions
             }
 
             getDataRequestType = getDataRequest.getClass().getSimpleName();
@@ -193,11 +189,22 @@ class RequestDataHandler implements MessageListener {
                             return;
                         }
 
+                        if (getDataResponse.getChunkIndex() != numReceivedChunks) {
+                            log.warn("Received chunk {} of GetDataResponse but expected chunk {}",
+                                    getDataResponse.getChunkIndex(), numReceivedChunks);
+                        }
+                        numReceivedChunks++;
+
                         dataStorage.processGetDataResponse(getDataResponse,
                                 connection.getPeersNodeAddressOptional().get());
 
-                        cleanup();
-                        listener.onComplete();
+                        if (getDataResponse.isHasMoreChunks()) {
+                            // The peer streams the response in chunks, we wait for the next one
+                            startTimeoutTimer(peersNodeAddress);
+                        } else {
+                            cleanup();
+                            listener.onComplete();
+                        }
                         // firstRequest = false;
                     } else {
                         log.warn("Nonce not matching. That can happen rarely if we get a response after a canceled " +
@@ -281,6 +288,22 @@ class RequestDataHandler implements MessageListener {
         stopTimeoutTimer();
     }
 
+    private void startTimeoutTimer(NodeAddress nodeAddress) {
+        stopTimeoutTimer();
+        timeoutTimer = UserThread.runAfter(() -> {
+                    if (!stopped) {
+                        String errorMessage = "A timeout occurred at " + getDataRequestType +
+                                " (received chunks: " + numReceivedChunks + ") on nodeAddress:" + nodeAddress;
+                        log.debug(errorMessage + " / RequestDataHandler=" + RequestDataHandler.this);
+                        handleFault(errorMessage, nodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
+                    } else {
+                        log.trace("We have stopped already. We ignore that timeoutTimer.run call. " +
+                                "Might be caused by a previous networkNode.sendMessage.onFailure.");
+                    }
+                },
+                TIMEOUT);
+    }
+
     private void stopTimeoutTimer() {
         if (timeoutTimer != null) {
             timeoutTimer.stop();
@@ -20,6 +20,7 @@ package haveno.network.p2p.peers.getdata.messages;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.network.p2p.ExtendedDataSizePermission;
 import haveno.network.p2p.InitialDataRequest;
+import haveno.network.p2p.storage.PayloadHashBloomFilter;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -36,6 +37,10 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     // Keys for ProtectedStorageEntry items to be excluded from the request because the peer has them already
     protected final Set<byte[]> excludedKeys;
 
+    // Replaces excludedKeys if the peer supports Capability.GET_DATA_BLOOM_FILTER
+    @Nullable
+    protected final PayloadHashBloomFilter excludedKeysFilter;
+
     // Added at v1.4.0
     // The version of the requester. Used for response to send potentially missing historical data
     @Nullable
@@ -44,10 +49,12 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     public GetDataRequest(String messageVersion,
                           int nonce,
                           Set<byte[]> excludedKeys,
+                          @Nullable PayloadHashBloomFilter excludedKeysFilter,
                           @Nullable String version) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
+        this.excludedKeysFilter = excludedKeysFilter;
         this.version = version;
     }
 }
@@ -30,10 +30,13 @@ import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
 import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -56,6 +59,19 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     // Added at v1.9.6
     private final boolean wasTruncated;
 
+    // Only used if the requester supports Capability.GET_DATA_CHUNKED. Otherwise the response is a single chunk.
+    private final int chunkIndex;
+    private final boolean hasMoreChunks;
+
+    // The items serialized by the sender while filling the chunk, so they do not get serialized a second time.
+    // Null if not available.
+    @Nullable
+    @ToString.Exclude
+    private final transient List<protobuf.StorageEntryWrapper> serializedDataSet;
+    @Nullable
+    @ToString.Exclude
+    private final transient List<protobuf.PersistableNetworkPayload> serializedPersistableNetworkPayloadItems;
+
     public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
                            @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
@@ -66,6 +82,52 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 requestNonce,
                 isGetUpdatedDataResponse,
                 wasTruncated,
+                0,
+                false);
+    }
+
+    public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
+                           @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           boolean wasTruncated,
+                           int chunkIndex,
+                           boolean hasMoreChunks) {
+        this(dataSet,
+                persistableNetworkPayloadSet,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                wasTruncated,
+                chunkIndex,
+                hasMoreChunks,
+                null,
+                null,
+                Capabilities.app,
+                Version.getP2PMessageVersion());
+    }
+
+    /**
+     * Creates a chunk from items which have already been serialized. The serialized items must be in the same order
+     * as the items of the sets are added.
+     */
+    public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
+                           @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           @NotNull List<protobuf.StorageEntryWrapper> serializedDataSet,
+                           @NotNull List<protobuf.PersistableNetworkPayload> serializedPersistableNetworkPayloadItems,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           boolean wasTruncated,
+                           int chunkIndex,
+                           boolean hasMoreChunks) {
+        this(dataSet,
+                persistableNetworkPayloadSet,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                wasTruncated,
+                chunkIndex,
+                hasMoreChunks,
+                serializedDataSet,
+                serializedPersistableNetworkPayloadItems,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
     }
@@ -79,6 +141,10 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             boolean wasTruncated,
+                            int chunkIndex,
+                            boolean hasMoreChunks,
+                            @Nullable List<protobuf.StorageEntryWrapper> serializedDataSet,
+                            @Nullable List<protobuf.PersistableNetworkPayload> serializedPersistableNetworkPayloadItems,
                             @NotNull Capabilities supportedCapabilities,
                             String messageVersion) {
         super(messageVersion);
@@ -88,28 +154,29 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.wasTruncated = wasTruncated;
+        this.chunkIndex = chunkIndex;
+        this.hasMoreChunks = hasMoreChunks;
+        this.serializedDataSet = serializedDataSet;
+        this.serializedPersistableNetworkPayloadItems = serializedPersistableNetworkPayloadItems;
         this.supportedCapabilities = supportedCapabilities;
     }
 
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
         final protobuf.GetDataResponse.Builder builder = protobuf.GetDataResponse.newBuilder()
-                .addAllDataSet(dataSet.stream()
-                        .map(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
-                                protobuf.StorageEntryWrapper.newBuilder()
-                                        .setProtectedMailboxStorageEntry((protobuf.ProtectedMailboxStorageEntry) protectedStorageEntry.toProtoMessage())
-                                        .build()
-                                :
-                                protobuf.StorageEntryWrapper.newBuilder()
-                                        .setProtectedStorageEntry((protobuf.ProtectedStorageEntry) protectedStorageEntry.toProtoMessage())
-                                        .build())
-                        .collect(Collectors.toList()))
-                .addAllPersistableNetworkPayloadItems(persistableNetworkPayloadSet.stream()
-                        .map(PersistableNetworkPayload::toProtoMessage)
+                .addAllDataSet(serializedDataSet != null ? serializedDataSet : dataSet.stream()
+                        .map(GetDataResponse::toStorageEntryWrapper)
                         .collect(Collectors.toList()))
+                .addAllPersistableNetworkPayloadItems(serializedPersistableNetworkPayloadItems != null ?
+                        serializedPersistableNetworkPayloadItems :
+                        persistableNetworkPayloadSet.stream()
+                                .map(PersistableNetworkPayload::toProtoMessage)
+                                .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
                 .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
                 .setWasTruncated(wasTruncated)
+                .setChunkIndex(chunkIndex)
+                .setHasMoreChunks(hasMoreChunks)
                 .addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities));
 
         protobuf.NetworkEnvelope proto = getNetworkEnvelopeBuilder()
@@ -119,13 +186,25 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         return proto;
     }
 
+    public static protobuf.StorageEntryWrapper toStorageEntryWrapper(ProtectedStorageEntry protectedStorageEntry) {
+        return protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
+                protobuf.StorageEntryWrapper.newBuilder()
+                        .setProtectedMailboxStorageEntry((protobuf.ProtectedMailboxStorageEntry) protectedStorageEntry.toProtoMessage())
+                        .build()
+                :
+                protobuf.StorageEntryWrapper.newBuilder()
+                        .setProtectedStorageEntry((protobuf.ProtectedStorageEntry) protectedStorageEntry.toProtoMessage())
+                        .build();
+    }
+
     public static GetDataResponse fromProto(protobuf.GetDataResponse proto,
                                             NetworkProtoResolver resolver,
                                             String messageVersion) {
         boolean wasTruncated = proto.getWasTruncated();
-        log.info("Received a GetDataResponse with {} {}",
+        log.info("Received a GetDataResponse with {} {}{}",
                 Utilities.readableFileSize(proto.getSerializedSize()),
-                wasTruncated ? " (was truncated)" : "");
+                wasTruncated ? " (was truncated)" : "",
+                proto.getHasMoreChunks() || proto.getChunkIndex() > 0 ? " (chunk " + proto.getChunkIndex() + ")" : "");
         Set<ProtectedStorageEntry> dataSet = proto.getDataSetList().stream()
                 .map(entry -> (ProtectedStorageEntry) resolver.fromProto(entry)).collect(Collectors.toSet());
         Set<PersistableNetworkPayload> persistableNetworkPayloadSet = proto.getPersistableNetworkPayloadItemsList().stream()
@@ -135,6 +214,10 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 wasTruncated,
+                proto.getChunkIndex(),
+                proto.getHasMoreChunks(),
+                null,
+                null,
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
     }
@@ -143,4 +226,9 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     public Class<? extends InitialDataRequest> associatedRequest() {
         return isGetUpdatedDataResponse ? GetUpdatedDataRequest.class : PreliminaryGetDataRequest.class;
     }
+
+    @Override
+    public boolean isLastChunk() {
+        return !hasMoreChunks;
+    }
 }
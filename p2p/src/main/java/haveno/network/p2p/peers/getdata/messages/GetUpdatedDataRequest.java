@@ -22,12 +22,14 @@ import haveno.common.app.Version;
 import haveno.common.proto.ProtoUtil;
 import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.SendersNodeAddressMessage;
+import haveno.network.p2p.storage.PayloadHashBloomFilter;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import protobuf.NetworkEnvelope;
 
 import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -44,6 +46,18 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
+                null,
+                Version.VERSION,
+                Version.getP2PMessageVersion());
+    }
+
+    public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                 int nonce,
+                                 PayloadHashBloomFilter excludedKeysFilter) {
+        this(senderNodeAddress,
+                nonce,
+                new HashSet<>(),
+                excludedKeysFilter,
                 Version.VERSION,
                 Version.getP2PMessageVersion());
     }
@@ -56,11 +70,13 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     private GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                   int nonce,
                                   Set<byte[]> excludedKeys,
+                                  @Nullable PayloadHashBloomFilter excludedKeysFilter,
                                   @Nullable String version,
                                   String messageVersion) {
         super(messageVersion,
                 nonce,
                 excludedKeys,
+                excludedKeysFilter,
                 version);
         this.senderNodeAddress = senderNodeAddress;
     }
@@ -74,22 +90,28 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(excludedKeysFilter).ifPresent(e -> builder.setExcludedKeysFilter(e.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
                 .build();
-        log.info("Sending a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        log.info("Sending a GetUpdatedDataRequest with {} kB, {} excluded key entries and excluded keys filter {}. " +
+                        "Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), excludedKeysFilter != null, version);
         return proto;
     }
 
     public static GetUpdatedDataRequest fromProto(protobuf.GetUpdatedDataRequest proto, String messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
+        PayloadHashBloomFilter excludedKeysFilter = proto.hasExcludedKeysFilter() ?
+                PayloadHashBloomFilter.fromProto(proto.getExcludedKeysFilter()) : null;
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
-        log.info("Received a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
+        log.info("Received a GetUpdatedDataRequest with {} kB, {} excluded key entries and excluded keys filter {}. " +
+                        "Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), excludedKeysFilter != null, requestersVersion);
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 excludedKeys,
+                excludedKeysFilter,
                 requestersVersion,
                 messageVersion);
     }
@@ -23,12 +23,14 @@ import haveno.common.app.Version;
 import haveno.common.proto.ProtoUtil;
 import haveno.network.p2p.AnonymousMessage;
 import haveno.network.p2p.SupportedCapabilitiesMessage;
+import haveno.network.p2p.storage.PayloadHashBloomFilter;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import protobuf.NetworkEnvelope;
 
 import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -42,6 +44,16 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     public PreliminaryGetDataRequest(int nonce, Set<byte[]> excludedKeys) {
         this(nonce,
                 excludedKeys,
+                null,
+                Version.VERSION,
+                Capabilities.app,
+                Version.getP2PMessageVersion());
+    }
+
+    public PreliminaryGetDataRequest(int nonce, PayloadHashBloomFilter excludedKeysFilter) {
+        this(nonce,
+                new HashSet<>(),
+                excludedKeysFilter,
                 Version.VERSION,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
@@ -54,10 +66,11 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable PayloadHashBloomFilter excludedKeysFilter,
                                       @Nullable String version,
                                       Capabilities supportedCapabilities,
                                       String messageVersion) {
-        super(messageVersion, nonce, excludedKeys, version);
+        super(messageVersion, nonce, excludedKeys, excludedKeysFilter, version);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -71,21 +84,27 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(excludedKeysFilter).ifPresent(e -> builder.setExcludedKeysFilter(e.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
                 .build();
-        log.info("Sending a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        log.info("Sending a PreliminaryGetDataRequest with {} kB, {} excluded key entries and excluded keys filter {}. " +
+                        "Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), excludedKeysFilter != null, version);
         return proto;
     }
 
     public static PreliminaryGetDataRequest fromProto(protobuf.PreliminaryGetDataRequest proto, String messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
+        PayloadHashBloomFilter excludedKeysFilter = proto.hasExcludedKeysFilter() ?
+                PayloadHashBloomFilter.fromProto(proto.getExcludedKeysFilter()) : null;
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
-        log.info("Received a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
+        log.info("Received a PreliminaryGetDataRequest with {} kB, {} excluded key entries and excluded keys filter {}. " +
+                        "Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), excludedKeysFilter != null, requestersVersion);
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 excludedKeys,
+                excludedKeysFilter,
                 requestersVersion,
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.peers.getdata.messages.GetDataResponse;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Cursor over a snapshot of the data we send in response to a GetDataRequest from a peer supporting
+ * Capability.GET_DATA_CHUNKED.
+ *
+ * The data is filtered once when the cursor is created. Each call of next() returns the following GetDataResponse
+ * chunk, which is filled up to maxChunkSize, so the whole data is delivered in one exchange without the requester
+ * sending a new request for each truncated response.
+ *
+ * Each item is serialized once. The serialized item is used to measure its size and is then sent as part of the chunk.
+ */
+public class GetDataResponseCursor {
+    private final List<ProtectedStorageEntry> protectedStorageEntries;
+    private final List<PersistableNetworkPayload> persistableNetworkPayloads;
+    private final int requestNonce;
+    private final boolean isGetUpdatedDataResponse;
+    private final boolean wasTruncated;
+    private final long maxChunkSize;
+
+    private int protectedStorageEntriesIndex;
+    private int persistableNetworkPayloadsIndex;
+    private int chunkIndex;
+
+    // The serialized item at the current index which did not fit into the previous chunk
+    private protobuf.StorageEntryWrapper nextSerializedProtectedStorageEntry;
+    private protobuf.PersistableNetworkPayload nextSerializedPersistableNetworkPayload;
+
+    GetDataResponseCursor(Set<ProtectedStorageEntry> protectedStorageEntries,
+                          Set<PersistableNetworkPayload> persistableNetworkPayloads,
+                          int requestNonce,
+                          boolean isGetUpdatedDataResponse,
+                          boolean wasTruncated,
+                          long maxChunkSize) {
+        this.protectedStorageEntries = new ArrayList<>(protectedStorageEntries);
+        this.persistableNetworkPayloads = new ArrayList<>(persistableNetworkPayloads);
+        this.requestNonce = requestNonce;
+        this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
+        this.wasTruncated = wasTruncated;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Returns true if there is another chunk. There is always at least one chunk, which might be empty.
+     */
+    public synchronized boolean hasNext() {
+        return chunkIndex == 0 || hasRemainingItems();
+    }
+
+    public synchronized GetDataResponse next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more chunks");
+        }
+
+        long size = 0;
+        Set<ProtectedStorageEntry> dataSet = new HashSet<>();
+        List<protobuf.StorageEntryWrapper> serializedDataSet = new ArrayList<>();
+        while (protectedStorageEntriesIndex < protectedStorageEntries.size()) {
+            ProtectedStorageEntry item = protectedStorageEntries.get(protectedStorageEntriesIndex);
+            protobuf.StorageEntryWrapper serializedItem = nextSerializedProtectedStorageEntry != null ?
+                    nextSerializedProtectedStorageEntry :
+                    GetDataResponse.toStorageEntryWrapper(item);
+            long itemSize = serializedItem.getSerializedSize();
+            if (size > 0 && size + itemSize > maxChunkSize) {
+                nextSerializedProtectedStorageEntry = serializedItem;
+                break;
+            }
+            nextSerializedProtectedStorageEntry = null;
+            dataSet.add(item);
+            serializedDataSet.add(serializedItem);
+            size += itemSize;
+            protectedStorageEntriesIndex++;
+        }
+
+        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = new HashSet<>();
+        List<protobuf.PersistableNetworkPayload> serializedPersistableNetworkPayloads = new ArrayList<>();
+        if (protectedStorageEntriesIndex == protectedStorageEntries.size()) {
+            while (persistableNetworkPayloadsIndex < persistableNetworkPayloads.size()) {
+                PersistableNetworkPayload item = persistableNetworkPayloads.get(persistableNetworkPayloadsIndex);
+                protobuf.PersistableNetworkPayload serializedItem = nextSerializedPersistableNetworkPayload != null ?
+                        nextSerializedPersistableNetworkPayload :
+                        item.toProtoMessage();
+                long itemSize = serializedItem.getSerializedSize();
+                if (size > 0 && size + itemSize > maxChunkSize) {
+                    nextSerializedPersistableNetworkPayload = serializedItem;
+                    break;
+                }
+                nextSerializedPersistableNetworkPayload = null;
+                persistableNetworkPayloadSet.add(item);
+                serializedPersistableNetworkPayloads.add(serializedItem);
+                size += itemSize;
+                persistableNetworkPayloadsIndex++;
+            }
+        }
+
+        return new GetDataResponse(dataSet,
+                persistableNetworkPayloadSet,
+                serializedDataSet,
+                serializedPersistableNetworkPayloads,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                wasTruncated,
+                chunkIndex++,
+                hasRemainingItems());
+    }
+
+    public synchronized int getNumRemainingItems() {
+        return protectedStorageEntries.size() - protectedStorageEntriesIndex +
+                persistableNetworkPayloads.size() - persistableNetworkPayloadsIndex;
+    }
+
+    public int getNumItems() {
+        return protectedStorageEntries.size() + persistableNetworkPayloads.size();
+    }
+
+    private boolean hasRemainingItems() {
+        return protectedStorageEntriesIndex < protectedStorageEntries.size() ||
+                persistableNetworkPayloadsIndex < persistableNetworkPayloads.size();
+    }
+}
@@ -34,8 +34,10 @@ import haveno.network.p2p.storage.messages.AddOncePayload;
 import haveno.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
 import haveno.network.p2p.storage.messages.BroadcastMessage;
 import haveno.network.p2p.storage.messages.RefreshOfferMessage;
+import haveno.network.p2p.storage.messages.RefreshOffersMessage;
 import haveno.network.p2p.storage.messages.RemoveDataMessage;
 import haveno.network.p2p.storage.messages.RemoveMailboxDataMessage;
+import haveno.network.p2p.storage.payload.CachedHashPayload;
 import haveno.network.p2p.storage.payload.CapabilityRequiringPayload;
 import haveno.network.p2p.storage.payload.DateSortedTruncatablePayload;
 import haveno.network.p2p.storage.payload.DateTolerantPayload;
@@ -68,6 +70,7 @@ import haveno.common.proto.network.NetworkPayload;
 import haveno.common.proto.persistable.PersistablePayload;
 import haveno.common.proto.persistable.PersistedDataHost;
 import haveno.common.util.Hex;
+import haveno.common.util.MergedMapView;
 import haveno.common.util.Tuple2;
 import haveno.common.util.Utilities;
 
@@ -271,14 +274,38 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce) {
-        return new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
+        return buildPreliminaryGetDataRequest(nonce, false);
+    }
+
+    /**
+     * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data. If
+     * useBloomFilter is set the known payload hashes are sent as a bloom filter, which requires the peer to support
+     * Capability.GET_DATA_BLOOM_FILTER.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce, boolean useBloomFilter) {
+        return useBloomFilter ?
+                new PreliminaryGetDataRequest(nonce, getKnownPayloadHashesFilter()) :
+                new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
     }
 
     /**
      * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress, int nonce) {
-        return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashes());
+        return buildGetUpdatedDataRequest(senderNodeAddress, nonce, false);
+    }
+
+    /**
+     * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data. If
+     * useBloomFilter is set the known payload hashes are sent as a bloom filter, which requires the peer to support
+     * Capability.GET_DATA_BLOOM_FILTER.
+     */
+    public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                                            int nonce,
+                                                            boolean useBloomFilter) {
+        return useBloomFilter ?
+                new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashesFilter()) :
+                new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashes());
     }
 
     /**
@@ -296,6 +323,19 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return excludedKeys;
     }
 
+    /**
+     * Returns a bloom filter of the known payload hashes, which is used instead of the set of known payload hashes
+     * for peers supporting it. We add the keys directly so we do not need to copy them into a set.
+     */
+    private PayloadHashBloomFilter getKnownPayloadHashesFilter() {
+        Map<ByteArray, PersistableNetworkPayload> mapForDataRequest = getMapForDataRequest();
+        PayloadHashBloomFilter filter = PayloadHashBloomFilter.create(mapForDataRequest.size() + map.size(),
+                PayloadHashBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        mapForDataRequest.keySet().forEach(key -> filter.put(key.bytes));
+        map.keySet().forEach(key -> filter.put(key.bytes));
+        return filter;
+    }
+
     /**
      * Returns a GetDataResponse object that contains the Payloads known locally, but not remotely.
      */
@@ -306,8 +346,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             AtomicBoolean wasProtectedStorageEntriesTruncated,
             Capabilities peerCapabilities) {
 
-        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
-                P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+        Predicate<ByteArray> isExcluded = getExcludedKeysPredicate(getDataRequest);
 
         // Pre v 1.4.0 requests do not have set the requesters version field so it is null.
         // The methods in HistoricalDataStoreService will return all historical data in that case.
@@ -323,7 +362,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads = filterKnownHashes(
                 mapForDataResponse,
                 Function.identity(),
-                excludedKeysAsByteArray,
+                isExcluded,
                 peerCapabilities,
                 maxEntriesPerType,
                 limit,
@@ -342,7 +381,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         Set<ProtectedStorageEntry> filteredProtectedStorageEntries = filterKnownHashes(
                 map,
                 ProtectedStorageEntry::getProtectedStoragePayload,
-                excludedKeysAsByteArray,
+                isExcluded,
                 peerCapabilities,
                 maxEntriesPerType,
                 limit,
@@ -365,12 +404,69 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 wasTruncated);
     }
 
+    /**
+     * Returns a cursor over all Payloads known locally, but not remotely, which delivers them in GetDataResponse
+     * chunks. Used for peers supporting Capability.GET_DATA_CHUNKED instead of a single truncated response.
+     */
+    public GetDataResponseCursor buildGetDataResponseCursor(GetDataRequest getDataRequest,
+                                                            Capabilities peerCapabilities) {
+        Predicate<ByteArray> isExcluded = getExcludedKeysPredicate(getDataRequest);
+        Map<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
+
+        // We do not limit the size as it is split into chunks, but still apply the max. items of
+        // DateSortedTruncatablePayloads
+        AtomicBoolean wasPersistableNetworkPayloadsTruncated = new AtomicBoolean();
+        Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads = filterKnownHashes(
+                mapForDataResponse,
+                Function.identity(),
+                isExcluded,
+                peerCapabilities,
+                Integer.MAX_VALUE,
+                Long.MAX_VALUE,
+                wasPersistableNetworkPayloadsTruncated,
+                true);
+        AtomicBoolean wasProtectedStorageEntriesTruncated = new AtomicBoolean();
+        Set<ProtectedStorageEntry> filteredProtectedStorageEntries = filterKnownHashes(
+                map,
+                ProtectedStorageEntry::getProtectedStoragePayload,
+                isExcluded,
+                peerCapabilities,
+                Integer.MAX_VALUE,
+                Long.MAX_VALUE,
+                wasProtectedStorageEntriesTruncated,
+                false);
+        log.info("{} ProtectedStorageEntry and {} PersistableNetworkPayload entries remained after filtered by excluded keys",
+                filteredProtectedStorageEntries.size(), filteredPersistableNetworkPayloads.size());
+
+        // Same tolerance for message overhead as for a single response
+        long maxChunkSize = Math.round(Connection.getMaxPermittedMessageSize() * 0.6);
+        return new GetDataResponseCursor(filteredProtectedStorageEntries,
+                filteredPersistableNetworkPayloads,
+                getDataRequest.getNonce(),
+                getDataRequest instanceof GetUpdatedDataRequest,
+                wasPersistableNetworkPayloadsTruncated.get() || wasProtectedStorageEntriesTruncated.get(),
+                maxChunkSize);
+    }
+
+    // Requests of peers supporting Capability.GET_DATA_BLOOM_FILTER carry a filter instead of the excluded keys
+    private Predicate<ByteArray> getExcludedKeysPredicate(GetDataRequest getDataRequest) {
+        PayloadHashBloomFilter excludedKeysFilter = getDataRequest.getExcludedKeysFilter();
+        if (excludedKeysFilter != null) {
+            return key -> excludedKeysFilter.mightContain(key.bytes);
+        }
+        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
+                P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+        return excludedKeysAsByteArray::contains;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Utils for collecting the exclude hashes
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The maps of the services are returned as read-only view without copying them. Each service stores a different
+    // payload type, so the maps do not have keys in common.
     private Map<ByteArray, PersistableNetworkPayload> getMapForDataRequest() {
-        Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+        List<Map<ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
         appendOnlyDataStoreService.getServices()
                 .forEach(service -> {
                     Map<ByteArray, PersistableNetworkPayload> serviceMap;
@@ -382,15 +478,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     } else {
                         serviceMap = service.getMap();
                     }
-                    map.putAll(serviceMap);
+                    maps.add(serviceMap);
                     log.debug("We added {} entries from {} to the excluded key set of our request",
                             serviceMap.size(), service.getClass().getSimpleName());
                 });
-        return map;
+        return new MergedMapView<>(maps);
     }
 
     public Map<ByteArray, PersistableNetworkPayload> getMapForDataResponse(String requestersVersion) {
-        Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+        List<Map<ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
         appendOnlyDataStoreService.getServices()
                 .forEach(service -> {
                     Map<ByteArray, PersistableNetworkPayload> serviceMap;
@@ -400,29 +496,28 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     } else {
                         serviceMap = service.getMap();
                     }
-                    map.putAll(serviceMap);
+                    maps.add(serviceMap);
                     log.info("We added {} entries from {} to be filtered by excluded keys",
                             serviceMap.size(), service.getClass().getSimpleName());
                 });
-        return map;
+        return new MergedMapView<>(maps);
     }
 
     /**
      * Generic function that can be used to filter a Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload>
-     * by a given set of keys and peer capabilities.
+     * by a given predicate of known keys and peer capabilities.
      */
     static private <T extends NetworkPayload> Set<T> filterKnownHashes(
             Map<ByteArray, T> toFilter,
             Function<T, ? extends NetworkPayload> asPayload,
-            Set<ByteArray> knownHashes,
+            Predicate<ByteArray> isKnownHash,
             Capabilities peerCapabilities,
             int maxEntries,
             long limit,
             AtomicBoolean outTruncated,
             boolean isPersistableNetworkPayload) {
-        log.info("Filter {} data based on {} knownHashes",
-                isPersistableNetworkPayload ? "PersistableNetworkPayload" : "ProtectedStorageEntry",
-                knownHashes.size());
+        log.info("Filter {} data based on knownHashes",
+                isPersistableNetworkPayload ? "PersistableNetworkPayload" : "ProtectedStorageEntry");
 
         AtomicLong totalSize = new AtomicLong();
         AtomicBoolean exceededSizeLimit = new AtomicBoolean();
@@ -438,7 +533,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         // Map.Entry.value can be ProtectedStorageEntry or PersistableNetworkPayload. We call it item in the steam iterations.
         List<T> filteredItems = entries.stream()
-                .filter(entry -> !knownHashes.contains(entry.getKey()))
+                .filter(entry -> !isKnownHash.test(entry.getKey()))
                 .map(Map.Entry::getValue)
                 .filter(item -> shouldTransmitPayloadToPeer(peerCapabilities, asPayload.apply(item)))
                 .collect(Collectors.toList());
@@ -618,8 +713,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         // We only process PersistableNetworkPayloads implementing ProcessOncePersistableNetworkPayload once. It can cause performance
         // issues and since the data is rarely out of sync it is not worth it to apply them from multiple peers during
-        // startup.
-        initialRequestApplied = true;
+        // startup. If the response is streamed in chunks we apply all chunks of the first response.
+        if (getDataResponse.isLastChunk()) {
+            initialRequestApplied = true;
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -680,6 +777,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     remove(((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry(), peersNodeAddress);
                 } else if (networkEnvelope instanceof RefreshOfferMessage) {
                     refreshTTL((RefreshOfferMessage) networkEnvelope, peersNodeAddress);
+                } else if (networkEnvelope instanceof RefreshOffersMessage) {
+                    ((RefreshOffersMessage) networkEnvelope).getRefreshOfferMessages()
+                            .forEach(refreshOfferMessage -> refreshTTL(refreshOfferMessage, peersNodeAddress));
                 } else if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage) {
                     addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload(),
                             peersNodeAddress, true, false, true);
@@ -1246,6 +1346,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * @return Hash of data
      */
     public static byte[] get32ByteHash(NetworkPayload data) {
+        if (data instanceof CachedHashPayload) {
+            return ((CachedHashPayload) data).getHash();
+        }
         return Hash.getSha256Hash(data.toProtoMessage().toByteArray());
     }
 
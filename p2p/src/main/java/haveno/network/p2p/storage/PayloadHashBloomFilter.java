@@ -0,0 +1,184 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import com.google.protobuf.ByteString;
+import haveno.common.crypto.Hash;
+import haveno.common.proto.network.NetworkPayload;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bloom filter of payload hashes. Used in GetDataRequests as a compact replacement of the list of excluded keys if the
+ * peer supports it.
+ *
+ * A false positive causes the peer to not send an item we are missing. Each filter uses a random tweak, so an item
+ * which was a false positive in one request is very likely not a false positive in the next one (e.g. the
+ * GetUpdatedDataRequest following the PreliminaryGetDataRequest).
+ */
+@EqualsAndHashCode
+public final class PayloadHashBloomFilter implements NetworkPayload {
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.0001;
+    // Max. size of the bit field we accept from a peer. A filter of 4 MB covers about 1.7 million items at the default
+    // false positive rate and stays well below the max. permitted message size of a connection.
+    static final int MAX_NUM_BYTES = 4 * 1024 * 1024;
+    static final int MAX_NUM_HASH_FUNCTIONS = 20;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final long[] bits;
+    @Getter
+    private final int numHashFunctions;
+    @Getter
+    private final long tweak;
+
+    /**
+     * Creates an empty filter sized for the expected number of items and the given false positive rate.
+     */
+    public static PayloadHashBloomFilter create(int expectedItems, double falsePositiveRate) {
+        checkArgument(falsePositiveRate > 0 && falsePositiveRate < 1, "falsePositiveRate must be in (0, 1)");
+        int items = Math.max(1, expectedItems);
+        double ln2 = Math.log(2);
+        long numBits = (long) Math.ceil(-items * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int numLongs = (int) Math.min(MAX_NUM_BYTES / Long.BYTES, Math.max(1, (numBits + 63) / 64));
+        int numHashFunctions = (int) Math.round((double) numLongs * 64 / items * ln2);
+        numHashFunctions = Math.max(1, Math.min(MAX_NUM_HASH_FUNCTIONS, numHashFunctions));
+        return new PayloadHashBloomFilter(new long[numLongs], numHashFunctions, RANDOM.nextLong());
+    }
+
+    private PayloadHashBloomFilter(long[] bits, int numHashFunctions, long tweak) {
+        this.bits = bits;
+        this.numHashFunctions = numHashFunctions;
+        this.tweak = tweak;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.PayloadHashBloomFilter toProtoMessage() {
+        ByteBuffer buffer = ByteBuffer.allocate(bits.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(bits);
+        return protobuf.PayloadHashBloomFilter.newBuilder()
+                .setBits(ByteString.copyFrom(buffer.array()))
+                .setNumHashFunctions(numHashFunctions)
+                .setTweak(tweak)
+                .build();
+    }
+
+    public static PayloadHashBloomFilter fromProto(protobuf.PayloadHashBloomFilter proto) {
+        int numBytes = proto.getBits().size();
+        checkArgument(numBytes > 0 && numBytes <= MAX_NUM_BYTES && numBytes % Long.BYTES == 0,
+                "Invalid size of bloom filter: " + numBytes);
+        checkArgument(proto.getNumHashFunctions() > 0 && proto.getNumHashFunctions() <= MAX_NUM_HASH_FUNCTIONS,
+                "Invalid number of hash functions: " + proto.getNumHashFunctions());
+        long[] bits = new long[numBytes / Long.BYTES];
+        proto.getBits().asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(bits);
+        return new PayloadHashBloomFilter(bits, proto.getNumHashFunctions(), proto.getTweak());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void put(byte[] hash) {
+        byte[] bytes = toHashBytes(hash);
+        long numBits = getNumBits();
+        long h1 = getHash1(bytes);
+        long h2 = getHash2(bytes);
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, numBits);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    /**
+     * Returns true if the hash might have been added, false if it has definitely not been added.
+     */
+    public boolean mightContain(byte[] hash) {
+        byte[] bytes = toHashBytes(hash);
+        long numBits = getNumBits();
+        long h1 = getHash1(bytes);
+        long h2 = getHash2(bytes);
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getNumBits() {
+        return (long) bits.length * 64;
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadHashBloomFilter{" +
+                "\n     numBits=" + getNumBits() +
+                ",\n     numHashFunctions=" + numHashFunctions +
+                "\n}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Payload hashes are already uniformly distributed, so we derive the two base hashes of the double hashing from
+    // the hash bytes. Short keys get hashed first so we have at least 16 bytes.
+    private long getHash1(byte[] bytes) {
+        return mix(getLong(bytes, 0) ^ tweak);
+    }
+
+    private long getHash2(byte[] bytes) {
+        return mix(getLong(bytes, 8) + tweak) | 1;
+    }
+
+    private static byte[] toHashBytes(byte[] hash) {
+        return hash.length >= 16 ? hash : Hash.getSha256Hash(hash);
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xff);
+        }
+        return value;
+    }
+
+    // Finalizer of MurmurHash3
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.payload;
+
+import haveno.common.proto.network.NetworkPayload;
+
+/**
+ * Payload which caches the hash used as its key in the P2PDataStorage, so it does not get serialized and hashed at
+ * each storage operation.
+ * <p/>
+ * The hash has to be computed lazily from the serialized payload like P2PDataStorage.get32ByteHash does. If a
+ * mutable field which is part of the serialized payload gets changed the cached hash has to be reset.
+ */
+public interface CachedHashPayload extends NetworkPayload {
+    /**
+     * @return The SHA-256 hash of the serialized payload. Must not be modified by the caller.
+     */
+    byte[] getHash();
+}
@@ -18,6 +18,7 @@
 package haveno.network.p2p.storage.payload;
 
 import com.google.protobuf.ByteString;
+import haveno.common.crypto.Hash;
 import haveno.common.crypto.Sig;
 import haveno.common.util.CollectionUtils;
 import haveno.common.util.ExtraDataMapValidator;
@@ -47,7 +48,7 @@ import java.util.concurrent.TimeUnit;
 @Getter
 @EqualsAndHashCode
 @Slf4j
-public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload, AddOncePayload {
+public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload, AddOncePayload, CachedHashPayload {
     public static final long TTL = TimeUnit.DAYS.toMillis(15);
 
     // Added in 1.5.5
@@ -66,6 +67,9 @@ public final class MailboxStoragePayload implements ProtectedStoragePayload, Exp
     @Nullable
     private Map<String, String> extraDataMap;
 
+    // cache
+    private transient volatile byte[] hash;
+
     public MailboxStoragePayload(PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage,
                                  @NotNull PublicKey senderPubKeyForAddOperation,
                                  PublicKey ownerPubKey,
@@ -125,6 +129,14 @@ public final class MailboxStoragePayload implements ProtectedStoragePayload, Exp
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    @Override
+    public byte[] getHash() {
+        if (hash == null) {
+            hash = Hash.getSha256Hash(toProtoMessage().toByteArray());
+        }
+        return hash;
+    }
+
     @Override
     public long getTTL() {
         if (extraDataMap != null && extraDataMap.containsKey(EXTRA_MAP_KEY_TTL)) {
@@ -18,9 +18,11 @@
 package haveno.network.p2p.storage.persistence;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import haveno.common.app.DevEnv;
 import haveno.common.app.Version;
 import haveno.common.persistence.PersistenceManager;
+import haveno.common.util.MergedMapView;
 import haveno.network.p2p.storage.P2PDataStorage;
 import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +30,8 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -41,6 +45,8 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     private ImmutableMap<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion;
     // Cache to avoid that we have to recreate the historical data at each request
     private ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads;
+    // Cache of the merged historical data of the stores newer than a requesters version, by the versions of the stores
+    private final Map<Set<String>, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalPayloadsByVersions = new ConcurrentHashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -58,13 +64,12 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
 
     // We give back a map of our live map and all historical maps newer than the requested version.
     // If requestersVersion is null we return all historical data.
+    // The result is a read-only view of the live map and the cached historical data, so we do not copy the full data
+    // at each request.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapSinceVersion(String requestersVersion) {
-        // We add all our live data
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(store.getMap());
-
         // If we have a store with a newer version than the requesters version we will add those as well.
-        storesByVersion.entrySet().stream()
-                .filter(entry -> {
+        Set<String> versions = storesByVersion.keySet().stream()
+                .filter(storeVersion -> {
                     // Old nodes not sending the version will get delivered all data
                     if (requestersVersion == null) {
                         log.info("The requester did not send a version. This is expected for not updated nodes.");
@@ -73,7 +78,6 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
 
                     // Otherwise we only add data if the requesters version is older then
                     // the version of the particular store.
-                    String storeVersion = entry.getKey();
                     boolean newVersion = Version.isNewVersion(storeVersion, requestersVersion);
                     String details = newVersion ?
                             "As our historical store is a newer version we add the data to our result map." :
@@ -83,9 +87,18 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                             requestersVersion, storeVersion, details);
                     return newVersion;
                 })
-                .map(e -> e.getValue().getMap())
-                .forEach(result::putAll);
+                .collect(ImmutableSet.toImmutableSet());
+
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> historicalPayloads;
+        if (versions.size() == storesByVersion.size()) {
+            historicalPayloads = allHistoricalPayloads;
+        } else {
+            // The historical stores do not change after startup, so the merged map of a set of versions can be reused
+            historicalPayloads = historicalPayloadsByVersions.computeIfAbsent(versions, this::mergeHistoricalStores);
+        }
 
+        // Live data and historical data are disjoint as we prune the live data and only add new data to it
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new MergedMapView<>(getMapOfLiveData(), historicalPayloads);
         log.info("We found {} entries since requesters version {}",
                 result.size(), requestersVersion);
         return result;
@@ -95,10 +108,9 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         return store.getMap();
     }
 
+    // Read-only view of the live data and all historical data. Changes of the live data are visible in the view.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfAllData() {
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(getMapOfLiveData());
-        result.putAll(allHistoricalPayloads);
-        return result;
+        return new MergedMapView<>(getMapOfLiveData(), allHistoricalPayloads);
     }
 
 
@@ -204,6 +216,13 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         requestPersistence();
     }
 
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> mergeHistoricalStores(Set<String> versions) {
+        // Stores of different versions can contain the same items, so we need to merge them
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>();
+        versions.forEach(version -> result.putAll(storesByVersion.get(version).getMap()));
+        return ImmutableMap.copyOf(result);
+    }
+
     private boolean anyMapContainsKey(P2PDataStorage.ByteArray hash) {
         return getMapOfLiveData().containsKey(hash) || allHistoricalPayloads.containsKey(hash);
     }
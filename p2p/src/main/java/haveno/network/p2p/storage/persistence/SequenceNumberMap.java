@@ -17,13 +17,15 @@
 
 package haveno.network.p2p.storage.persistence;
 
+import haveno.common.proto.persistable.JournaledPersistableEnvelope;
 import haveno.common.proto.persistable.PersistableEnvelope;
 import haveno.network.p2p.storage.P2PDataStorage;
 import lombok.Getter;
-import lombok.Setter;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -31,12 +33,18 @@ import java.util.stream.Collectors;
  * This class was not generalized to HashMapPersistable (like we did with #ListPersistable) because
  * in protobuffer the map construct can't be anything, so the straightforward mapping was not possible.
  * Hence this Persistable class.
+ *
+ * Entries only get added or updated except at purging, so we persist the updated entries as journal deltas and
+ * require a full snapshot after setMap.
  */
-public class SequenceNumberMap implements PersistableEnvelope {
+public class SequenceNumberMap implements JournaledPersistableEnvelope {
     @Getter
-    @Setter
     private Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new ConcurrentHashMap<>();
 
+    // Keys which got updated since the last delta
+    private final Set<P2PDataStorage.ByteArray> changedKeys = ConcurrentHashMap.newKeySet();
+    private volatile boolean snapshotRequired;
+
     public SequenceNumberMap() {
     }
 
@@ -51,6 +59,16 @@ public class SequenceNumberMap implements PersistableEnvelope {
 
     @Override
     public protobuf.PersistableEnvelope toProtoMessage() {
+        return toProtoMessage(map);
+    }
+
+    // The map values are immutable, so a copy of the map can be serialized on the write thread.
+    @Override
+    public PersistableEnvelope toPersistableSnapshot() {
+        return new SequenceNumberMap(map);
+    }
+
+    private static protobuf.PersistableEnvelope toProtoMessage(Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map) {
         return protobuf.PersistableEnvelope.newBuilder()
                 .setSequenceNumberMap(protobuf.SequenceNumberMap.newBuilder()
                         .addAllSequenceNumberEntries(map.entrySet().stream()
@@ -70,10 +88,45 @@ public class SequenceNumberMap implements PersistableEnvelope {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // JournaledPersistableEnvelope
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    @Override
+    public protobuf.PersistableEnvelope toPersistableDelta() {
+        if (snapshotRequired) {
+            snapshotRequired = false;
+            changedKeys.clear();
+            return null;
+        }
+
+        Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> delta = new HashMap<>();
+        changedKeys.forEach(key -> {
+            changedKeys.remove(key);
+            P2PDataStorage.MapValue value = map.get(key);
+            if (value != null) {
+                delta.put(key, value);
+            }
+        });
+        return toProtoMessage(delta);
+    }
+
+    @Override
+    public void applyPersistableDelta(PersistableEnvelope delta) {
+        map.putAll(((SequenceNumberMap) delta).getMap());
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    public void setMap(Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map) {
+        this.map = map;
+        snapshotRequired = true;
+    }
+
     // Delegates
     public int size() {
         return map.size();
@@ -89,5 +142,6 @@ public class SequenceNumberMap implements PersistableEnvelope {
 
     public void put(P2PDataStorage.ByteArray key, P2PDataStorage.MapValue value) {
         map.put(key, value);
+        changedKeys.add(key);
     }
 }
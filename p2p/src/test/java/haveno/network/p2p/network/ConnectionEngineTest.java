@@ -0,0 +1,112 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionEngineTest {
+    private static final Logger log = LoggerFactory.getLogger(ConnectionEngineTest.class);
+
+    @Test
+    public void testFromString() {
+        assertEquals(ConnectionEngine.VIRTUAL_THREADS, ConnectionEngine.fromString(" virtual_threads "));
+        assertEquals(ConnectionEngine.THREAD_PER_CONNECTION, ConnectionEngine.fromString("THREAD_PER_CONNECTION"));
+        assertEquals(ConnectionEngine.THREAD_PER_CONNECTION, ConnectionEngine.fromString("unknown"));
+        assertEquals(ConnectionEngine.THREAD_PER_CONNECTION, ConnectionEngine.fromString(null));
+    }
+
+    @Test
+    public void testEffectiveEngine() {
+        assertEquals(ConnectionEngine.THREAD_PER_CONNECTION, ConnectionEngine.THREAD_PER_CONNECTION.getEffectiveEngine());
+        assertEquals(ConnectionEngine.isVirtualThreadsSupported() ? ConnectionEngine.VIRTUAL_THREADS : ConnectionEngine.THREAD_PER_CONNECTION,
+                ConnectionEngine.VIRTUAL_THREADS.getEffectiveEngine());
+    }
+
+    @Test
+    public void testConnectionExecutorRunsTasks() throws Exception {
+        for (ConnectionEngine engine : ConnectionEngine.values()) {
+            ExecutorService executor = engine.createConnectionExecutor("ConnectionEngineTest-" + engine);
+            CountDownLatch latch = new CountDownLatch(1);
+            executor.execute(latch::countDown);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            executor.shutdownNow();
+        }
+    }
+
+    // Benchmark of the platform threads and time needed for idle connections blocked in a socket read.
+    // Run manually with a Java 21 runtime to compare the engines.
+    @Disabled
+    @Test
+    public void benchmarkIdleConnections() throws Exception {
+        int numConnections = 1000;
+        for (ConnectionEngine engine : ConnectionEngine.values()) {
+            log.info("{}: {}", engine, runIdleConnections(engine.getEffectiveEngine(), numConnections));
+        }
+    }
+
+    private static String runIdleConnections(ConnectionEngine engine, int numConnections) throws IOException, InterruptedException {
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        List<Socket> sockets = new ArrayList<>();
+        List<ExecutorService> executors = new ArrayList<>();
+        CountDownLatch reading = new CountDownLatch(numConnections);
+        long ts = System.currentTimeMillis();
+        try (ServerSocket serverSocket = new ServerSocket(0, numConnections, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < numConnections; i++) {
+                Socket client = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+                Socket server = serverSocket.accept();
+                sockets.add(client);
+                sockets.add(server);
+                ExecutorService executor = engine.createConnectionExecutor("Benchmark-" + i);
+                executors.add(executor);
+                executor.execute(() -> {
+                    reading.countDown();
+                    try {
+                        server.getInputStream().read();
+                    } catch (IOException ignore) {
+                    }
+                });
+            }
+            reading.await(60, TimeUnit.SECONDS);
+            long duration = System.currentTimeMillis() - ts;
+            int platformThreads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+            return "connections=" + numConnections + ", platform threads=" + platformThreads + ", setup=" + duration + " ms";
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            executors.forEach(ExecutorService::shutdownNow);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import haveno.common.proto.network.NetworkEnvelope;
+import haveno.network.p2p.CloseConnectionMessage;
+import haveno.network.p2p.peers.keepalive.messages.Ping;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class OutboundQueueTest {
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final List<List<NetworkEnvelope>> batches = new ArrayList<>();
+    private final List<Runnable> drainTasks = new ArrayList<>();
+
+    @Test
+    public void testPriorityEnvelopesAreWrittenFirstInOneBatch() throws Exception {
+        OutboundQueue queue = new OutboundQueue(batches::add, 10, ONE_HOUR, drainTasks::add);
+        NetworkEnvelope bulk1 = mock(NetworkEnvelope.class);
+        NetworkEnvelope bulk2 = mock(NetworkEnvelope.class);
+        Ping ping = new Ping(1, 0);
+        CloseConnectionMessage closeConnectionMessage = new CloseConnectionMessage("reason");
+
+        ListenableFuture<Boolean> future = queue.enqueue(bulk1);
+        queue.enqueue(bulk2);
+        queue.enqueue(ping);
+        queue.enqueue(closeConnectionMessage);
+        assertEquals(1, drainTasks.size());
+        assertFalse(future.isDone());
+
+        drainTasks.get(0).run();
+        assertEquals(1, batches.size());
+        assertEquals(List.of(ping, closeConnectionMessage, bulk1, bulk2), batches.get(0));
+        assertTrue(future.get());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testBulkEnvelopesAreRateLimited() {
+        OutboundQueue queue = new OutboundQueue(batches::add, 2, ONE_HOUR, drainTasks::add);
+        queue.enqueue(mock(NetworkEnvelope.class));
+        queue.enqueue(mock(NetworkEnvelope.class));
+        ListenableFuture<Boolean> throttled = queue.enqueue(mock(NetworkEnvelope.class));
+        drainTasks.get(0).run();
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, queue.size());
+        assertFalse(throttled.isDone());
+
+        // Priority envelopes have their own token bucket
+        queue.enqueue(new Ping(1, 0));
+        queue.close();
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testPriorityEnvelopesAreRateLimited() {
+        OutboundQueue queue = new OutboundQueue(batches::add, 1, ONE_HOUR, drainTasks::add);
+        for (int i = 0; i < OutboundQueue.PRIORITY_RATE_FACTOR; i++) {
+            queue.enqueue(new Ping(i, 0));
+        }
+        ListenableFuture<Boolean> throttled = queue.enqueue(new Ping(OutboundQueue.PRIORITY_RATE_FACTOR, 0));
+        drainTasks.get(0).run();
+
+        assertEquals(1, batches.size());
+        assertEquals(OutboundQueue.PRIORITY_RATE_FACTOR, batches.get(0).size());
+        assertEquals(1, queue.size());
+        assertFalse(throttled.isDone());
+        queue.close();
+    }
+
+    @Test
+    public void testClosedQueueDropsEnvelopes() throws Exception {
+        OutboundQueue queue = new OutboundQueue(batches::add, 10, ONE_HOUR, drainTasks::add);
+        ListenableFuture<Boolean> queued = queue.enqueue(mock(NetworkEnvelope.class));
+        queue.close();
+        assertFalse(queued.get());
+        assertFalse(queue.enqueue(mock(NetworkEnvelope.class)).get());
+
+        drainTasks.get(0).run();
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void testWriteFailureFailsBatch() {
+        OutboundQueue queue = new OutboundQueue(envelopes -> {
+            throw new RuntimeException("write failed");
+        }, 10, ONE_HOUR, drainTasks::add);
+        ListenableFuture<Boolean> future = queue.enqueue(mock(NetworkEnvelope.class));
+        drainTasks.get(0).run();
+        assertTrue(future.isDone());
+        assertTrue(isFailed(future));
+    }
+
+    @Test
+    public void testTokenBucketRefill() {
+        TokenBucket tokenBucket = new TokenBucket(2, 100, 0);
+        assertTrue(tokenBucket.tryAcquire(0));
+        assertTrue(tokenBucket.tryAcquire(0));
+        assertFalse(tokenBucket.tryAcquire(50));
+        assertEquals(50, tokenBucket.getDelayToNextToken(50));
+        assertTrue(tokenBucket.tryAcquire(100));
+        assertFalse(tokenBucket.tryAcquire(100));
+
+        // The bucket does not fill up beyond its capacity
+        assertEquals(0, tokenBucket.getDelayToNextToken(10_000));
+        assertTrue(tokenBucket.tryAcquire(10_000));
+        assertTrue(tokenBucket.tryAcquire(10_000));
+        assertFalse(tokenBucket.tryAcquire(10_000));
+    }
+
+    private static boolean isFailed(ListenableFuture<?> future) {
+        try {
+            future.get();
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.peers;
+
+import haveno.network.p2p.BundleOfEnvelopes;
+import haveno.network.p2p.storage.messages.BroadcastMessage;
+import haveno.network.p2p.storage.messages.RefreshOfferMessage;
+import haveno.network.p2p.storage.messages.RefreshOffersMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class BroadcastHandlerTest {
+
+    @Test
+    public void testRefreshesAreBundled() {
+        List<BroadcastMessage> messages = getRefreshOfferMessages(3);
+        BroadcastMessage other = mock(BroadcastMessage.class);
+        messages.add(other);
+
+        BroadcastMessage message = BroadcastHandler.getMessage(messages, true);
+
+        assertTrue(message instanceof BundleOfEnvelopes);
+        BundleOfEnvelopes bundle = (BundleOfEnvelopes) message;
+        assertEquals(2, bundle.getEnvelopes().size());
+        assertSame(other, bundle.getEnvelopes().get(0));
+        assertEquals(3, ((RefreshOffersMessage) bundle.getEnvelopes().get(1)).getRefreshOfferMessages().size());
+    }
+
+    @Test
+    public void testOnlyRefreshesAreSentWithoutBundle() {
+        BroadcastMessage message = BroadcastHandler.getMessage(getRefreshOfferMessages(5), true);
+
+        assertTrue(message instanceof RefreshOffersMessage);
+        assertEquals(5, ((RefreshOffersMessage) message).getRefreshOfferMessages().size());
+    }
+
+    @Test
+    public void testRefreshesArePartitioned() {
+        int numRefreshes = RefreshOffersMessage.MAX_NUM_REFRESHES + 1;
+        BroadcastMessage message = BroadcastHandler.getMessage(getRefreshOfferMessages(numRefreshes), true);
+
+        assertTrue(message instanceof BundleOfEnvelopes);
+        List<?> envelopes = ((BundleOfEnvelopes) message).getEnvelopes();
+        assertEquals(2, envelopes.size());
+        assertEquals(RefreshOffersMessage.MAX_NUM_REFRESHES, ((RefreshOffersMessage) envelopes.get(0)).getRefreshOfferMessages().size());
+        assertEquals(1, ((RefreshOffersMessage) envelopes.get(1)).getRefreshOfferMessages().size());
+    }
+
+    @Test
+    public void testRefreshesAreNotBundledWithoutCapability() {
+        List<BroadcastMessage> messages = getRefreshOfferMessages(3);
+
+        BroadcastMessage message = BroadcastHandler.getMessage(messages, false);
+
+        assertTrue(message instanceof BundleOfEnvelopes);
+        assertEquals(messages, ((BundleOfEnvelopes) message).getEnvelopes());
+    }
+
+    @Test
+    public void testSingleMessageIsSentDirectly() {
+        List<BroadcastMessage> messages = getRefreshOfferMessages(1);
+
+        assertSame(messages.get(0), BroadcastHandler.getMessage(messages, true));
+    }
+
+    private static List<BroadcastMessage> getRefreshOfferMessages(int numRefreshes) {
+        List<BroadcastMessage> messages = new ArrayList<>();
+        for (int i = 0; i < numRefreshes; i++) {
+            messages.add(new RefreshOfferMessage(new byte[]{1}, new byte[]{2}, new byte[]{(byte) i}, i));
+        }
+        return messages;
+    }
+}
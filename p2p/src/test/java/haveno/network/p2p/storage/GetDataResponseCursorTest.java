@@ -0,0 +1,110 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.peers.getdata.messages.GetDataResponse;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GetDataResponseCursorTest {
+
+    @Test
+    public void testChunks() {
+        Set<PersistableNetworkPayload> payloads = getPayloads(25, 100);
+        GetDataResponseCursor cursor = new GetDataResponseCursor(new HashSet<>(), payloads, 7, true, false, 1000);
+        assertEquals(25, cursor.getNumItems());
+
+        List<GetDataResponse> chunks = new ArrayList<>();
+        while (cursor.hasNext()) chunks.add(cursor.next());
+
+        assertEquals(3, chunks.size());
+        Set<PersistableNetworkPayload> received = new HashSet<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            GetDataResponse chunk = chunks.get(i);
+            assertEquals(i, chunk.getChunkIndex());
+            assertEquals(i < chunks.size() - 1, chunk.isHasMoreChunks());
+            assertEquals(7, chunk.getRequestNonce());
+            assertTrue(chunk.isGetUpdatedDataResponse());
+            assertTrue(chunk.getPersistableNetworkPayloadSet().size() <= 10);
+            received.addAll(chunk.getPersistableNetworkPayloadSet());
+        }
+        assertEquals(payloads, received);
+        assertEquals(0, cursor.getNumRemainingItems());
+    }
+
+    @Test
+    public void testEmptyResponseHasOneChunk() {
+        GetDataResponseCursor cursor = new GetDataResponseCursor(new HashSet<>(), new HashSet<>(), 1, false, false, 1000);
+        assertTrue(cursor.hasNext());
+        GetDataResponse chunk = cursor.next();
+        assertEquals(0, chunk.getChunkIndex());
+        assertFalse(chunk.isHasMoreChunks());
+        assertTrue(chunk.getDataSet().isEmpty());
+        assertTrue(chunk.getPersistableNetworkPayloadSet().isEmpty());
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void testItemLargerThanChunkSize() {
+        Set<PersistableNetworkPayload> payloads = getPayloads(2, 5000);
+        GetDataResponseCursor cursor = new GetDataResponseCursor(new HashSet<>(), payloads, 1, false, false, 1000);
+        assertEquals(1, cursor.next().getPersistableNetworkPayloadSet().size());
+        assertEquals(1, cursor.next().getPersistableNetworkPayloadSet().size());
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void testItemsAreSerializedOnce() {
+        Set<PersistableNetworkPayload> payloads = getPayloads(25, 100);
+        GetDataResponseCursor cursor = new GetDataResponseCursor(new HashSet<>(), payloads, 1, false, false, 1000);
+
+        while (cursor.hasNext()) {
+            GetDataResponse chunk = cursor.next();
+            Set<protobuf.PersistableNetworkPayload> protos = new HashSet<>();
+            chunk.getPersistableNetworkPayloadSet().forEach(payload -> protos.add(payload.toProtoMessage()));
+            assertEquals(protos, new HashSet<>(chunk.getSerializedPersistableNetworkPayloadItems()));
+        }
+        // Once while filling the chunks and once above
+        payloads.forEach(payload -> verify(payload, times(2)).toProtoMessage());
+    }
+
+    private static Set<PersistableNetworkPayload> getPayloads(int numPayloads, int size) {
+        Set<PersistableNetworkPayload> payloads = new HashSet<>();
+        for (int i = 0; i < numPayloads; i++) {
+            protobuf.PersistableNetworkPayload proto = mock(protobuf.PersistableNetworkPayload.class);
+            when(proto.getSerializedSize()).thenReturn(size);
+            PersistableNetworkPayload payload = mock(PersistableNetworkPayload.class);
+            when(payload.toProtoMessage()).thenReturn(proto);
+            payloads.add(payload);
+        }
+        return payloads;
+    }
+}
@@ -476,4 +476,15 @@ public class P2PDataStorageBuildGetDataResponseTest {
             return new GetUpdatedDataRequest(new NodeAddress("peer", 10), nonce, knownKeys);
         }
     }
+
+    public static class P2PDataStorageBuildGetDataResponseTestBloomFilter extends P2PDataStorageBuildGetDataResponseTestBase {
+
+        @Override
+        GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys) {
+            PayloadHashBloomFilter filter = PayloadHashBloomFilter.create(knownKeys.size(),
+                    PayloadHashBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+            knownKeys.forEach(filter::put);
+            return new PreliminaryGetDataRequest(nonce, filter);
+        }
+    }
 }
@@ -37,6 +37,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
@@ -167,4 +168,24 @@ public class P2PDataStorageRequestDataTest {
         assertTrue(byteSetContains(getDataRequest.getExcludedKeys(),
                 P2PDataStorage.get32ByteHash(toAdd4.getProtectedStoragePayload())));
     }
+
+    // TESTCASE: P2PDataStorage generates a GetDataRequestMessage with a bloom filter of both sets of keys instead
+    // of the excluded keys if requested.
+    @Test
+    public void buildPreliminaryGetDataRequest_BloomFilter() throws NoSuchAlgorithmException {
+        PersistableNetworkPayload toAdd1 = new PersistableNetworkPayloadStub(new byte[] { 1 });
+        ProtectedStorageEntry toAdd2 = getProtectedStorageEntryForAdd();
+
+        this.testState.mockedStorage.addPersistableNetworkPayload(toAdd1, this.localNodeAddress, false);
+        this.testState.mockedStorage.addProtectedStorageEntry(toAdd2, this.localNodeAddress, null);
+
+        PreliminaryGetDataRequest getDataRequest = this.testState.mockedStorage.buildPreliminaryGetDataRequest(1, true);
+
+        assertEquals(getDataRequest.getNonce(), 1);
+        assertTrue(getDataRequest.getExcludedKeys().isEmpty());
+        assertNotNull(getDataRequest.getExcludedKeysFilter());
+        assertTrue(getDataRequest.getExcludedKeysFilter().mightContain(toAdd1.getHash()));
+        assertTrue(getDataRequest.getExcludedKeysFilter().mightContain(
+                P2PDataStorage.get32ByteHash(toAdd2.getProtectedStoragePayload())));
+    }
 }
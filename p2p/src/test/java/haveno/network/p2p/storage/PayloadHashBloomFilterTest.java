@@ -0,0 +1,92 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import com.google.protobuf.ByteString;
+import haveno.common.crypto.Hash;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PayloadHashBloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        List<byte[]> hashes = getHashes(0, 10000);
+        PayloadHashBloomFilter filter = PayloadHashBloomFilter.create(hashes.size(),
+                PayloadHashBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        hashes.forEach(filter::put);
+        hashes.forEach(hash -> assertTrue(filter.mightContain(hash)));
+
+        // Short keys like the ones of the test stubs
+        filter.put(new byte[]{1});
+        assertTrue(filter.mightContain(new byte[]{1}));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        PayloadHashBloomFilter filter = PayloadHashBloomFilter.create(10000, 0.01);
+        getHashes(0, 10000).forEach(filter::put);
+        long falsePositives = getHashes(10000, 20000).stream().filter(filter::mightContain).count();
+        assertTrue(falsePositives < 200, "falsePositives=" + falsePositives);
+    }
+
+    @Test
+    public void testIsSmallerThanKeyList() {
+        PayloadHashBloomFilter filter = PayloadHashBloomFilter.create(10000,
+                PayloadHashBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        assertTrue(filter.toProtoMessage().getBits().size() < 10000 * 32 / 10);
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        List<byte[]> hashes = getHashes(0, 1000);
+        PayloadHashBloomFilter filter = PayloadHashBloomFilter.create(hashes.size(),
+                PayloadHashBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        hashes.forEach(filter::put);
+
+        PayloadHashBloomFilter fromProto = PayloadHashBloomFilter.fromProto(filter.toProtoMessage());
+        assertEquals(filter, fromProto);
+        hashes.forEach(hash -> assertTrue(fromProto.mightContain(hash)));
+    }
+
+    @Test
+    public void testInvalidProto() {
+        assertThrows(IllegalArgumentException.class, () -> PayloadHashBloomFilter.fromProto(
+                protobuf.PayloadHashBloomFilter.newBuilder()
+                        .setBits(ByteString.copyFrom(new byte[7]))
+                        .setNumHashFunctions(3)
+                        .build()));
+        assertThrows(IllegalArgumentException.class, () -> PayloadHashBloomFilter.fromProto(
+                protobuf.PayloadHashBloomFilter.newBuilder()
+                        .setBits(ByteString.copyFrom(new byte[8]))
+                        .setNumHashFunctions(PayloadHashBloomFilter.MAX_NUM_HASH_FUNCTIONS + 1)
+                        .build()));
+    }
+
+    private static List<byte[]> getHashes(int from, int to) {
+        List<byte[]> hashes = new ArrayList<>();
+        for (int i = from; i < to; i++) hashes.add(Hash.getSha256Hash(i));
+        return hashes;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.messages;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RefreshOffersMessageTest {
+
+    @Test
+    public void testProtoRoundTrip() {
+        List<RefreshOfferMessage> refreshes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            refreshes.add(getRefreshOfferMessage(i));
+        }
+        RefreshOffersMessage message = new RefreshOffersMessage(refreshes);
+
+        protobuf.NetworkEnvelope envelope = message.toProtoNetworkEnvelope();
+        RefreshOffersMessage fromProto = RefreshOffersMessage.fromProto(envelope.getRefreshOffersMessage(),
+                message.getMessageVersion());
+
+        assertEquals(3, fromProto.getRefreshOfferMessages().size());
+        for (int i = 0; i < 3; i++) {
+            RefreshOfferMessage refresh = fromProto.getRefreshOfferMessages().get(i);
+            assertArrayEquals(refreshes.get(i).getHashOfPayload(), refresh.getHashOfPayload());
+            assertArrayEquals(refreshes.get(i).getSignature(), refresh.getSignature());
+            assertEquals(i, refresh.getSequenceNumber());
+        }
+        assertEquals(message, fromProto);
+    }
+
+    @Test
+    public void testTooManyRefreshes() {
+        List<RefreshOfferMessage> refreshes = Collections.nCopies(RefreshOffersMessage.MAX_NUM_REFRESHES + 1,
+                getRefreshOfferMessage(1));
+        assertThrows(IllegalArgumentException.class, () -> new RefreshOffersMessage(refreshes));
+    }
+
+    static RefreshOfferMessage getRefreshOfferMessage(int sequenceNumber) {
+        return new RefreshOfferMessage(new byte[]{1, (byte) sequenceNumber},
+                new byte[]{2, (byte) sequenceNumber},
+                new byte[]{3, (byte) sequenceNumber},
+                sequenceNumber);
+    }
+}
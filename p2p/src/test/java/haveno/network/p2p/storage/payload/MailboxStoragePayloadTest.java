@@ -0,0 +1,88 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.payload;
+
+import haveno.common.crypto.Hash;
+import haveno.common.crypto.SealedAndSigned;
+import haveno.network.p2p.NodeAddress;
+import haveno.network.p2p.PrefixedSealedAndSignedMessage;
+import haveno.network.p2p.TestUtils;
+import haveno.network.p2p.storage.P2PDataStorage;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.KeyPair;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MailboxStoragePayloadTest {
+    private static final Logger log = LoggerFactory.getLogger(MailboxStoragePayloadTest.class);
+
+    @Test
+    public void testHashIsCached() throws Exception {
+        MailboxStoragePayload payload = buildMailboxStoragePayload(3000);
+
+        byte[] hash = P2PDataStorage.get32ByteHash(payload);
+        assertArrayEquals(Hash.getSha256Hash(payload.toProtoMessage().toByteArray()), hash);
+        assertSame(hash, P2PDataStorage.get32ByteHash(payload));
+
+        // A payload received from the network has the same hash
+        MailboxStoragePayload fromProto = MailboxStoragePayload.fromProto(payload.toProtoMessage().getMailboxStoragePayload());
+        assertArrayEquals(hash, P2PDataStorage.get32ByteHash(fromProto));
+    }
+
+    // Benchmark of the hash lookups done at add and refresh storms of a typical mailbox payload.
+    // Run manually to compare the cached hash with serializing and hashing at each lookup.
+    @Disabled
+    @Test
+    public void benchmarkHashLookups() throws Exception {
+        MailboxStoragePayload payload = buildMailboxStoragePayload(3000);
+        int numLookups = 100000;
+        for (int run = 0; run < 3; run++) {
+            long ts = System.nanoTime();
+            for (int i = 0; i < numLookups; i++) {
+                Hash.getSha256Hash(payload.toProtoMessage().toByteArray());
+            }
+            long uncached = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            for (int i = 0; i < numLookups; i++) {
+                P2PDataStorage.get32ByteHash(payload);
+            }
+            long cached = System.nanoTime() - ts;
+            log.info("{} lookups: uncached={} ms, cached={} ms", numLookups, uncached / 1_000_000, cached / 1_000_000);
+        }
+    }
+
+    private static MailboxStoragePayload buildMailboxStoragePayload(int size) throws Exception {
+        KeyPair senderKeys = TestUtils.generateKeyPair();
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+        byte[] encryptedPayload = new byte[size];
+        new Random(1).nextBytes(encryptedPayload);
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[256], encryptedPayload, new byte[256],
+                senderKeys.getPublic());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("localhost", 8080),
+                sealedAndSigned);
+        return new MailboxStoragePayload(message, senderKeys.getPublic(), ownerKeys.getPublic(),
+                MailboxStoragePayload.TTL);
+    }
+}